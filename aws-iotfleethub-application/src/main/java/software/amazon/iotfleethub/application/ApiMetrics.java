@@ -0,0 +1,113 @@
+package software.amazon.iotfleethub.application;
+
+import software.amazon.awssdk.awscore.AwsRequest;
+import software.amazon.awssdk.awscore.AwsResponse;
+import software.amazon.awssdk.services.iotfleethub.IoTFleetHubClient;
+import software.amazon.cloudformation.proxy.HandlerErrorCode;
+import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.ProxyClient;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Per-call latency and outcome metrics for Fleet Hub API calls, emitted as EMF lines through the handler Logger.
+ *
+ * Each call is recorded with the handler Action, the API Operation and its Outcome: Success, or the
+ * HandlerErrorCode the exception maps to. Retries counts the consecutive failures of the same operation before the
+ * call, kept in the CallbackContext so it carries across callbacks.
+ */
+public class ApiMetrics {
+
+    static final String SUCCESS = "Success";
+
+    private ApiMetrics() {
+    }
+
+    static ProxyClient<IoTFleetHubClient> instrument(
+            final ProxyClient<IoTFleetHubClient> proxyClient,
+            final String action,
+            final CallbackContext callbackContext,
+            final Logger logger) {
+
+        return new ProxyClient<IoTFleetHubClient>() {
+            @Override
+            public <RequestT extends AwsRequest, ResponseT extends AwsResponse> ResponseT injectCredentialsAndInvokeV2(
+                    RequestT request, Function<RequestT, ResponseT> requestFunction) {
+
+                String operation = RateLimiter.operationName(request);
+                int retries = consecutiveFailures(callbackContext, operation);
+                long start = System.nanoTime();
+                try {
+                    ResponseT response = proxyClient.injectCredentialsAndInvokeV2(request, requestFunction);
+                    onComplete(callbackContext, action, operation, null, start, retries, logger);
+                    return response;
+                } catch (RuntimeException e) {
+                    onComplete(callbackContext, action, operation, e, start, retries, logger);
+                    throw e;
+                }
+            }
+
+            @Override
+            public <RequestT extends AwsRequest, ResponseT extends AwsResponse> CompletableFuture<ResponseT> injectCredentialsAndInvokeV2Async(
+                    RequestT request, Function<RequestT, CompletableFuture<ResponseT>> requestFunction) {
+
+                String operation = RateLimiter.operationName(request);
+                int retries = consecutiveFailures(callbackContext, operation);
+                long start = System.nanoTime();
+                return proxyClient.injectCredentialsAndInvokeV2Async(request, requestFunction)
+                        .whenComplete((response, e) -> onComplete(callbackContext, action, operation,
+                                e == null ? null : AsyncCall.unwrap(e), start, retries, logger));
+            }
+
+            @Override
+            public IoTFleetHubClient client() {
+                return proxyClient.client();
+            }
+        };
+    }
+
+    private static void onComplete(CallbackContext callbackContext, String action, String operation, Throwable e,
+                                   long startNanos, int retries, Logger logger) {
+        // Async calls complete on SDK threads, so the failure counts are updated under the context's lock
+        synchronized (callbackContext) {
+            if (e == null) {
+                consecutiveFailures(callbackContext).remove(operation);
+            } else {
+                consecutiveFailures(callbackContext).put(operation, retries + 1);
+            }
+        }
+        String outcome = e == null ? SUCCESS
+                : e instanceof Exception ? Translator.classifyException((Exception) e).name()
+                : HandlerErrorCode.InternalFailure.name();
+        record(action, operation, outcome, startNanos, retries, logger);
+    }
+
+    private static Map<String, Integer> consecutiveFailures(CallbackContext callbackContext) {
+        if (callbackContext.getConsecutiveApiFailures() == null) {
+            callbackContext.setConsecutiveApiFailures(new HashMap<>());
+        }
+        return callbackContext.getConsecutiveApiFailures();
+    }
+
+    private static int consecutiveFailures(CallbackContext callbackContext, String operation) {
+        synchronized (callbackContext) {
+            Integer failures = consecutiveFailures(callbackContext).get(operation);
+            return failures == null ? 0 : failures;
+        }
+    }
+
+    private static void record(String action, String operation, String outcome, long startNanos, int retries, Logger logger) {
+        new MetricEvent()
+                .dimension("Action", action)
+                .dimension("Operation", operation)
+                .dimension("Outcome", outcome)
+                .metric("Latency", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos), MetricEvent.MILLISECONDS)
+                .metric("Calls", 1, MetricEvent.COUNT)
+                .metric("Retries", retries, MetricEvent.COUNT)
+                .emit(logger);
+    }
+}
@@ -0,0 +1,112 @@
+package software.amazon.iotfleethub.application;
+
+import software.amazon.awssdk.awscore.AwsRequest;
+import software.amazon.awssdk.awscore.AwsResponse;
+import software.amazon.awssdk.services.iotfleethub.IoTFleetHubClient;
+import software.amazon.cloudformation.proxy.ProxyClient;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A Fleet Hub call started on the async client ahead of the call chain stage that consumes it, so that calls which
+ * do not depend on each other are in flight at the same time.
+ *
+ * The stage's first attempt takes the started call's response, or its exception. Retries made under the stage's
+ * BackoffPolicy issue the call again through the blocking client. A deferred call is only started once the call it
+ * overlaps is issued, so it is not made for a call that never leaves the handler.
+ */
+final class AsyncCall<ResponseT> {
+
+    private static final AsyncCall<?> NONE = new AsyncCall<>(null);
+
+    private final Supplier<CompletableFuture<ResponseT>> call;
+    private final AtomicBoolean issued = new AtomicBoolean();
+    private final AtomicReference<CompletableFuture<ResponseT>> started = new AtomicReference<>();
+
+    private AsyncCall(Supplier<CompletableFuture<ResponseT>> call) {
+        this.call = call;
+    }
+
+    static <RequestT extends AwsRequest, ResponseT extends AwsResponse> AsyncCall<ResponseT> start(
+            ProxyClient<IoTFleetHubClient> proxyClient,
+            RequestT request,
+            Function<RequestT, CompletableFuture<ResponseT>> requestFunction) {
+        AsyncCall<ResponseT> asyncCall = deferred(proxyClient, request, requestFunction);
+        asyncCall.start();
+        return asyncCall;
+    }
+
+    static <RequestT extends AwsRequest, ResponseT extends AwsResponse> AsyncCall<ResponseT> deferred(
+            ProxyClient<IoTFleetHubClient> proxyClient,
+            RequestT request,
+            Function<RequestT, CompletableFuture<ResponseT>> requestFunction) {
+        return new AsyncCall<>(() -> proxyClient.injectCredentialsAndInvokeV2Async(request, requestFunction));
+    }
+
+    @SuppressWarnings("unchecked")
+    static <ResponseT> AsyncCall<ResponseT> none() {
+        return (AsyncCall<ResponseT>) NONE;
+    }
+
+    /**
+     * Starts a deferred call the first time it is called; later calls, and calls after join or cancel, do nothing.
+     */
+    void start() {
+        if (call != null && issued.compareAndSet(false, true)) {
+            started.set(call.get());
+        }
+    }
+
+    /**
+     * Gives up on the started call if no stage has taken it, so its response is discarded, and keeps it from being
+     * started later.
+     */
+    void cancel() {
+        issued.set(true);
+        CompletableFuture<ResponseT> future = started.getAndSet(null);
+        if (future != null) {
+            future.cancel(true);
+        }
+    }
+
+    /**
+     * Waits for the started call the first time it is called, and makes the blocking call on every later attempt, or
+     * when the call was never started.
+     */
+    ResponseT join(Supplier<ResponseT> blockingCall) {
+        issued.set(true);
+        CompletableFuture<ResponseT> future = started.getAndSet(null);
+        if (future == null) {
+            return blockingCall.get();
+        }
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = unwrap(e);
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * The exception the call failed with, without the wrappers added by composed futures.
+     */
+    static Throwable unwrap(Throwable e) {
+        Throwable cause = e;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+}
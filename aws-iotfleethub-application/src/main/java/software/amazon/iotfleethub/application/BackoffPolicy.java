@@ -0,0 +1,116 @@
+package software.amazon.iotfleethub.application;
+
+import software.amazon.cloudformation.proxy.Delay;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Capped exponential backoff used between stabilization polls, between retries of calls rejected with
+ * InternalFailureException, and between callbacks after a ThrottlingException or a call that ran out of time.
+ *
+ * The delay is derived from the attempt number alone, so the schedule carries over callbacks through the attempt
+ * count the call chain keeps in the CallbackContext. Attempts are counted from 1, as the call chain does, and
+ * returning Duration.ZERO tells the call chain to give up.
+ */
+@lombok.Builder
+@lombok.Getter
+@lombok.ToString
+public class BackoffPolicy implements Delay {
+
+    // Polling DescribeApplication while an Application is being created or deleted.
+    static final BackoffPolicy STABILIZATION = BackoffPolicy.builder()
+            .minDelay(Duration.ofSeconds(5))
+            .maxDelay(Duration.ofSeconds(60))
+            .timeout(Duration.ofMinutes(30))
+            .build();
+
+    // Retrying calls that hit an internal failure.
+    static final BackoffPolicy RETRY = BackoffPolicy.builder()
+            .minDelay(Duration.ofSeconds(1))
+            .maxDelay(Duration.ofSeconds(20))
+            .timeout(Duration.ofMinutes(5))
+            .build();
+
+    // Calling back after a ThrottlingException; maxAttempts is the retry budget for the whole handler operation.
+    static final BackoffPolicy THROTTLING = BackoffPolicy.builder()
+            .minDelay(Duration.ofSeconds(2))
+            .maxDelay(Duration.ofSeconds(60))
+            .timeout(Duration.ofMinutes(30))
+            .maxAttempts(Settings.THROTTLING_MAX_ATTEMPTS)
+            .build();
+
+    // Calling back after a call ran out of invocation time or timed out; maxAttempts is the budget for the whole
+    // handler operation.
+    static final BackoffPolicy TIMEOUT = BackoffPolicy.builder()
+            .minDelay(Duration.ofSeconds(1))
+            .maxDelay(Duration.ofSeconds(30))
+            .timeout(Duration.ofMinutes(10))
+            .maxAttempts(5)
+            .build();
+
+    // Retrying a throttled or internally failed call within the invocation, where the wait is spent in the handler
+    // rather than in a callback.
+    static final BackoffPolicy IN_INVOCATION_RETRY = BackoffPolicy.builder()
+            .minDelay(Duration.ofMillis(200))
+            .maxDelay(Duration.ofSeconds(5))
+            .timeout(Duration.ofSeconds(30))
+            .maxAttempts(5)
+            .build();
+
+    private final Duration minDelay;
+    private final Duration maxDelay;
+    private final Duration timeout;
+    @lombok.Builder.Default
+    private final int maxAttempts = Integer.MAX_VALUE;
+
+    @Override
+    public Duration nextDelay(int attempt) {
+        if (attempt > maxAttempts || elapsedBefore(attempt).compareTo(timeout) >= 0) {
+            return Duration.ZERO;
+        }
+        return delayFor(attempt);
+    }
+
+    /**
+     * Callback delay for the given attempt with equal jitter: a random point in the upper half of the backoff
+     * delay, rounded up to whole seconds, so handlers throttled together do not all call back together.
+     * Returns 0 once the retry budget is spent.
+     */
+    int jitteredCallbackDelaySeconds(int attempt) {
+        long millis = jitteredDelay(attempt).toMillis();
+        if (millis == 0) {
+            return 0;
+        }
+        return (int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(millis + 999));
+    }
+
+    /**
+     * The delay for the given attempt with equal jitter, or Duration.ZERO once the retry budget is spent.
+     */
+    Duration jitteredDelay(int attempt) {
+        long millis = nextDelay(attempt).toMillis();
+        if (millis == 0) {
+            return Duration.ZERO;
+        }
+        return Duration.ofMillis(millis / 2 + ThreadLocalRandom.current().nextLong(millis - millis / 2 + 1));
+    }
+
+    Duration delayFor(int attempt) {
+        // Doubles on every attempt until capped; the shift is bounded to avoid overflow on long waits.
+        long millis = minDelay.toMillis() << Math.min(Math.max(attempt - 1, 0), 16);
+        return Duration.ofMillis(Math.min(millis, maxDelay.toMillis()));
+    }
+
+    /**
+     * Total time spent waiting before the given attempt.
+     */
+    Duration elapsedBefore(int attempt) {
+        Duration elapsed = Duration.ZERO;
+        for (int i = 1; i < attempt && elapsed.compareTo(timeout) < 0; i++) {
+            elapsed = elapsed.plus(delayFor(i));
+        }
+        return elapsed;
+    }
+}
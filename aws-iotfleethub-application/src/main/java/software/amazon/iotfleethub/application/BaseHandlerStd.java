@@ -0,0 +1,243 @@
+package software.amazon.iotfleethub.application;
+
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.core.exception.ApiCallAttemptTimeoutException;
+import software.amazon.awssdk.core.exception.ApiCallTimeoutException;
+import software.amazon.awssdk.core.exception.RetryableException;
+import software.amazon.awssdk.services.iotfleethub.IoTFleetHubAsyncClient;
+import software.amazon.awssdk.services.iotfleethub.IoTFleetHubClient;
+import software.amazon.awssdk.services.iotfleethub.model.InternalFailureException;
+import software.amazon.awssdk.services.iotfleethub.model.ThrottlingException;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.HandlerErrorCode;
+import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.ProgressEvent;
+import software.amazon.cloudformation.proxy.ProxyClient;
+import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Common entry point for all handlers: supplies a non-null CallbackContext and a rate-limited, instrumented
+ * ProxyClient over the shared IoTFleetHubClient, so each handler is written as a call chain.
+ */
+public abstract class BaseHandlerStd extends BaseHandler<CallbackContext> {
+
+    // Set by each invocation, which CloudFormation runs one at a time per handler instance
+    private Deadline invocationDeadline;
+
+    @Override
+    public final ProgressEvent<ResourceModel, CallbackContext> handleRequest(
+            final AmazonWebServicesClientProxy proxy,
+            final ResourceHandlerRequest<ResourceModel> request,
+            final CallbackContext callbackContext,
+            final Logger logger) {
+
+        CallbackContext context = callbackContext != null ? callbackContext : new CallbackContext();
+        // Error logging budget is per invocation
+        Logger invocationLogger = new ErrorLogger(logger);
+        invocationDeadline = Deadline.forInvocation();
+        ProxyClient<IoTFleetHubClient> proxyClient = newProxyClient(
+                proxy, action(), request.getAwsAccountId(), invocationDeadline, context, invocationLogger);
+        return handleRequest(proxy, request, context, proxyClient, invocationLogger);
+    }
+
+    /**
+     * ProxyClient over the shared IoTFleetHubClient that bounds every call by the invocation's deadline, records API
+     * metrics for the action and applies the container's rate limits, hedging and circuit breakers. Describes served
+     * from the account's entries in the DescribeCache, and reads that join an identical one in flight through
+     * SingleFlight, make no call of their own.
+     */
+    static ProxyClient<IoTFleetHubClient> newProxyClient(
+            final AmazonWebServicesClientProxy proxy,
+            final String action,
+            final String awsAccountId,
+            final Deadline deadline,
+            final CallbackContext callbackContext,
+            final Logger logger) {
+
+        ProxyClient<IoTFleetHubClient> proxyClient = ApiMetrics.instrument(
+                deadline.bound(proxy.newProxy(() -> ClientBuilder.getClient(logger))), action, callbackContext, logger);
+        ProxyClient<IoTFleetHubClient> hedged = Hedging.shared().wrap(RateLimiter.limit(proxyClient, deadline, logger), action, logger);
+        ProxyClient<IoTFleetHubClient> guarded = CircuitBreakers.shared().wrap(hedged, logger);
+        ProxyClient<IoTFleetHubClient> coalesced = SingleFlight.shared().wrap(guarded, awsAccountId, deadline, action, logger);
+        return DescribeCache.shared().wrap(coalesced, awsAccountId, action, logger);
+    }
+
+    /**
+     * The Deadline the invocation's ProxyClient is bound by, for handlers that also spend invocation time outside
+     * their calls. A handler entered without going through handleRequest, as in tests, gets a fresh one.
+     */
+    Deadline deadline() {
+        return invocationDeadline != null ? invocationDeadline : Deadline.forInvocation();
+    }
+
+    /**
+     * Handler action reported with the API call metrics, e.g. Create for CreateHandler.
+     */
+    String action() {
+        return getClass().getSimpleName().replace("Handler", "");
+    }
+
+    /**
+     * Async client for the calls a handler can have in flight together, or empty when every call is made blocking.
+     * Async calls still go through the handler's ProxyClient, which injects credentials and applies rate limiting.
+     */
+    Optional<IoTFleetHubAsyncClient> asyncClient(Logger logger) {
+        return Settings.ASYNC_CALLS ? Optional.of(ClientBuilder.getAsyncClient(logger)) : Optional.empty();
+    }
+
+    /**
+     * Whether the handler may hand an operation back to CloudFormation as IN_PROGRESS. Read and List may only return
+     * SUCCESS or FAILED, so they retry throttled and internally failed calls within the invocation instead, and fail
+     * once they cannot.
+     */
+    boolean canCallBack() {
+        return true;
+    }
+
+    /**
+     * Backoff for calls retried within the invocation, by handlers that cannot call back.
+     */
+    BackoffPolicy inInvocationRetries() {
+        return BackoffPolicy.IN_INVOCATION_RETRY;
+    }
+
+    /**
+     * Makes a call, retrying it in place under policy while it is throttled or fails with InternalFailureException, and
+     * the deadline leaves time for the wait and another call. The error is rethrown once the policy or the deadline
+     * runs out.
+     */
+    static <ResponseT> ResponseT retryInPlace(Supplier<ResponseT> call, BackoffPolicy policy, Deadline deadline) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return call.get();
+            } catch (AwsServiceException e) {
+                boolean retryable = RateLimiter.isThrottling(e) || e instanceof InternalFailureException;
+                Duration delay = retryable ? policy.jitteredDelay(attempt) : Duration.ZERO;
+                if (delay.isZero() || !deadline.allows(delay.plus(Deadline.MIN_CALL_TIME))) {
+                    throw e;
+                }
+                sleep(delay);
+            }
+        }
+    }
+
+    private static void sleep(Duration delay) {
+        try {
+            Thread.sleep(delay.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+    }
+
+    protected abstract ProgressEvent<ResourceModel, CallbackContext> handleRequest(
+            final AmazonWebServicesClientProxy proxy,
+            final ResourceHandlerRequest<ResourceModel> request,
+            final CallbackContext callbackContext,
+            final ProxyClient<IoTFleetHubClient> proxyClient,
+            final Logger logger);
+
+    /**
+     * Error handler shared by the call chains. ThrottlingException hands the operation back to CloudFormation as
+     * IN_PROGRESS until the throttling retry budget is spent, and CircuitOpenException hands it back until the
+     * operation's circuit lets calls through again. A call the invocation has no time left for, or that timed out,
+     * hands it back until the timeout budget is spent: the CallbackContext keeps the responses of the calls already
+     * made, so the callback picks up where this invocation stopped. Handlers that cannot call back fail with the
+     * translated error code instead. InternalFailureException is handed back to the call chain as retryable, so it is
+     * retried under the chain's BackoffPolicy; handlers that cannot call back have already retried it in place, and
+     * fail with ServiceInternalError. Anything else fails the handler with the translated error code.
+     */
+    protected ProgressEvent<ResourceModel, CallbackContext> handleError(
+            final Object request,
+            final Exception e,
+            final ResourceModel model,
+            final CallbackContext callbackContext,
+            final Logger logger) {
+
+        if (e instanceof ThrottlingException) {
+            return handleThrottling(request, e, model, callbackContext, logger);
+        }
+
+        if (e instanceof CircuitOpenException && canCallBack()) {
+            int delaySeconds = ((CircuitOpenException) e).getRetryAfterSeconds();
+            logger.log(String.format("%s Calling back in %d seconds.", e.getMessage(), delaySeconds));
+            return ProgressEvent.defaultInProgressHandler(callbackContext, delaySeconds, model);
+        }
+
+        if (e instanceof DeadlineExceededException
+                || e instanceof ApiCallTimeoutException
+                || e instanceof ApiCallAttemptTimeoutException) {
+            return handleTimeout(request, e, model, callbackContext, logger);
+        }
+
+        if (e instanceof InternalFailureException && !canCallBack()) {
+            logger.log(String.format("%s still failed after retrying within the invocation",
+                    request == null ? "request" : request.getClass().getSimpleName()));
+            return ProgressEvent.failed(model, callbackContext, HandlerErrorCode.ServiceInternalError, e.getMessage());
+        }
+
+        if (e instanceof InternalFailureException) {
+            logger.log(String.format("Retrying %s after %s",
+                    request == null ? "request" : request.getClass().getSimpleName(), e.getClass().getSimpleName()));
+            throw RetryableException.builder().cause(e).message(e.getMessage()).build();
+        }
+
+        HandlerErrorCode err = Translator.translateExceptionToErrorCode(e, logger);
+        return ProgressEvent.failed(model, callbackContext, err, e.getMessage());
+    }
+
+    private ProgressEvent<ResourceModel, CallbackContext> handleThrottling(
+            final Object request,
+            final Exception e,
+            final ResourceModel model,
+            final CallbackContext callbackContext,
+            final Logger logger) {
+
+        if (!canCallBack()) {
+            logger.log(String.format("%s was still throttled after retrying within the invocation",
+                    request == null ? "request" : request.getClass().getSimpleName()));
+            HandlerErrorCode err = Translator.translateExceptionToErrorCode(e, logger);
+            return ProgressEvent.failed(model, callbackContext, err, e.getMessage());
+        }
+
+        int attempt = callbackContext.getThrottlingAttempts() + 1;
+        int delaySeconds = BackoffPolicy.THROTTLING.jitteredCallbackDelaySeconds(attempt);
+        if (delaySeconds == 0) {
+            logger.log(String.format("Throttling retry budget spent after %d attempts", attempt - 1));
+            HandlerErrorCode err = Translator.translateExceptionToErrorCode(e, logger);
+            return ProgressEvent.failed(model, callbackContext, err, e.getMessage());
+        }
+
+        callbackContext.setThrottlingAttempts(attempt);
+        logger.log(String.format("%s was throttled on attempt %d, calling back in %d seconds",
+                request == null ? "request" : request.getClass().getSimpleName(), attempt, delaySeconds));
+        return ProgressEvent.defaultInProgressHandler(callbackContext, delaySeconds, model);
+    }
+
+    private ProgressEvent<ResourceModel, CallbackContext> handleTimeout(
+            final Object request,
+            final Exception e,
+            final ResourceModel model,
+            final CallbackContext callbackContext,
+            final Logger logger) {
+
+        int attempt = callbackContext.getTimeoutAttempts() + 1;
+        int delaySeconds = canCallBack() ? BackoffPolicy.TIMEOUT.jitteredCallbackDelaySeconds(attempt) : 0;
+        if (delaySeconds == 0) {
+            logger.log(String.format("%s ran out of time after %d callbacks. %s",
+                    request == null ? "request" : request.getClass().getSimpleName(), attempt - 1, e.getMessage()));
+            HandlerErrorCode err = Translator.translateExceptionToErrorCode(e, logger);
+            return ProgressEvent.failed(model, callbackContext, err, e.getMessage());
+        }
+
+        callbackContext.setTimeoutAttempts(attempt);
+        logger.log(String.format("%s ran out of time on attempt %d, calling back in %d seconds. %s",
+                request == null ? "request" : request.getClass().getSimpleName(), attempt, delaySeconds, e.getMessage()));
+        return ProgressEvent.defaultInProgressHandler(callbackContext, delaySeconds, model);
+    }
+}
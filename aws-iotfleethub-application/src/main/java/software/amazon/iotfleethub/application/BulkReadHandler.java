@@ -0,0 +1,108 @@
+package software.amazon.iotfleethub.application;
+
+import software.amazon.awssdk.services.iotfleethub.IoTFleetHubClient;
+import software.amazon.awssdk.services.iotfleethub.model.ResourceNotFoundException;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.HandlerErrorCode;
+import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.ProxyClient;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Describes many Applications in one invocation, for callers such as drift detection that would otherwise run one
+ * Read per Application.
+ *
+ * Each Application is described and mapped as ReadHandler does, with bounded concurrency through the rate-limited
+ * ProxyClient. A throttled or internally failed describe is retried in place with IN_INVOCATION_RETRY backoff for as
+ * long as the invocation's Deadline allows. Applications that do not exist are reported apart from those that failed.
+ */
+public class BulkReadHandler {
+
+    static final String ACTION = "BulkRead";
+
+    public Result handleRequest(
+            final AmazonWebServicesClientProxy proxy,
+            final Collection<String> applicationIds,
+            final Logger logger) {
+
+        Logger invocationLogger = new ErrorLogger(logger);
+        Deadline deadline = Deadline.forInvocation();
+        ProxyClient<IoTFleetHubClient> proxyClient =
+                BaseHandlerStd.newProxyClient(proxy, ACTION, null, deadline, new CallbackContext(), invocationLogger);
+        return handleRequest(proxyClient, applicationIds, deadline, invocationLogger);
+    }
+
+    Result handleRequest(
+            final ProxyClient<IoTFleetHubClient> proxyClient,
+            final Collection<String> applicationIds,
+            final Deadline deadline,
+            final Logger logger) {
+
+        List<String> ids = new ArrayList<>(new LinkedHashSet<>(applicationIds));
+        List<CompletableFuture<ResourceModel>> reads = FanOut.shared().map(ids, id -> read(proxyClient, id, deadline));
+
+        Map<String, ResourceModel> models = new LinkedHashMap<>();
+        Set<String> notFound = new LinkedHashSet<>();
+        Map<String, Failure> failures = new LinkedHashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            try {
+                models.put(ids.get(i), reads.get(i).join());
+            } catch (CompletionException e) {
+                Throwable cause = AsyncCall.unwrap(e);
+                if (cause instanceof ResourceNotFoundException) {
+                    notFound.add(ids.get(i));
+                    continue;
+                }
+                HandlerErrorCode errorCode = cause instanceof Exception
+                        ? Translator.translateExceptionToErrorCode((Exception) cause, logger)
+                        : HandlerErrorCode.InternalFailure;
+                failures.put(ids.get(i), new Failure(errorCode, cause.getMessage()));
+            }
+        }
+
+        logger.log(String.format("Described %d of %d Applications, %d not found, %d failed.",
+                models.size(), ids.size(), notFound.size(), failures.size()));
+        return new Result(
+                Collections.unmodifiableMap(models),
+                Collections.unmodifiableSet(notFound),
+                Collections.unmodifiableMap(failures));
+    }
+
+    private static ResourceModel read(ProxyClient<IoTFleetHubClient> proxyClient, String applicationId, Deadline deadline) {
+        ResourceModel model = ResourceModel.builder().applicationId(applicationId).build();
+        return Translator.translateFromReadResponse(BaseHandlerStd.retryInPlace(
+                () -> proxyClient.injectCredentialsAndInvokeV2(
+                        Translator.translateToDescribeRequest(model), proxyClient.client()::describeApplication),
+                BackoffPolicy.IN_INVOCATION_RETRY, deadline));
+    }
+
+    /**
+     * Outcome of a bulk read: models by ApplicationId, Applications that do not exist, and failures by ApplicationId.
+     */
+    @lombok.Getter
+    @lombok.ToString
+    @lombok.AllArgsConstructor(access = lombok.AccessLevel.PACKAGE)
+    public static final class Result {
+        private final Map<String, ResourceModel> models;
+        private final Set<String> notFound;
+        private final Map<String, Failure> failures;
+    }
+
+    @lombok.Getter
+    @lombok.ToString
+    @lombok.AllArgsConstructor(access = lombok.AccessLevel.PACKAGE)
+    public static final class Failure {
+        private final HandlerErrorCode errorCode;
+        private final String message;
+    }
+}
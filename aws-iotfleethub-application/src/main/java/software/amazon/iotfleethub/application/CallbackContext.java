@@ -2,9 +2,42 @@ package software.amazon.iotfleethub.application;
 
 import software.amazon.cloudformation.proxy.StdCallbackContext;
 
+import java.util.Map;
+import java.util.Set;
+
 @lombok.Getter
 @lombok.Setter
 @lombok.ToString
 @lombok.EqualsAndHashCode(callSuper = true)
 public class CallbackContext extends StdCallbackContext {
+
+    // Set once the create input has been validated, since callbacks carry the read-only ApplicationId and Arn.
+    private boolean createValidated;
+
+    // Number of times the operation was handed back to CloudFormation after a ThrottlingException.
+    private int throttlingAttempts;
+
+    // Number of times the operation was handed back to CloudFormation after a call ran out of time.
+    private int timeoutAttempts;
+
+    // Consecutive failed calls per API operation, reported as the Retries metric of the next call.
+    private Map<String, Integer> consecutiveApiFailures;
+
+    // Set once the UpdatePlan has been recorded; stages it found unnecessary are checkpointed as done.
+    private boolean updatePlanned;
+
+    // Update checkpoints, so a re-invocation resumes after the last completed stage instead of repeating it.
+    private boolean applicationUpdated;
+    private String applicationArn;
+    private Map<String, String> tagsToAdd;
+    private Set<String> tagKeysToRemove;
+    private boolean untagFirst;
+    private boolean tagsAdded;
+    private boolean tagsRemoved;
+
+    // Model mapped from Update's DescribeApplication, so the final event carries its read-only attributes.
+    private ResourceModel describedModel;
+
+    // Whether that DescribeApplication was issued after UpdateApplication succeeded, so it reflects the update.
+    private boolean describedAfterUpdate;
 }
@@ -0,0 +1,160 @@
+package software.amazon.iotfleethub.application;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker for a single Fleet Hub operation.
+ *
+ * While closed, the outcomes of the last window calls are kept, and the breaker opens once at least minCalls of
+ * them are known and the share of outage failures among them reaches the error rate. While open, no call is let
+ * through until openDuration has passed; the breaker is then half-open and lets a single probe call through. The
+ * probe closes the breaker, with a fresh window, when it does not fail with an outage error, and opens it again
+ * otherwise. A call given back without reaching the service counts as neither.
+ */
+public class CircuitBreaker {
+
+    static final int DEFAULT_WINDOW = 20;
+    static final int DEFAULT_MIN_CALLS = 10;
+
+    // Ordinals are the CircuitState metric values
+    enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    private final String operation;
+    private final double errorRate;
+    private final int minCalls;
+    private final long openNanos;
+    private final LongSupplier nanoClock;
+
+    private final boolean[] failed;
+    private int recorded;
+    private int next;
+    private int failures;
+
+    private State state = State.CLOSED;
+    private long openedAtNanos;
+    private boolean probing;
+
+    CircuitBreaker(String operation, double errorRate, Duration openDuration) {
+        this(operation, errorRate, DEFAULT_WINDOW, DEFAULT_MIN_CALLS, openDuration, System::nanoTime);
+    }
+
+    CircuitBreaker(String operation, double errorRate, int window, int minCalls, Duration openDuration,
+                   LongSupplier nanoClock) {
+        this.operation = operation;
+        this.errorRate = errorRate;
+        this.minCalls = minCalls;
+        this.openNanos = openDuration.toNanos();
+        this.nanoClock = nanoClock;
+        this.failed = new boolean[window];
+    }
+
+    /**
+     * Whether a call may go ahead. Once open long enough, the first caller to ask becomes the half-open probe.
+     */
+    synchronized boolean tryAcquire() {
+        if (state == State.OPEN && nanoClock.getAsLong() - openedAtNanos >= openNanos) {
+            state = State.HALF_OPEN;
+        }
+        if (state == State.CLOSED) {
+            return true;
+        }
+        if (state == State.HALF_OPEN && !probing) {
+            probing = true;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Records a call that reached the service, or failed for reasons other than an outage. Returns true if it closed
+     * the breaker.
+     */
+    synchronized boolean onSuccess() {
+        if (state == State.HALF_OPEN) {
+            close();
+            return true;
+        }
+        if (state == State.CLOSED) {
+            record(false);
+        }
+        return false;
+    }
+
+    /**
+     * Gives back a call that never reached the service, recording nothing. A half-open probe given back lets the next
+     * caller probe instead.
+     */
+    synchronized void release() {
+        if (state == State.HALF_OPEN) {
+            probing = false;
+        }
+    }
+
+    /**
+     * Records a call that failed with an outage error. Returns true if it opened the breaker.
+     */
+    synchronized boolean onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+            return true;
+        }
+        if (state == State.CLOSED) {
+            record(true);
+            if (recorded >= minCalls && failures >= errorRate * recorded) {
+                open();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void record(boolean failure) {
+        if (recorded == failed.length) {
+            failures -= failed[next] ? 1 : 0;
+        } else {
+            recorded++;
+        }
+        failed[next] = failure;
+        failures += failure ? 1 : 0;
+        next = (next + 1) % failed.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAtNanos = nanoClock.getAsLong();
+        probing = false;
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        probing = false;
+        recorded = 0;
+        next = 0;
+        failures = 0;
+    }
+
+    String getOperation() {
+        return operation;
+    }
+
+    synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * How long until a call may be let through again: the rest of the open period, or the open period itself while
+     * a half-open probe is in flight.
+     */
+    synchronized Duration getRetryAfter() {
+        if (state == State.CLOSED) {
+            return Duration.ZERO;
+        }
+        if (state == State.HALF_OPEN) {
+            return Duration.ofNanos(openNanos);
+        }
+        return Duration.ofNanos(Math.max(0, openNanos - (nanoClock.getAsLong() - openedAtNanos)));
+    }
+}
@@ -0,0 +1,152 @@
+package software.amazon.iotfleethub.application;
+
+import software.amazon.awssdk.awscore.AwsRequest;
+import software.amazon.awssdk.awscore.AwsResponse;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.services.iotfleethub.IoTFleetHubClient;
+import software.amazon.awssdk.services.iotfleethub.model.InternalFailureException;
+import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.ProxyClient;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Container-wide circuit breaking for Fleet Hub API calls, with one CircuitBreaker per operation.
+ *
+ * InternalFailureException, other 5xx responses and client-side failures such as timeouts count as outage errors;
+ * throttling and 4xx responses show the endpoint is answering and count as successes. Calls refused with
+ * DeadlineExceededException never reached the endpoint and count as neither. While an operation's breaker is open
+ * its calls fail fast with CircuitOpenException, which Create, Update and Delete hand back to CloudFormation as
+ * IN_PROGRESS with a callback delay, and Read and List fail on. Every change of state, and every call refused, is
+ * emitted as a CircuitState metric: 0 closed, 1 half-open, 2 open.
+ */
+final class CircuitBreakers {
+
+    private static final class Shared {
+        private static final CircuitBreakers INSTANCE = new CircuitBreakers(Settings.CIRCUIT_BREAKER,
+                operation -> new CircuitBreaker(operation, Settings.CIRCUIT_BREAKER_ERROR_PERCENT / 100.0,
+                        Duration.ofSeconds(Settings.CIRCUIT_BREAKER_OPEN_SECONDS)));
+    }
+
+    private final boolean enabled;
+    private final Function<String, CircuitBreaker> factory;
+    private final ConcurrentMap<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    CircuitBreakers(boolean enabled, Function<String, CircuitBreaker> factory) {
+        this.enabled = enabled;
+        this.factory = factory;
+    }
+
+    static CircuitBreakers shared() {
+        return Shared.INSTANCE;
+    }
+
+    CircuitBreaker forOperation(String operation) {
+        return breakers.computeIfAbsent(operation, factory);
+    }
+
+    /**
+     * Wraps a ProxyClient so every call first asks its operation's breaker, and reports back whether it failed with
+     * an outage error. Returns the ProxyClient itself when circuit breaking is off.
+     */
+    ProxyClient<IoTFleetHubClient> wrap(final ProxyClient<IoTFleetHubClient> proxyClient, final Logger logger) {
+        if (!enabled) {
+            return proxyClient;
+        }
+
+        return new ProxyClient<IoTFleetHubClient>() {
+            @Override
+            public <RequestT extends AwsRequest, ResponseT extends AwsResponse> ResponseT injectCredentialsAndInvokeV2(
+                    RequestT request, Function<RequestT, ResponseT> requestFunction) {
+
+                CircuitBreaker breaker = acquire(request, logger);
+                ResponseT response;
+                try {
+                    response = proxyClient.injectCredentialsAndInvokeV2(request, requestFunction);
+                } catch (Throwable e) {
+                    onComplete(breaker, e, logger);
+                    throw e;
+                }
+                onComplete(breaker, null, logger);
+                return response;
+            }
+
+            @Override
+            public <RequestT extends AwsRequest, ResponseT extends AwsResponse> CompletableFuture<ResponseT> injectCredentialsAndInvokeV2Async(
+                    RequestT request, Function<RequestT, CompletableFuture<ResponseT>> requestFunction) {
+
+                CircuitBreaker breaker;
+                try {
+                    breaker = acquire(request, logger);
+                } catch (CircuitOpenException e) {
+                    CompletableFuture<ResponseT> refused = new CompletableFuture<>();
+                    refused.completeExceptionally(e);
+                    return refused;
+                }
+                CompletableFuture<ResponseT> future;
+                try {
+                    future = proxyClient.injectCredentialsAndInvokeV2Async(request, requestFunction);
+                } catch (Throwable e) {
+                    onComplete(breaker, e, logger);
+                    throw e;
+                }
+                return future.whenComplete((response, e) -> onComplete(breaker, e == null ? null : AsyncCall.unwrap(e), logger));
+            }
+
+            @Override
+            public IoTFleetHubClient client() {
+                return proxyClient.client();
+            }
+        };
+    }
+
+    private CircuitBreaker acquire(AwsRequest request, Logger logger) {
+        CircuitBreaker breaker = forOperation(RateLimiter.operationName(request));
+        if (!breaker.tryAcquire()) {
+            record(breaker, 1, logger);
+            throw new CircuitOpenException(breaker.getOperation(), breaker.getRetryAfter());
+        }
+        return breaker;
+    }
+
+    private static void onComplete(CircuitBreaker breaker, Throwable e, Logger logger) {
+        // Refused for lack of invocation time before reaching the service, or broken off by an Error in this
+        // container, so it says nothing about the operation; a half-open probe is given back rather than held forever
+        if (e instanceof DeadlineExceededException || e instanceof Error) {
+            breaker.release();
+            return;
+        }
+        if (e != null && isOutage(e)) {
+            if (breaker.onFailure()) {
+                logger.log(String.format("%s is failing, opened its circuit for %d seconds.",
+                        breaker.getOperation(), breaker.getRetryAfter().getSeconds()));
+                record(breaker, 0, logger);
+            }
+        } else if (breaker.onSuccess()) {
+            logger.log(String.format("%s answered, closed its circuit.", breaker.getOperation()));
+            record(breaker, 0, logger);
+        }
+    }
+
+    static boolean isOutage(Throwable e) {
+        if (e instanceof AwsServiceException) {
+            AwsServiceException serviceException = (AwsServiceException) e;
+            return e instanceof InternalFailureException
+                    || serviceException.statusCode() >= 500 && !RateLimiter.isThrottling(serviceException);
+        }
+        return e instanceof SdkClientException;
+    }
+
+    private static void record(CircuitBreaker breaker, int rejected, Logger logger) {
+        new MetricEvent()
+                .dimension("Operation", breaker.getOperation())
+                .metric("CircuitState", breaker.getState().ordinal(), MetricEvent.NONE)
+                .metric("Rejected", rejected, MetricEvent.COUNT)
+                .emit(logger);
+    }
+}
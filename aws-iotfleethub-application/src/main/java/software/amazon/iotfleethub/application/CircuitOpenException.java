@@ -0,0 +1,27 @@
+package software.amazon.iotfleethub.application;
+
+import java.time.Duration;
+
+/**
+ * Thrown instead of making a Fleet Hub call while the operation's CircuitBreaker is open.
+ */
+public class CircuitOpenException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Duration retryAfter;
+
+    CircuitOpenException(String operation, Duration retryAfter) {
+        super(String.format("%s is failing, not calling it for another %d ms.", operation, retryAfter.toMillis()));
+        this.retryAfter = retryAfter;
+    }
+
+    Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    // Rounded up, and at least one second, for a ProgressEvent callback delay
+    int getRetryAfterSeconds() {
+        return (int) Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+    }
+}
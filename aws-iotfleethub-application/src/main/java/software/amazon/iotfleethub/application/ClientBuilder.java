@@ -0,0 +1,79 @@
+package software.amazon.iotfleethub.application;
+
+import software.amazon.awssdk.services.iotfleethub.IoTFleetHubAsyncClient;
+import software.amazon.awssdk.services.iotfleethub.IoTFleetHubClient;
+import software.amazon.cloudformation.proxy.Logger;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Container-wide registry for the IoTFleetHubClient shared by all handlers, and for the IoTFleetHubAsyncClient used
+ * when Settings.ASYNC_CALLS is on.
+ *
+ * Each client is built on first use rather than at handler construction, and is kept for the lifetime of the
+ * Lambda container so warm invocations reuse its HTTP connection pool and resolved credentials/region.
+ */
+public class ClientBuilder {
+
+    private static final SharedClient<IoTFleetHubClient> CLIENT =
+            new SharedClient<>("IoTFleetHubClient", () -> IoTFleetHubClient.builder().build());
+    private static final SharedClient<IoTFleetHubAsyncClient> ASYNC_CLIENT =
+            new SharedClient<>("IoTFleetHubAsyncClient", () -> IoTFleetHubAsyncClient.builder().build());
+
+    private ClientBuilder() {
+    }
+
+    static IoTFleetHubClient getClient(Logger logger) {
+        return CLIENT.get(logger);
+    }
+
+    static IoTFleetHubAsyncClient getAsyncClient(Logger logger) {
+        return ASYNC_CLIENT.get(logger);
+    }
+
+    /**
+     * Time spent constructing the shared client on cold start, or null if it has not been built yet.
+     */
+    static Duration getInitializationDuration() {
+        return CLIENT.getInitializationDuration();
+    }
+
+    /**
+     * A client built once, by the first caller to ask for it, and shared by every caller after that.
+     */
+    static final class SharedClient<ClientT> {
+
+        private final String name;
+        private final Supplier<ClientT> builder;
+        private volatile ClientT client;
+        private volatile Duration initializationDuration;
+
+        SharedClient(String name, Supplier<ClientT> builder) {
+            this.name = name;
+            this.builder = builder;
+        }
+
+        ClientT get(Logger logger) {
+            ClientT result = client;
+            if (result == null) {
+                synchronized (this) {
+                    result = client;
+                    if (result == null) {
+                        long start = System.nanoTime();
+                        result = builder.get();
+                        initializationDuration = Duration.ofNanos(System.nanoTime() - start);
+                        client = result;
+                        logger.log(String.format("Initialized shared %s in %d ms.",
+                                name, initializationDuration.toMillis()));
+                    }
+                }
+            }
+            return result;
+        }
+
+        Duration getInitializationDuration() {
+            return initializationDuration;
+        }
+    }
+}
@@ -1,15 +1,14 @@
 package software.amazon.iotfleethub.application;
 
 import org.apache.commons.lang3.StringUtils;
-import software.amazon.awssdk.awscore.AwsResponse;
-import software.amazon.awssdk.awscore.exception.AwsServiceException;
 
 import software.amazon.awssdk.services.iotfleethub.IoTFleetHubClient;
+import software.amazon.awssdk.services.iotfleethub.model.ApplicationState;
 import software.amazon.awssdk.services.iotfleethub.model.CreateApplicationRequest;
 import software.amazon.awssdk.services.iotfleethub.model.CreateApplicationResponse;
-import software.amazon.awssdk.services.iotfleethub.model.TagResourceRequest;
+import software.amazon.awssdk.services.iotfleethub.model.DescribeApplicationResponse;
+import software.amazon.awssdk.services.iotfleethub.model.ResourceNotFoundException;
 
-import software.amazon.cloudformation.exceptions.CfnGeneralServiceException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.HandlerErrorCode;
 import software.amazon.cloudformation.proxy.Logger;
@@ -17,22 +16,16 @@ import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ProxyClient;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
-public class CreateHandler extends BaseHandler<CallbackContext> {
-
-    private final IoTFleetHubClient iotFleetHubClient;
-
-    public CreateHandler() {
-        iotFleetHubClient = IoTFleetHubClient.builder().build();
-    }
+public class CreateHandler extends BaseHandlerStd {
 
     @Override
-    public ProgressEvent<ResourceModel, CallbackContext> handleRequest(
+    protected ProgressEvent<ResourceModel, CallbackContext> handleRequest(
             final AmazonWebServicesClientProxy proxy,
             final ResourceHandlerRequest<ResourceModel> request,
             final CallbackContext callbackContext,
+            final ProxyClient<IoTFleetHubClient> proxyClient,
             final Logger logger) {
 
         ResourceModel model = request.getDesiredResourceState();
@@ -42,33 +35,98 @@ public class CreateHandler extends BaseHandler<CallbackContext> {
             return ProgressEvent.failed(model, callbackContext, HandlerErrorCode.InvalidRequest, "ClientToken was not provided.");
         }
 
-        if (Translator.isReadOnlyFieldSet(logger, "ApplicationArn", model.getApplicationArn())
-                || Translator.isReadOnlyFieldSet(logger, "ApplicationId", model.getApplicationId())
-                || Translator.isReadOnlyFieldSet(logger, "ApplicationUrl", model.getApplicationUrl())
-                || Translator.isReadOnlyFieldSet(logger, "ApplicationState", model.getApplicationState())
-                || Translator.isReadOnlyFieldSet(logger, "SsoClientId", model.getSsoClientId())
-                || Translator.isReadOnlyFieldSet(logger, "ErrorMessage", model.getErrorMessage())) {
-
-            return ProgressEvent.failed(model, callbackContext, HandlerErrorCode.InvalidRequest,
-                    "Can only set ApplicationName, RoleArn, ApplicationDescription (optional), and Tags (optional) in CreateApplication call.");
+        // Callbacks carry the ApplicationArn and ApplicationId set after CreateApplication, so only validate once
+        if (!callbackContext.isCreateValidated()) {
+            if (Translator.isReadOnlyFieldSet(logger, "ApplicationArn", model.getApplicationArn())
+                    || Translator.isReadOnlyFieldSet(logger, "ApplicationId", model.getApplicationId())
+                    || Translator.isReadOnlyFieldSet(logger, "ApplicationUrl", model.getApplicationUrl())
+                    || Translator.isReadOnlyFieldSet(logger, "ApplicationState", model.getApplicationState())
+                    || Translator.isReadOnlyFieldSet(logger, "SsoClientId", model.getSsoClientId())
+                    || Translator.isReadOnlyFieldSet(logger, "ErrorMessage", model.getErrorMessage())) {
+
+                return ProgressEvent.failed(model, callbackContext, HandlerErrorCode.InvalidRequest,
+                        "Can only set ApplicationName, RoleArn, ApplicationDescription (optional), and Tags (optional) in CreateApplication call.");
+            }
+            if (TagSet.of(model.getTags(), request.getDesiredResourceTags()).exceedsLimit()) {
+                logger.log(String.format("Tags exceed the limit of %d tags per Application.", TagSet.MAX_TAGS));
+                return ProgressEvent.failed(model, callbackContext, HandlerErrorCode.InvalidRequest,
+                        String.format("An Application can have at most %d tags.", TagSet.MAX_TAGS));
+            }
+            callbackContext.setCreateValidated(true);
         }
 
-        CreateApplicationRequest createRequest = Translator.translateToCreateRequest(request, model, logger);
+        // The describe that finds the Application ACTIVE or CREATE_FAILED ends stabilization; an ACTIVE one is
+        // returned as the created model
+        AtomicReference<DescribeApplicationResponse> settled = new AtomicReference<>();
+        return ProgressEvent.progress(model, callbackContext)
+                .then(progress -> proxy.initiate("AWS-IoTFleetHub-Application::Create", proxyClient, model, callbackContext)
+                        .translateToServiceRequest(m -> Translator.translateToCreateRequest(request, m, logger))
+                        .backoffDelay(BackoffPolicy.STABILIZATION)
+                        .makeServiceCall((createRequest, client) -> createApplication(createRequest, client, logger))
+                        .stabilize((createRequest, createResponse, client, m, context) ->
+                                isStabilized(createResponse, client, m, settled, logger))
+                        .handleError((createRequest, e, client, m, context) -> handleError(createRequest, e, m, context, logger))
+                        .progress())
+                .then(progress -> {
+                    DescribeApplicationResponse describeResponse = settled.get();
+                    if (describeResponse == null) {
+                        return ProgressEvent.defaultSuccessHandler(model);
+                    }
+                    if (describeResponse.applicationState() == ApplicationState.CREATE_FAILED) {
+                        return ProgressEvent.failed(model, progress.getCallbackContext(),
+                                HandlerErrorCode.NotStabilized, describeResponse.errorMessage());
+                    }
+                    return ProgressEvent.defaultSuccessHandler(Translator.translateFromReadResponse(describeResponse));
+                });
+    }
 
-        CreateApplicationResponse createResponse;
-        try {
-            createResponse = proxy.injectCredentialsAndInvokeV2(createRequest, iotFleetHubClient::createApplication);
-        } catch (RuntimeException e) {
-            HandlerErrorCode err = Translator.translateExceptionToErrorCode(e, logger);
-            return ProgressEvent.failed(model, callbackContext, err, e.getMessage());
-        }
+    private CreateApplicationResponse createApplication(
+            final CreateApplicationRequest createRequest,
+            final ProxyClient<IoTFleetHubClient> proxyClient,
+            final Logger logger) {
 
-        model.setApplicationArn(createResponse.applicationArn());
-        model.setApplicationId(createResponse.applicationId());
+        CreateApplicationResponse createResponse =
+                proxyClient.injectCredentialsAndInvokeV2(createRequest, proxyClient.client()::createApplication);
 
         logger.log(String.format("Created Application with Arn %s and Id %s",
                 createResponse.applicationArn(), createResponse.applicationId()));
+        return createResponse;
+    }
 
-        return ProgressEvent.defaultSuccessHandler(model);
+    private Boolean isStabilized(
+            final CreateApplicationResponse createResponse,
+            final ProxyClient<IoTFleetHubClient> proxyClient,
+            final ResourceModel model,
+            final AtomicReference<DescribeApplicationResponse> settled,
+            final Logger logger) {
+
+        // The create response is kept in the CallbackContext, so this also restores the identifiers on callbacks
+        model.setApplicationArn(createResponse.applicationArn());
+        model.setApplicationId(createResponse.applicationId());
+
+        DescribeApplicationResponse describeResponse;
+        try {
+            describeResponse = proxyClient.injectCredentialsAndInvokeV2(
+                    Translator.translateToDescribeRequest(model), proxyClient.client()::describeApplication);
+        } catch (ResourceNotFoundException e) {
+            // A freshly created Application may not be visible to DescribeApplication yet, keep polling
+            logger.log(String.format("Application with Id %s is not yet visible", model.getApplicationId()));
+            return false;
+        }
+
+        ApplicationState state = describeResponse.applicationState();
+        if (state == ApplicationState.CREATE_FAILED) {
+            logger.log(String.format("Application with Id %s failed to create: %s",
+                    model.getApplicationId(), describeResponse.errorMessage()));
+            settled.set(describeResponse);
+            return true;
+        }
+
+        logger.log(String.format("Application with Id %s is in state %s", model.getApplicationId(), state));
+        if (state != ApplicationState.ACTIVE) {
+            return false;
+        }
+        settled.set(describeResponse);
+        return true;
     }
 }
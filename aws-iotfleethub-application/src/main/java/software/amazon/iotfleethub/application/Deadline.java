@@ -0,0 +1,109 @@
+package software.amazon.iotfleethub.application;
+
+import software.amazon.awssdk.awscore.AwsRequest;
+import software.amazon.awssdk.awscore.AwsRequestOverrideConfiguration;
+import software.amazon.awssdk.awscore.AwsResponse;
+import software.amazon.awssdk.services.iotfleethub.IoTFleetHubClient;
+import software.amazon.cloudformation.proxy.ProxyClient;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Point in time by which a handler invocation has to hand its ProgressEvent back.
+ *
+ * The handlers are not given the Lambda context, so an invocation's deadline counts down from the moment the
+ * handler starts, over INVOCATION_TIMEOUT less RESPONSE_MARGIN for writing the response. Work with a budget of its
+ * own narrows the deadline with within. Every Fleet Hub call a handler makes is bounded by its invocation's deadline.
+ */
+final class Deadline {
+
+    // Time CloudFormation gives each handler invocation
+    static final Duration INVOCATION_TIMEOUT = Duration.ofSeconds(Settings.number("INVOCATION_TIMEOUT_SECONDS", 60));
+
+    static final Duration RESPONSE_MARGIN = Duration.ofSeconds(2);
+
+    // Least time left in which a Fleet Hub call is still started
+    static final Duration MIN_CALL_TIME = Duration.ofSeconds(1);
+
+    // Cap on a single attempt of a call; zero leaves each attempt the whole call's time
+    static final Duration ATTEMPT_TIMEOUT = Duration.ofSeconds(Settings.API_CALL_ATTEMPT_TIMEOUT_SECONDS);
+
+    private final LongSupplier nanoClock;
+    private final long deadlineNanos;
+
+    private Deadline(LongSupplier nanoClock, long deadlineNanos) {
+        this.nanoClock = nanoClock;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    static Deadline after(Duration budget, LongSupplier nanoClock) {
+        return new Deadline(nanoClock, nanoClock.getAsLong() + budget.toNanos());
+    }
+
+    static Deadline forInvocation() {
+        return after(INVOCATION_TIMEOUT.minus(RESPONSE_MARGIN), System::nanoTime);
+    }
+
+    /**
+     * The earlier of this deadline and budget from now.
+     */
+    Deadline within(Duration budget) {
+        return new Deadline(nanoClock, Math.min(deadlineNanos, nanoClock.getAsLong() + budget.toNanos()));
+    }
+
+    Duration remaining() {
+        return Duration.ofNanos(Math.max(0, deadlineNanos - nanoClock.getAsLong()));
+    }
+
+    boolean allows(Duration work) {
+        return remaining().compareTo(work) > 0;
+    }
+
+    /**
+     * Wraps a ProxyClient so every call gets the time left before the deadline as its apiCallTimeout, and
+     * ATTEMPT_TIMEOUT, when shorter, as its apiCallAttemptTimeout. A call with less than MIN_CALL_TIME left is not
+     * started and throws DeadlineExceededException. The timeouts are set on the request the ProxyClient hands to the
+     * client, after credentials are injected and any rate limiting wait is over.
+     */
+    ProxyClient<IoTFleetHubClient> bound(final ProxyClient<IoTFleetHubClient> proxyClient) {
+        return new ProxyClient<IoTFleetHubClient>() {
+            @Override
+            public <RequestT extends AwsRequest, ResponseT extends AwsResponse> ResponseT injectCredentialsAndInvokeV2(
+                    RequestT request, Function<RequestT, ResponseT> requestFunction) {
+                return proxyClient.injectCredentialsAndInvokeV2(request, r -> requestFunction.apply(withTimeouts(r)));
+            }
+
+            @Override
+            public <RequestT extends AwsRequest, ResponseT extends AwsResponse> CompletableFuture<ResponseT> injectCredentialsAndInvokeV2Async(
+                    RequestT request, Function<RequestT, CompletableFuture<ResponseT>> requestFunction) {
+                return proxyClient.injectCredentialsAndInvokeV2Async(request, r -> requestFunction.apply(withTimeouts(r)));
+            }
+
+            @Override
+            public IoTFleetHubClient client() {
+                return proxyClient.client();
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    <RequestT extends AwsRequest> RequestT withTimeouts(RequestT request) {
+        Duration remaining = remaining();
+        if (!allows(MIN_CALL_TIME)) {
+            throw new DeadlineExceededException(RateLimiter.operationName(request), remaining);
+        }
+        Duration attemptTimeout = ATTEMPT_TIMEOUT.isZero() || ATTEMPT_TIMEOUT.compareTo(remaining) > 0
+                ? remaining
+                : ATTEMPT_TIMEOUT;
+        AwsRequestOverrideConfiguration overrideConfiguration = request.overrideConfiguration()
+                .map(AwsRequestOverrideConfiguration::toBuilder)
+                .orElseGet(AwsRequestOverrideConfiguration::builder)
+                .apiCallTimeout(remaining)
+                .apiCallAttemptTimeout(attemptTimeout)
+                .build();
+        return (RequestT) request.toBuilder().overrideConfiguration(overrideConfiguration).build();
+    }
+}
@@ -0,0 +1,15 @@
+package software.amazon.iotfleethub.application;
+
+import java.time.Duration;
+
+/**
+ * Thrown instead of starting a Fleet Hub call when the invocation's Deadline leaves too little time for it.
+ */
+public class DeadlineExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    DeadlineExceededException(String operation, Duration remaining) {
+        super(String.format("Only %d ms left in the invocation, not starting %s.", remaining.toMillis(), operation));
+    }
+}
@@ -2,11 +2,11 @@ package software.amazon.iotfleethub.application;
 
 import org.apache.commons.lang3.StringUtils;
 import software.amazon.awssdk.services.iotfleethub.IoTFleetHubClient;
+import software.amazon.awssdk.services.iotfleethub.model.ApplicationState;
 import software.amazon.awssdk.services.iotfleethub.model.DeleteApplicationRequest;
-import software.amazon.awssdk.services.iotfleethub.model.DescribeApplicationRequest;
+import software.amazon.awssdk.services.iotfleethub.model.DeleteApplicationResponse;
 import software.amazon.awssdk.services.iotfleethub.model.DescribeApplicationResponse;
 import software.amazon.awssdk.services.iotfleethub.model.ResourceNotFoundException;
-import software.amazon.cloudformation.exceptions.CfnGeneralServiceException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.HandlerErrorCode;
 import software.amazon.cloudformation.proxy.Logger;
@@ -14,23 +14,19 @@ import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ProxyClient;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.regex.Pattern;
 
-public class DeleteHandler extends BaseHandler<CallbackContext> {
+public class DeleteHandler extends BaseHandlerStd {
 
     private static final Pattern APP_ID_PATTERN = Pattern.compile("^[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}$");
 
-    private final IoTFleetHubClient iotFleetHubClient;
-
-    public DeleteHandler() {
-        iotFleetHubClient = IoTFleetHubClient.builder().build();
-    }
-
     @Override
-    public ProgressEvent<ResourceModel, CallbackContext> handleRequest(
+    protected ProgressEvent<ResourceModel, CallbackContext> handleRequest(
             final AmazonWebServicesClientProxy proxy,
             final ResourceHandlerRequest<ResourceModel> request,
             final CallbackContext callbackContext,
+            final ProxyClient<IoTFleetHubClient> proxyClient,
             final Logger logger) {
 
         ResourceModel model = request.getDesiredResourceState();
@@ -53,21 +49,71 @@ public class DeleteHandler extends BaseHandler<CallbackContext> {
             }
         }
 
-        DeleteApplicationRequest deleteRequest = Translator.translateToDeleteRequest(request, model);
+        // Set when a describe finds the Application DELETE_FAILED, which ends stabilization and fails the delete
+        AtomicReference<DescribeApplicationResponse> failed = new AtomicReference<>();
+        return ProgressEvent.progress(model, callbackContext)
+                .then(progress -> proxy.initiate("AWS-IoTFleetHub-Application::Delete", proxyClient, model, callbackContext)
+                        .translateToServiceRequest(m -> Translator.translateToDeleteRequest(request, m))
+                        .backoffDelay(BackoffPolicy.STABILIZATION)
+                        .makeServiceCall((deleteRequest, client) -> deleteApplication(deleteRequest, client, request, logger))
+                        .stabilize((deleteRequest, deleteResponse, client, m, context) -> isStabilized(client, m, failed, logger))
+                        .handleError((deleteRequest, e, client, m, context) -> handleError(deleteRequest, e, m, context, logger))
+                        .progress())
+                .then(progress -> failed.get() == null
+                        ? ProgressEvent.defaultSuccessHandler(null)
+                        : ProgressEvent.failed(model, progress.getCallbackContext(), HandlerErrorCode.NotStabilized,
+                                failed.get().errorMessage()));
+    }
+
+    private DeleteApplicationResponse deleteApplication(
+            final DeleteApplicationRequest deleteRequest,
+            final ProxyClient<IoTFleetHubClient> proxyClient,
+            final ResourceHandlerRequest<ResourceModel> request,
+            final Logger logger) {
+
+        // Describe first so a retried delete does not issue a second DeleteApplication for an Application already DELETING
+        DescribeApplicationResponse describeResponse = proxyClient.injectCredentialsAndInvokeV2(
+                Translator.translateToDescribeRequest(request.getDesiredResourceState()),
+                proxyClient.client()::describeApplication);
+
+        if (describeResponse.applicationState() == ApplicationState.DELETING) {
+            logger.log(String.format("Application with Id %s is already DELETING, skipping DeleteApplication",
+                    deleteRequest.applicationId()));
+            return DeleteApplicationResponse.builder().build();
+        }
+
+        DeleteApplicationResponse deleteResponse =
+                proxyClient.injectCredentialsAndInvokeV2(deleteRequest, proxyClient.client()::deleteApplication);
+
+        logger.log(String.format("Called DeleteApplication for Application with Id %s from account %s ",
+                deleteRequest.applicationId(), request.getAwsAccountId()));
+        return deleteResponse;
+    }
+
+    private Boolean isStabilized(
+            final ProxyClient<IoTFleetHubClient> proxyClient,
+            final ResourceModel model,
+            final AtomicReference<DescribeApplicationResponse> failed,
+            final Logger logger) {
 
+        DescribeApplicationResponse describeResponse;
         try {
-            proxy.injectCredentialsAndInvokeV2(deleteRequest, iotFleetHubClient::deleteApplication);
+            describeResponse = proxyClient.injectCredentialsAndInvokeV2(
+                    Translator.translateToDescribeRequest(model), proxyClient.client()::describeApplication);
         } catch (ResourceNotFoundException e) {
-            logger.log(String.format("Application with Id %s was not found", model.getApplicationId()));
-            return ProgressEvent.failed(model, callbackContext, HandlerErrorCode.NotFound, e.getMessage());
-        } catch (RuntimeException e) {
-            HandlerErrorCode err = Translator.translateExceptionToErrorCode(e, logger);
-            return ProgressEvent.failed(model, callbackContext, err, e.getMessage());
+            logger.log(String.format("Deleted Application with Id %s", model.getApplicationId()));
+            return true;
         }
 
-        logger.log(String.format("Deleted Application with Id %s from account %s ",
-                model.getApplicationId(), request.getAwsAccountId()));
+        ApplicationState state = describeResponse.applicationState();
+        if (state == ApplicationState.DELETE_FAILED) {
+            logger.log(String.format("Application with Id %s failed to delete: %s",
+                    model.getApplicationId(), describeResponse.errorMessage()));
+            failed.set(describeResponse);
+            return true;
+        }
 
-        return ProgressEvent.defaultSuccessHandler(null);
+        logger.log(String.format("Application with Id %s is in state %s", model.getApplicationId(), state));
+        return false;
     }
 }
@@ -0,0 +1,283 @@
+package software.amazon.iotfleethub.application;
+
+import software.amazon.awssdk.awscore.AwsRequest;
+import software.amazon.awssdk.awscore.AwsResponse;
+import software.amazon.awssdk.services.iotfleethub.IoTFleetHubClient;
+import software.amazon.awssdk.services.iotfleethub.model.ApplicationState;
+import software.amazon.awssdk.services.iotfleethub.model.CreateApplicationRequest;
+import software.amazon.awssdk.services.iotfleethub.model.CreateApplicationResponse;
+import software.amazon.awssdk.services.iotfleethub.model.DeleteApplicationRequest;
+import software.amazon.awssdk.services.iotfleethub.model.DescribeApplicationRequest;
+import software.amazon.awssdk.services.iotfleethub.model.DescribeApplicationResponse;
+import software.amazon.awssdk.services.iotfleethub.model.TagResourceRequest;
+import software.amazon.awssdk.services.iotfleethub.model.UntagResourceRequest;
+import software.amazon.awssdk.services.iotfleethub.model.UpdateApplicationRequest;
+import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.ProxyClient;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Container-wide cache of DescribeApplication responses by account and ApplicationId, so the Read CloudFormation
+ * makes right after a Create or Update does not describe the Application again.
+ *
+ * Only ACTIVE Applications are cached, so stabilization always sees the service's current state. Entries expire
+ * after the TTL, and Create, Update, Delete, TagResource and UntagResource drop the Application's entry when they
+ * complete, whether or not they succeeded. A describe only stores its response if no write to the same Application
+ * started while it was in flight, so a response read before a write is never cached after it. The cache is off when the TTL is zero, and
+ * for calls made without an account to scope them to.
+ */
+final class DescribeCache {
+
+    private static final class Shared {
+        private static final DescribeCache INSTANCE = new DescribeCache(
+                Duration.ofSeconds(Settings.DESCRIBE_CACHE_TTL_SECONDS), Settings.DESCRIBE_CACHE_MAX_ENTRIES, System::nanoTime);
+    }
+
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final LongSupplier nanoClock;
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    // Per Application, only while a describe or write of it is in flight
+    private final ConcurrentMap<String, Generation> generations = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    DescribeCache(Duration ttl, int maxEntries, LongSupplier nanoClock) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+        this.nanoClock = nanoClock;
+    }
+
+    static DescribeCache shared() {
+        return Shared.INSTANCE;
+    }
+
+    boolean isEnabled() {
+        return ttlNanos > 0 && maxEntries > 0;
+    }
+
+    long getHits() {
+        return hits.get();
+    }
+
+    long getMisses() {
+        return misses.get();
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Wraps a ProxyClient so blocking describes are served from the account's entries and writes invalidate them.
+     * Async describes are not cached. Returns the ProxyClient itself when the cache is off.
+     */
+    ProxyClient<IoTFleetHubClient> wrap(final ProxyClient<IoTFleetHubClient> proxyClient, final String awsAccountId,
+                                        final String action, final Logger logger) {
+        if (!isEnabled() || awsAccountId == null) {
+            return proxyClient;
+        }
+
+        return new ProxyClient<IoTFleetHubClient>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <RequestT extends AwsRequest, ResponseT extends AwsResponse> ResponseT injectCredentialsAndInvokeV2(
+                    RequestT request, Function<RequestT, ResponseT> requestFunction) {
+
+                if (request instanceof DescribeApplicationRequest) {
+                    return (ResponseT) describe(key(awsAccountId, ((DescribeApplicationRequest) request).applicationId()),
+                            () -> (DescribeApplicationResponse) proxyClient.injectCredentialsAndInvokeV2(request, requestFunction),
+                            action, logger);
+                }
+                if (!isWrite(request)) {
+                    return proxyClient.injectCredentialsAndInvokeV2(request, requestFunction);
+                }
+
+                String key = key(awsAccountId, applicationId(request, null));
+                startWrite(key);
+                ResponseT response = null;
+                try {
+                    response = proxyClient.injectCredentialsAndInvokeV2(request, requestFunction);
+                    return response;
+                } finally {
+                    endWrite(key, key(awsAccountId, applicationId(request, response)));
+                }
+            }
+
+            @Override
+            public <RequestT extends AwsRequest, ResponseT extends AwsResponse> CompletableFuture<ResponseT> injectCredentialsAndInvokeV2Async(
+                    RequestT request, Function<RequestT, CompletableFuture<ResponseT>> requestFunction) {
+
+                if (!isWrite(request)) {
+                    return proxyClient.injectCredentialsAndInvokeV2Async(request, requestFunction);
+                }
+                String key = key(awsAccountId, applicationId(request, null));
+                startWrite(key);
+                CompletableFuture<ResponseT> future;
+                try {
+                    future = proxyClient.injectCredentialsAndInvokeV2Async(request, requestFunction);
+                } catch (RuntimeException e) {
+                    endWrite(key, null);
+                    throw e;
+                }
+                return future.whenComplete(
+                        (response, e) -> endWrite(key, key(awsAccountId, applicationId(request, response))));
+            }
+
+            @Override
+            public IoTFleetHubClient client() {
+                return proxyClient.client();
+            }
+        };
+    }
+
+    DescribeApplicationResponse describe(String key, Supplier<DescribeApplicationResponse> describeCall,
+                                         String action, Logger logger) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAtNanos - nanoClock.getAsLong() > 0) {
+            hits.incrementAndGet();
+            record(action, true, logger);
+            return entry.response;
+        }
+
+        misses.incrementAndGet();
+        record(action, false, logger);
+        long writesBefore = update(key, g -> g.describing++);
+        try {
+            DescribeApplicationResponse response = describeCall.get();
+            if (response.applicationState() == ApplicationState.ACTIVE) {
+                store(key, response, writesBefore);
+            }
+            return response;
+        } finally {
+            update(key, g -> g.describing--);
+        }
+    }
+
+    /**
+     * Drops the Application's entry, and makes any describe of it still in flight discard its response.
+     */
+    void invalidate(String key) {
+        if (key != null) {
+            update(key, g -> g.writes++);
+            entries.remove(key);
+        }
+    }
+
+    // Create has no Application until it completes, so only the key it completes with is invalidated
+    private void startWrite(String key) {
+        if (key != null) {
+            update(key, g -> {
+                g.writes++;
+                g.writing++;
+            });
+        }
+    }
+
+    private void endWrite(String startKey, String endKey) {
+        if (startKey != null) {
+            update(startKey, g -> g.writing--);
+        }
+        invalidate(endKey);
+    }
+
+    // Applies change to the key's Generation and returns its write count; the Generation is dropped once idle
+    private long update(String key, Consumer<Generation> change) {
+        long[] writes = new long[1];
+        generations.compute(key, (k, g) -> {
+            Generation generation = g == null ? new Generation() : g;
+            change.accept(generation);
+            writes[0] = generation.writes;
+            return generation.describing == 0 && generation.writing == 0 ? null : generation;
+        });
+        return writes[0];
+    }
+
+    private void store(String key, DescribeApplicationResponse response, long writesBefore) {
+        long now = nanoClock.getAsLong();
+        if (entries.size() >= maxEntries) {
+            entries.values().removeIf(e -> e.expiresAtNanos - now <= 0);
+            if (entries.size() >= maxEntries) {
+                return;
+            }
+        }
+        Entry entry = new Entry(response, now + ttlNanos);
+        entries.put(key, entry);
+        // Checked after the put, so a write that raced with it either sees the entry or is seen here
+        if (update(key, g -> { }) != writesBefore) {
+            entries.remove(key, entry);
+        }
+    }
+
+    static boolean isWrite(AwsRequest request) {
+        return request instanceof CreateApplicationRequest
+                || request instanceof UpdateApplicationRequest
+                || request instanceof DeleteApplicationRequest
+                || request instanceof TagResourceRequest
+                || request instanceof UntagResourceRequest;
+    }
+
+    // Application IDs are only looked up within the account whose credentials made the call
+    static String key(String awsAccountId, String applicationId) {
+        return applicationId == null ? null : awsAccountId + "/" + applicationId;
+    }
+
+    static String applicationId(AwsRequest request, AwsResponse response) {
+        if (request instanceof UpdateApplicationRequest) {
+            return ((UpdateApplicationRequest) request).applicationId();
+        }
+        if (request instanceof DeleteApplicationRequest) {
+            return ((DeleteApplicationRequest) request).applicationId();
+        }
+        if (request instanceof TagResourceRequest) {
+            return fromArn(((TagResourceRequest) request).resourceArn());
+        }
+        if (request instanceof UntagResourceRequest) {
+            return fromArn(((UntagResourceRequest) request).resourceArn());
+        }
+        if (response instanceof CreateApplicationResponse) {
+            return ((CreateApplicationResponse) response).applicationId();
+        }
+        return null;
+    }
+
+    // arn:aws:iotfleethub:<region>:<account>:application/<applicationId>
+    private static String fromArn(String applicationArn) {
+        return applicationArn == null ? null : applicationArn.substring(applicationArn.lastIndexOf('/') + 1);
+    }
+
+    private static void record(String action, boolean hit, Logger logger) {
+        new MetricEvent()
+                .dimension("Action", action)
+                .dimension("Cache", "DescribeApplication")
+                .metric("Hits", hit ? 1 : 0, MetricEvent.COUNT)
+                .metric("Misses", hit ? 0 : 1, MetricEvent.COUNT)
+                .emit(logger);
+    }
+
+    // Guarded by the generations map's lock on its key
+    private static final class Generation {
+        private long writes;
+        private int describing;
+        private int writing;
+    }
+
+    private static final class Entry {
+        private final DescribeApplicationResponse response;
+        private final long expiresAtNanos;
+
+        private Entry(DescribeApplicationResponse response, long expiresAtNanos) {
+            this.response = response;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package software.amazon.iotfleethub.application;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.cloudformation.proxy.HandlerErrorCode;
+import software.amazon.cloudformation.proxy.Logger;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Per-invocation Logger that writes exceptions as structured JSON lines under a byte budget.
+ *
+ * Plain log lines pass straight through. Exception lines are sampled per exception class across the container:
+ * one is written on the 1st, 2nd, 4th, 8th, ... occurrence and carries the occurrence count, so a retry storm
+ * costs a logarithmic number of lines. Unexpected exceptions are always written, but their stack trace is only
+ * rendered on those sampled occurrences. Once an invocation has written its budget of error bytes, further error
+ * lines are dropped without being formatted.
+ */
+public class ErrorLogger implements Logger {
+
+    static final int DEFAULT_BYTE_BUDGET = 16 * 1024;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final ConcurrentMap<Class<?>, AtomicLong> OCCURRENCES = new ConcurrentHashMap<>();
+
+    private final Logger logger;
+    private final int byteBudget;
+    private int bytesWritten;
+    private int suppressed;
+
+    ErrorLogger(Logger logger) {
+        this(logger, DEFAULT_BYTE_BUDGET);
+    }
+
+    ErrorLogger(Logger logger, int byteBudget) {
+        this.logger = logger;
+        this.byteBudget = byteBudget;
+    }
+
+    static ErrorLogger of(Logger logger) {
+        return logger instanceof ErrorLogger ? (ErrorLogger) logger : new ErrorLogger(logger);
+    }
+
+    @Override
+    public void log(String message) {
+        logger.log(message);
+    }
+
+    int getSuppressed() {
+        return suppressed;
+    }
+
+    void logException(Exception e, HandlerErrorCode errorCode, boolean unexpected) {
+        long occurrence = OCCURRENCES.computeIfAbsent(e.getClass(), type -> new AtomicLong()).incrementAndGet();
+        boolean sampled = Long.bitCount(occurrence) == 1;
+        if (!sampled && !unexpected) {
+            return;
+        }
+
+        logBudgeted(() -> {
+            Map<String, Object> line = new LinkedHashMap<>();
+            line.put("level", unexpected ? "ERROR" : "WARN");
+            line.put("errorCode", errorCode.name());
+            line.put("exception", e.getClass().getName());
+            line.put("message", e.getMessage());
+            if (e instanceof AwsServiceException) {
+                line.put("requestId", ((AwsServiceException) e).requestId());
+                line.put("statusCode", ((AwsServiceException) e).statusCode());
+            }
+            line.put("occurrences", occurrence);
+            if (unexpected && sampled) {
+                line.put("stackTrace", ExceptionUtils.getStackTrace(e));
+            }
+            try {
+                return MAPPER.writeValueAsString(line);
+            } catch (JsonProcessingException jsonException) {
+                return String.format("%s: %s", e.getClass().getName(), e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Writes the message if the invocation's error budget allows it, counting its UTF-8 bytes against the budget. The
+     * supplier is not called once the budget is spent.
+     */
+    synchronized void logBudgeted(Supplier<String> message) {
+        if (bytesWritten >= byteBudget) {
+            suppress();
+            return;
+        }
+        String line = message.get();
+        int bytes = line.getBytes(StandardCharsets.UTF_8).length;
+        if (bytesWritten + bytes > byteBudget) {
+            bytesWritten = byteBudget;
+            suppress();
+            return;
+        }
+        bytesWritten += bytes;
+        logger.log(line);
+    }
+
+    private void suppress() {
+        if (suppressed++ == 0) {
+            logger.log(String.format("Error log budget of %d bytes spent, suppressing further error logs.", byteBudget));
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package software.amazon.iotfleethub.application;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Executor for handler work that fans out to many Fleet Hub calls at once, such as describing every Application on
+ * a list page or reading many Applications by id.
+ *
+ * On a Java 21 runtime every task gets its own virtual thread, so a call blocked on the network holds no platform
+ * thread. On the java8 runtime tasks run on a pool of daemon platform threads instead. Either way one fan-out has at
+ * most maxConcurrency tasks running: it starts that many workers, which take the items in order until none are left.
+ * The shared instance lives for the lifetime of the Lambda container, like the shared client.
+ */
+final class FanOut {
+
+    private static final class Shared {
+        private static final FanOut INSTANCE = new FanOut(
+                newVirtualThreadExecutor().orElseGet(FanOut::newPlatformThreadExecutor));
+    }
+
+    private final ExecutorService executor;
+
+    FanOut(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    static FanOut shared() {
+        return Shared.INSTANCE;
+    }
+
+    /**
+     * Executors.newVirtualThreadPerTaskExecutor(), looked up at runtime so the handlers still build and run on java8.
+     */
+    static Optional<ExecutorService> newVirtualThreadExecutor() {
+        try {
+            return Optional.of((ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null));
+        } catch (ReflectiveOperationException e) {
+            return Optional.empty();
+        }
+    }
+
+    static ExecutorService newPlatformThreadExecutor() {
+        AtomicInteger threads = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "fan-out-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return Executors.newCachedThreadPool(threadFactory);
+    }
+
+    <R> CompletableFuture<R> submit(Supplier<R> task) {
+        return CompletableFuture.supplyAsync(task, executor);
+    }
+
+    /**
+     * Applies task to every item with at most maxConcurrency running at once. The returned futures are in item order
+     * and each completes with its item's result or exception.
+     */
+    <T, R> List<CompletableFuture<R>> map(List<T> items, int maxConcurrency, Function<? super T, ? extends R> task) {
+        List<CompletableFuture<R>> results = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            results.add(new CompletableFuture<>());
+        }
+
+        AtomicInteger next = new AtomicInteger();
+        int workers = Math.min(Math.max(1, maxConcurrency), items.size());
+        for (int worker = 0; worker < workers; worker++) {
+            executor.execute(() -> {
+                for (int i = next.getAndIncrement(); i < items.size(); i = next.getAndIncrement()) {
+                    try {
+                        results.get(i).complete(task.apply(items.get(i)));
+                    } catch (Throwable e) {
+                        results.get(i).completeExceptionally(e);
+                    }
+                }
+            });
+        }
+        return results;
+    }
+
+    <T, R> List<CompletableFuture<R>> map(List<T> items, Function<? super T, ? extends R> task) {
+        return map(items, Settings.FAN_OUT_CONCURRENCY, task);
+    }
+}
@@ -0,0 +1,81 @@
+package software.amazon.iotfleethub.application;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * When to hedge a Fleet Hub read, and how many hedges may be sent.
+ *
+ * The latencies of the last window successful calls are kept, and a call still unanswered after the given
+ * percentile of them gets a hedge, once at least minSamples are known. Every call earns budgetRatio of a hedge, up
+ * to maxTokens saved, and every hedge spends one, so hedges add at most budgetRatio to the load however slow the
+ * service gets.
+ */
+public class HedgePolicy {
+
+    static final int DEFAULT_WINDOW = 100;
+    static final int DEFAULT_MIN_SAMPLES = 20;
+    static final double DEFAULT_MAX_TOKENS = 10.0;
+
+    private final double percentile;
+    private final double budgetRatio;
+    private final int minSamples;
+    private final double maxTokens;
+
+    private final long[] latencies;
+    private int recorded;
+    private int next;
+
+    private double tokens;
+
+    HedgePolicy(double percentile, double budgetRatio) {
+        this(percentile, budgetRatio, DEFAULT_WINDOW, DEFAULT_MIN_SAMPLES, DEFAULT_MAX_TOKENS);
+    }
+
+    HedgePolicy(double percentile, double budgetRatio, int window, int minSamples, double maxTokens) {
+        this.percentile = percentile;
+        this.budgetRatio = budgetRatio;
+        this.minSamples = minSamples;
+        this.maxTokens = maxTokens;
+        this.latencies = new long[window];
+    }
+
+    /**
+     * Records the latency of a call that was answered.
+     */
+    synchronized void record(Duration latency) {
+        latencies[next] = latency.toNanos();
+        next = (next + 1) % latencies.length;
+        recorded = Math.min(recorded + 1, latencies.length);
+    }
+
+    /**
+     * How long a new call waits for an answer before it is hedged, or empty while too few latencies are known. The
+     * call earns its share of the hedge budget.
+     */
+    Optional<Duration> onCall() {
+        long[] sorted;
+        synchronized (this) {
+            tokens = Math.min(maxTokens, tokens + budgetRatio);
+            if (recorded < minSamples) {
+                return Optional.empty();
+            }
+            sorted = Arrays.copyOf(latencies, recorded);
+        }
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return Optional.of(Duration.ofNanos(sorted[Math.max(0, Math.min(index, sorted.length - 1))]));
+    }
+
+    /**
+     * Whether a hedge may be sent, spending one from the budget if so.
+     */
+    synchronized boolean tryHedge() {
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+}
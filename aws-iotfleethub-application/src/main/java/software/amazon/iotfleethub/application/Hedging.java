@@ -0,0 +1,186 @@
+package software.amazon.iotfleethub.application;
+
+import software.amazon.awssdk.awscore.AwsRequest;
+import software.amazon.awssdk.awscore.AwsResponse;
+import software.amazon.awssdk.services.iotfleethub.IoTFleetHubClient;
+import software.amazon.awssdk.services.iotfleethub.model.DescribeApplicationRequest;
+import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.ProxyClient;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Container-wide hedging of blocking DescribeApplication calls, which are idempotent.
+ *
+ * A describe still unanswered after the HedgePolicy's percentile of recent describe latencies is sent a second
+ * time, while the hedge budget allows, and the first of the two to answer is returned. A describe that fails before
+ * the hedge is due is not hedged; errors are left to the call chain's retries. Both attempts run on the FanOut
+ * executor and go through the rate limiter and API metrics as separate calls; the one that loses is left to finish
+ * in the background. Every hedge sent is emitted as a Hedged metric, with a HedgeWon of 1 if it answered first.
+ */
+final class Hedging {
+
+    private static final class Shared {
+        private static final Hedging INSTANCE = new Hedging(Settings.HEDGE_READS,
+                new HedgePolicy(Settings.HEDGE_PERCENTILE / 100.0, Settings.HEDGE_BUDGET_PERCENT / 100.0),
+                FanOut.shared());
+    }
+
+    private final boolean enabled;
+    private final HedgePolicy policy;
+    private final FanOut fanOut;
+    private final AtomicLong hedged = new AtomicLong();
+    private final AtomicLong won = new AtomicLong();
+
+    Hedging(boolean enabled, HedgePolicy policy, FanOut fanOut) {
+        this.enabled = enabled;
+        this.policy = policy;
+        this.fanOut = fanOut;
+    }
+
+    static Hedging shared() {
+        return Shared.INSTANCE;
+    }
+
+    long getHedged() {
+        return hedged.get();
+    }
+
+    long getWon() {
+        return won.get();
+    }
+
+    /**
+     * Wraps a ProxyClient so its blocking describes are hedged. Returns the ProxyClient itself when hedging is off.
+     */
+    ProxyClient<IoTFleetHubClient> wrap(final ProxyClient<IoTFleetHubClient> proxyClient, final String action,
+                                        final Logger logger) {
+        if (!enabled) {
+            return proxyClient;
+        }
+
+        return new ProxyClient<IoTFleetHubClient>() {
+            @Override
+            public <RequestT extends AwsRequest, ResponseT extends AwsResponse> ResponseT injectCredentialsAndInvokeV2(
+                    RequestT request, Function<RequestT, ResponseT> requestFunction) {
+
+                if (!(request instanceof DescribeApplicationRequest)) {
+                    return proxyClient.injectCredentialsAndInvokeV2(request, requestFunction);
+                }
+                Optional<Duration> hedgeAfter = policy.onCall();
+                if (!hedgeAfter.isPresent()) {
+                    return attempt(proxyClient, request, requestFunction);
+                }
+                return hedge(proxyClient, request, requestFunction, hedgeAfter.get(), action, logger);
+            }
+
+            @Override
+            public <RequestT extends AwsRequest, ResponseT extends AwsResponse> CompletableFuture<ResponseT> injectCredentialsAndInvokeV2Async(
+                    RequestT request, Function<RequestT, CompletableFuture<ResponseT>> requestFunction) {
+                return proxyClient.injectCredentialsAndInvokeV2Async(request, requestFunction);
+            }
+
+            @Override
+            public IoTFleetHubClient client() {
+                return proxyClient.client();
+            }
+        };
+    }
+
+    private <RequestT extends AwsRequest, ResponseT extends AwsResponse> ResponseT hedge(
+            ProxyClient<IoTFleetHubClient> proxyClient, RequestT request, Function<RequestT, ResponseT> requestFunction,
+            Duration hedgeAfter, String action, Logger logger) {
+
+        CompletableFuture<ResponseT> primary = fanOut.submit(() -> attempt(proxyClient, request, requestFunction));
+        try {
+            return primary.get(hedgeAfter.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // Not answered within the percentile, so hedge if the budget allows
+        } catch (ExecutionException e) {
+            throw rethrow(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+        if (!policy.tryHedge()) {
+            return join(primary);
+        }
+
+        hedged.incrementAndGet();
+        CompletableFuture<ResponseT> second = fanOut.submit(() -> attempt(proxyClient, request, requestFunction));
+
+        // First answer wins; the call fails only once both attempts have failed
+        CompletableFuture<CompletableFuture<ResponseT>> winner = new CompletableFuture<>();
+        AtomicInteger failed = new AtomicInteger();
+        for (CompletableFuture<ResponseT> attempt : Arrays.asList(primary, second)) {
+            attempt.whenComplete((response, e) -> {
+                if (e == null) {
+                    winner.complete(attempt);
+                } else if (failed.incrementAndGet() == 2) {
+                    winner.completeExceptionally(e);
+                }
+            });
+        }
+
+        CompletableFuture<ResponseT> answered;
+        try {
+            answered = join(winner);
+        } catch (RuntimeException e) {
+            record(action, false, logger);
+            throw e;
+        }
+        boolean hedgeWon = answered == second;
+        if (hedgeWon) {
+            won.incrementAndGet();
+        }
+        record(action, hedgeWon, logger);
+        return answered.join();
+    }
+
+    private <RequestT extends AwsRequest, ResponseT extends AwsResponse> ResponseT attempt(
+            ProxyClient<IoTFleetHubClient> proxyClient, RequestT request, Function<RequestT, ResponseT> requestFunction) {
+
+        long start = System.nanoTime();
+        ResponseT response = proxyClient.injectCredentialsAndInvokeV2(request, requestFunction);
+        policy.record(Duration.ofNanos(System.nanoTime() - start));
+        return response;
+    }
+
+    private static <ResponseT> ResponseT join(CompletableFuture<ResponseT> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            throw rethrow(e);
+        }
+    }
+
+    private static RuntimeException rethrow(Exception e) {
+        Throwable cause = AsyncCall.unwrap(e);
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new CompletionException(cause);
+    }
+
+    private static void record(String action, boolean hedgeWon, Logger logger) {
+        new MetricEvent()
+                .dimension("Action", action)
+                .dimension("Operation", "DescribeApplication")
+                .metric("Hedged", 1, MetricEvent.COUNT)
+                .metric("HedgeWon", hedgeWon ? 1 : 0, MetricEvent.COUNT)
+                .emit(logger);
+    }
+}
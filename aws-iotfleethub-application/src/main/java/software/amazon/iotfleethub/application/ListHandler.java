@@ -1,64 +1,174 @@
 package software.amazon.iotfleethub.application;
 
 import software.amazon.awssdk.services.iotfleethub.IoTFleetHubClient;
+import software.amazon.awssdk.services.iotfleethub.model.DescribeApplicationResponse;
 import software.amazon.awssdk.services.iotfleethub.model.ListApplicationsRequest;
 import software.amazon.awssdk.services.iotfleethub.model.ListApplicationsResponse;
+import software.amazon.awssdk.services.iotfleethub.model.ResourceNotFoundException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
-import software.amazon.cloudformation.proxy.HandlerErrorCode;
 import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.OperationStatus;
+import software.amazon.cloudformation.proxy.ProxyClient;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
-public class ListHandler extends BaseHandler<CallbackContext> {
+public class ListHandler extends BaseHandlerStd {
 
-    private final IoTFleetHubClient iotFleetHubClient;
+    private final int maxResults;
+    private final Duration timeBudget;
+    private final boolean enriched;
 
     public ListHandler() {
-        iotFleetHubClient = IoTFleetHubClient.builder().build();
+        this(Settings.LIST_MAX_RESULTS, Duration.ofSeconds(Settings.LIST_TIME_BUDGET_SECONDS), Settings.LIST_ENRICHED);
+    }
+
+    /**
+     * With maxResults above 0, each invocation keeps fetching pages until it has at least maxResults models, has
+     * spent timeBudget, or has no page left, and only then returns a nextToken. With enriched, every listed
+     * Application is described, so the models carry everything ReadHandler returns.
+     */
+    ListHandler(int maxResults, Duration timeBudget, boolean enriched) {
+        this.maxResults = maxResults;
+        this.timeBudget = timeBudget;
+        this.enriched = enriched;
     }
 
     @Override
-    public ProgressEvent<ResourceModel, CallbackContext> handleRequest(
+    protected ProgressEvent<ResourceModel, CallbackContext> handleRequest(
             final AmazonWebServicesClientProxy proxy,
             final ResourceHandlerRequest<ResourceModel> request,
             final CallbackContext callbackContext,
+            final ProxyClient<IoTFleetHubClient> proxyClient,
             final Logger logger) {
 
-        ListApplicationsRequest listRequest = Translator.translateToListRequest(request);
+        Deadline deadline = deadline().within(timeBudget);
+        long start = System.nanoTime();
+
+        // List requests may not carry a model, but the call chain needs one to key its state
+        ResourceModel model = request.getDesiredResourceState() != null
+                ? request.getDesiredResourceState()
+                : ResourceModel.builder().build();
+
+        return proxy.initiate("AWS-IoTFleetHub-Application::List", proxyClient, model, callbackContext)
+                .translateToServiceRequest(m -> Translator.translateToListRequest(request))
+                .backoffDelay(BackoffPolicy.RETRY)
+                .makeServiceCall((listRequest, client) -> retryInPlace(() ->
+                        client.injectCredentialsAndInvokeV2(listRequest, client.client()::listApplications),
+                        inInvocationRetries(), deadline))
+                .handleError((listRequest, e, client, m, context) ->
+                        handleError(listRequest, e, request.getDesiredResourceState(), context, logger))
+                .done(listResponse -> {
+                    logger.log(String.format("Listing Applications for Account %s", request.getAwsAccountId()));
+
+                    if (maxResults <= 0) {
+                        return ProgressEvent.<ResourceModel, CallbackContext>builder()
+                                .resourceModels(mapPage(proxyClient, listResponse, logger))
+                                .nextToken(listResponse.nextToken())
+                                .status(OperationStatus.SUCCESS)
+                                .build();
+                    }
+
+                    List<ResourceModel> models = new ArrayList<>();
+                    String nextToken = collectPages(proxyClient, listResponse, Duration.ofNanos(System.nanoTime() - start),
+                            deadline, models, logger);
+                    return ProgressEvent.<ResourceModel, CallbackContext>builder()
+                            .resourceModels(models)
+                            .nextToken(nextToken)
+                            .status(OperationStatus.SUCCESS)
+                            .build();
+                });
+    }
+
+    @Override
+    boolean canCallBack() {
+        return false;
+    }
+
+    /**
+     * Adds the models of firstPage and of the pages after it to models, and returns the token of the first page not
+     * fetched. The next page is fetched in the background while the current one is mapped (and described), and is only requested
+     * while the deadline leaves room for another page as slow as the slowest one so far. A page that fails ends the
+     * invocation early, with its token returned so the caller resumes from it.
+     */
+    private String collectPages(
+            ProxyClient<IoTFleetHubClient> proxyClient,
+            ListApplicationsResponse firstPage,
+            Duration firstPageTime,
+            Deadline deadline,
+            List<ResourceModel> models,
+            Logger logger) {
+
+        ListApplicationsResponse page = firstPage;
+        long slowestPageNanos = firstPageTime.toNanos();
+        int pages = 1;
+        while (true) {
+            String nextToken = page.nextToken();
+            boolean fetchNext = nextToken != null
+                    && models.size() + page.applicationSummaries().size() < maxResults
+                    && deadline.allows(Duration.ofNanos(slowestPageNanos));
+            long fetchStart = System.nanoTime();
+            CompletableFuture<ListApplicationsResponse> next = fetchNext
+                    ? FanOut.shared().submit(() -> proxyClient.injectCredentialsAndInvokeV2(
+                            ListApplicationsRequest.builder().nextToken(nextToken).build(),
+                            proxyClient.client()::listApplications))
+                    : null;
 
-        ListApplicationsResponse listResponse;
-        try {
-            listResponse = proxy.injectCredentialsAndInvokeV2(listRequest, iotFleetHubClient::listApplications);
-        } catch (RuntimeException e) {
-            HandlerErrorCode err = Translator.translateExceptionToErrorCode(e, logger);
-            return ProgressEvent.failed(request.getDesiredResourceState(), callbackContext, err, e.getMessage());
+            models.addAll(mapPage(proxyClient, page, logger));
+            if (next == null) {
+                logger.log(String.format("Listed %d Applications from %d pages.", models.size(), pages));
+                return nextToken;
+            }
+
+            try {
+                page = next.join();
+            } catch (CompletionException e) {
+                logger.log(String.format("Stopped listing after %d pages, %s: %s",
+                        pages, AsyncCall.unwrap(e).getClass().getSimpleName(), AsyncCall.unwrap(e).getMessage()));
+                return nextToken;
+            }
+            slowestPageNanos = Math.max(slowestPageNanos, System.nanoTime() - fetchStart);
+            pages++;
         }
+    }
 
-        String nextToken = listResponse.nextToken();
-
-        // Date attributes need to be converted to int for CFN Model. Dates are in epoch seconds and within int range.
-        List<ResourceModel> models = listResponse.applicationSummaries().stream()
-                .map(applicationSummary -> ResourceModel.builder()
-                        .applicationId(applicationSummary.applicationId())
-                        .applicationName(applicationSummary.applicationName())
-                        .applicationDescription(applicationSummary.applicationDescription())
-                        .applicationUrl(applicationSummary.applicationUrl())
-                        .applicationCreationDate(applicationSummary.applicationCreationDate().intValue())
-                        .applicationLastUpdateDate(applicationSummary.applicationLastUpdateDate().intValue())
-                        .applicationState(applicationSummary.applicationStateAsString())
-                        .build())
-                .collect(Collectors.toList());
-
-        logger.log(String.format("Listing Applications for Account %s", request.getAwsAccountId()));
-
-        return ProgressEvent.<ResourceModel, CallbackContext>builder()
-                .resourceModels(models)
-                .nextToken(nextToken)
-                .status(OperationStatus.SUCCESS)
-                .build();
+    /**
+     * Models for one page of summaries. When enriched, the page's Applications are described with bounded
+     * concurrency through the rate-limited ProxyClient and mapped as ReadHandler maps them. An Application deleted
+     * since it was listed is left out; one that cannot be described keeps its summary model.
+     */
+    private List<ResourceModel> mapPage(
+            ProxyClient<IoTFleetHubClient> proxyClient,
+            ListApplicationsResponse page,
+            Logger logger) {
+
+        List<ResourceModel> summaries = Translator.translateFromListResponse(page);
+        if (!enriched) {
+            return summaries;
+        }
+
+        List<CompletableFuture<DescribeApplicationResponse>> described = FanOut.shared().map(summaries, summary ->
+                proxyClient.injectCredentialsAndInvokeV2(Translator.translateToDescribeRequest(summary),
+                        proxyClient.client()::describeApplication));
+        List<ResourceModel> models = new ArrayList<>(summaries.size());
+        for (int i = 0; i < summaries.size(); i++) {
+            try {
+                models.add(Translator.translateFromReadResponse(described.get(i).join()));
+            } catch (CompletionException e) {
+                Throwable cause = AsyncCall.unwrap(e);
+                if (cause instanceof ResourceNotFoundException) {
+                    continue;
+                }
+                logger.log(String.format("Could not describe Application %s, returning its summary. %s: %s",
+                        summaries.get(i).getApplicationId(), cause.getClass().getSimpleName(), cause.getMessage()));
+                models.add(summaries.get(i));
+            }
+        }
+        return models;
     }
 }
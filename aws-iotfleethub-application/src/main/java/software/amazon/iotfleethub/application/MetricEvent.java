@@ -0,0 +1,84 @@
+package software.amazon.iotfleethub.application;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import software.amazon.cloudformation.proxy.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One CloudWatch Embedded Metric Format (EMF) record, written as a single JSON line through the handler Logger.
+ *
+ * CloudWatch Logs extracts the metrics from the line, with all dimensions as one dimension set, so no agent or
+ * PutMetricData call is needed.
+ */
+class MetricEvent {
+
+    static final String NAMESPACE = "AWS-IoTFleetHub-Application";
+
+    static final String MILLISECONDS = "Milliseconds";
+    static final String COUNT = "Count";
+    static final String NONE = "None";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Map<String, String> dimensions = new LinkedHashMap<>();
+    private final Map<String, Object> properties = new LinkedHashMap<>();
+    private final Map<String, Number> values = new LinkedHashMap<>();
+    private final Map<String, String> units = new LinkedHashMap<>();
+
+    MetricEvent dimension(String name, String value) {
+        dimensions.put(name, value);
+        return this;
+    }
+
+    // Searchable in CloudWatch Logs Insights, but not a metric dimension
+    MetricEvent property(String name, Object value) {
+        properties.put(name, value);
+        return this;
+    }
+
+    MetricEvent metric(String name, Number value, String unit) {
+        values.put(name, value);
+        units.put(name, unit);
+        return this;
+    }
+
+    String toEmf(long timestampMillis) {
+        List<Map<String, String>> metrics = new ArrayList<>();
+        for (Map.Entry<String, String> unit : units.entrySet()) {
+            Map<String, String> definition = new LinkedHashMap<>();
+            definition.put("Name", unit.getKey());
+            definition.put("Unit", unit.getValue());
+            metrics.add(definition);
+        }
+        Map<String, Object> directive = new LinkedHashMap<>();
+        directive.put("Namespace", NAMESPACE);
+        directive.put("Dimensions", Collections.singletonList(new ArrayList<>(dimensions.keySet())));
+        directive.put("Metrics", metrics);
+
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        metadata.put("Timestamp", timestampMillis);
+        metadata.put("CloudWatchMetrics", Collections.singletonList(directive));
+
+        Map<String, Object> root = new LinkedHashMap<>();
+        root.put("_aws", metadata);
+        root.putAll(dimensions);
+        root.putAll(properties);
+        root.putAll(values);
+        try {
+            return MAPPER.writeValueAsString(root);
+        } catch (JsonProcessingException e) {
+            // Only plain strings and numbers are written, so this is not expected
+            throw new IllegalStateException(e);
+        }
+    }
+
+    void emit(Logger logger) {
+        logger.log(toEmf(System.currentTimeMillis()));
+    }
+}
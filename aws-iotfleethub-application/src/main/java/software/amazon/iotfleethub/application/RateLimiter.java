@@ -0,0 +1,111 @@
+package software.amazon.iotfleethub.application;
+
+import software.amazon.awssdk.awscore.AwsRequest;
+import software.amazon.awssdk.awscore.AwsResponse;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.services.iotfleethub.IoTFleetHubClient;
+import software.amazon.awssdk.services.iotfleethub.model.ThrottlingException;
+import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.ProxyClient;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Container-wide client-side rate limiting for Fleet Hub API calls, with one adaptive TokenBucket per operation.
+ *
+ * Buckets live for the lifetime of the Lambda container, like the shared client, so a rate lowered by throttling
+ * in one invocation still applies to the next one.
+ */
+public class RateLimiter {
+
+    private static final ConcurrentMap<String, TokenBucket> BUCKETS = new ConcurrentHashMap<>();
+
+    private RateLimiter() {
+    }
+
+    static TokenBucket forOperation(String operation) {
+        return BUCKETS.computeIfAbsent(operation, TokenBucket::new);
+    }
+
+    static String operationName(AwsRequest request) {
+        return request.getClass().getSimpleName().replace("Request", "");
+    }
+
+    /**
+     * Wraps a ProxyClient so every call first takes a permit from its operation's bucket and reports back whether
+     * it was throttled. A call that would be queued past the point where the deadline still leaves time to make it
+     * takes no permit and throws DeadlineExceededException.
+     */
+    static ProxyClient<IoTFleetHubClient> limit(final ProxyClient<IoTFleetHubClient> proxyClient, final Deadline deadline,
+                                                final Logger logger) {
+        return new ProxyClient<IoTFleetHubClient>() {
+            @Override
+            public <RequestT extends AwsRequest, ResponseT extends AwsResponse> ResponseT injectCredentialsAndInvokeV2(
+                    RequestT request, Function<RequestT, ResponseT> requestFunction) {
+
+                TokenBucket bucket = acquire(request, deadline, logger);
+                try {
+                    ResponseT response = proxyClient.injectCredentialsAndInvokeV2(request, requestFunction);
+                    bucket.onSuccess();
+                    return response;
+                } catch (AwsServiceException e) {
+                    onFailure(bucket, e, logger);
+                    throw e;
+                }
+            }
+
+            // The permit is taken before the call is started; the bucket learns the outcome when the call completes
+            @Override
+            public <RequestT extends AwsRequest, ResponseT extends AwsResponse> CompletableFuture<ResponseT> injectCredentialsAndInvokeV2Async(
+                    RequestT request, Function<RequestT, CompletableFuture<ResponseT>> requestFunction) {
+
+                TokenBucket bucket = acquire(request, deadline, logger);
+                return proxyClient.injectCredentialsAndInvokeV2Async(request, requestFunction)
+                        .whenComplete((response, e) -> {
+                            if (e == null) {
+                                bucket.onSuccess();
+                            } else {
+                                onFailure(bucket, AsyncCall.unwrap(e), logger);
+                            }
+                        });
+            }
+
+            @Override
+            public IoTFleetHubClient client() {
+                return proxyClient.client();
+            }
+        };
+    }
+
+    private static TokenBucket acquire(AwsRequest request, Deadline deadline, Logger logger) {
+        TokenBucket bucket = forOperation(operationName(request));
+        Duration remaining = deadline.remaining();
+        Optional<Duration> queued = bucket.tryAcquire(remaining.minus(Deadline.MIN_CALL_TIME));
+        if (!queued.isPresent()) {
+            throw new DeadlineExceededException(bucket.getOperation(), remaining);
+        }
+        Duration wait = queued.get();
+        if (!wait.isZero()) {
+            logger.log(String.format("Queued %s for %d ms at %.2f calls/s.",
+                    bucket.getOperation(), wait.toMillis(), bucket.getRate()));
+        }
+        return bucket;
+    }
+
+    private static void onFailure(TokenBucket bucket, Throwable e, Logger logger) {
+        if (e instanceof AwsServiceException && isThrottling((AwsServiceException) e)) {
+            bucket.onThrottle();
+            logger.log(String.format("%s was throttled, lowered rate to %.2f calls/s.",
+                    bucket.getOperation(), bucket.getRate()));
+        }
+    }
+
+    static boolean isThrottling(AwsServiceException e) {
+        return e instanceof ThrottlingException || e.isThrottlingException();
+    }
+}
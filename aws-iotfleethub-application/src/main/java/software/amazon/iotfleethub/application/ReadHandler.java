@@ -1,11 +1,6 @@
 package software.amazon.iotfleethub.application;
 
-import com.google.common.annotations.VisibleForTesting;
 import software.amazon.awssdk.services.iotfleethub.IoTFleetHubClient;
-import software.amazon.awssdk.services.iotfleethub.model.DescribeApplicationRequest;
-import software.amazon.awssdk.services.iotfleethub.model.DescribeApplicationResponse;
-import software.amazon.awssdk.services.iotfleethub.model.ResourceNotFoundException;
-import software.amazon.cloudformation.exceptions.CfnGeneralServiceException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.HandlerErrorCode;
 import software.amazon.cloudformation.proxy.Logger;
@@ -13,25 +8,14 @@ import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ProxyClient;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Iterator;
-import java.util.Map;
-import java.util.Set;
-
-public class ReadHandler extends BaseHandler<CallbackContext> {
-
-    private final IoTFleetHubClient iotFleetHubClient;
-
-    public ReadHandler() {
-        iotFleetHubClient = IoTFleetHubClient.builder().build();
-    }
+public class ReadHandler extends BaseHandlerStd {
 
     @Override
-    public ProgressEvent<ResourceModel, CallbackContext> handleRequest(
+    protected ProgressEvent<ResourceModel, CallbackContext> handleRequest(
             final AmazonWebServicesClientProxy proxy,
             final ResourceHandlerRequest<ResourceModel> request,
             final CallbackContext callbackContext,
+            final ProxyClient<IoTFleetHubClient> proxyClient,
             final Logger logger) {
 
         ResourceModel model = request.getDesiredResourceState();
@@ -42,50 +26,23 @@ public class ReadHandler extends BaseHandler<CallbackContext> {
             return ProgressEvent.failed(model, callbackContext, HandlerErrorCode.NotFound, "ApplicationId was not provided.");
         }
 
-        DescribeApplicationRequest describeRequest = Translator.translateToDescribeRequest(model);
-
-        DescribeApplicationResponse describeResponse;
-        try {
-            describeResponse = proxy.injectCredentialsAndInvokeV2(describeRequest, iotFleetHubClient::describeApplication);
-        } catch (ResourceNotFoundException e) {
-            logger.log(String.format("Application with Id %s was not found", model.getApplicationId()));
-            return ProgressEvent.failed(model, callbackContext, HandlerErrorCode.NotFound, e.getMessage());
-        } catch (RuntimeException e) {
-            HandlerErrorCode err = Translator.translateExceptionToErrorCode(e, logger);
-            return ProgressEvent.failed(model, callbackContext, err, e.getMessage());
-        }
-
-        String applicationId = describeResponse.applicationId();
-        String applicationName = describeResponse.applicationName();
-        logger.log(String.format("Described Application %s, named %s.", applicationId, applicationName));
-
-        Map<String, String> tagMap = describeResponse.tags();
-        Set<Tag> tagSet = new HashSet<Tag>();
-
-        if (tagMap != null) {
-            for (Map.Entry<String,String> tagEntry : tagMap.entrySet()) {
-                Tag tag = Tag.builder()
-                        .key(tagEntry.getKey())
-                        .value(tagEntry.getValue())
-                        .build();
-                tagSet.add(tag);
-            }
-        }
+        Deadline deadline = deadline();
+        return proxy.initiate("AWS-IoTFleetHub-Application::Read", proxyClient, model, callbackContext)
+                .translateToServiceRequest(Translator::translateToDescribeRequest)
+                .backoffDelay(BackoffPolicy.RETRY)
+                .makeServiceCall((describeRequest, client) -> retryInPlace(() ->
+                        client.injectCredentialsAndInvokeV2(describeRequest, client.client()::describeApplication),
+                        inInvocationRetries(), deadline))
+                .handleError((describeRequest, e, client, m, context) -> handleError(describeRequest, e, m, context, logger))
+                .done(describeResponse -> {
+                    logger.log(String.format("Described Application %s, named %s.",
+                            describeResponse.applicationId(), describeResponse.applicationName()));
+                    return ProgressEvent.defaultSuccessHandler(Translator.translateFromReadResponse(describeResponse));
+                });
+    }
 
-        return ProgressEvent.defaultSuccessHandler(
-                ResourceModel.builder()
-                        .applicationId(applicationId)
-                        .applicationArn(describeResponse.applicationArn())
-                        .applicationName(applicationName)
-                        .applicationDescription(describeResponse.applicationDescription())
-                        .applicationUrl(describeResponse.applicationUrl())
-                        .applicationState(describeResponse.applicationStateAsString())
-                        .applicationCreationDate(describeResponse.applicationCreationDate().intValue())
-                        .applicationLastUpdateDate(describeResponse.applicationLastUpdateDate().intValue())
-                        .roleArn(describeResponse.roleArn())
-                        .ssoClientId(describeResponse.ssoClientId())
-                        .errorMessage(describeResponse.errorMessage())
-                        .tags(tagSet)
-                        .build());
+    @Override
+    boolean canCallBack() {
+        return false;
     }
 }
@@ -0,0 +1,77 @@
+package software.amazon.iotfleethub.application;
+
+/**
+ * Container-wide switches for the handlers' optional execution modes, read once from the function's environment.
+ *
+ * Every switch defaults to the behaviour the handlers have without it, so a function with none of them set runs
+ * exactly as before.
+ */
+final class Settings {
+
+    // Runs independent Fleet Hub calls concurrently on the shared IoTFleetHubAsyncClient
+    static final boolean ASYNC_CALLS = flag("ASYNC_CALLS");
+
+    // Most calls a single fan-out, such as a bulk read, has in flight at once
+    static final int FAN_OUT_CONCURRENCY = number("FAN_OUT_CONCURRENCY", 16);
+
+    // ListHandler keeps fetching pages until it has this many models; 0 returns one page per invocation
+    static final int LIST_MAX_RESULTS = number("LIST_MAX_RESULTS", 0);
+
+    // Most time ListHandler spends fetching pages in one invocation
+    static final int LIST_TIME_BUDGET_SECONDS = number("LIST_TIME_BUDGET_SECONDS", 30);
+
+    // ListHandler describes every listed Application and returns the same models as ReadHandler
+    static final boolean LIST_ENRICHED = flag("LIST_ENRICHED");
+
+    // Seconds a DescribeApplication response is reused from the container's cache; 0 turns the cache off
+    static final int DESCRIBE_CACHE_TTL_SECONDS = number("DESCRIBE_CACHE_TTL_SECONDS", 0);
+
+    // Most Applications the describe cache holds at once
+    static final int DESCRIBE_CACHE_MAX_ENTRIES = number("DESCRIBE_CACHE_MAX_ENTRIES", 1000);
+
+    // Identical concurrent DescribeApplication and ListApplications calls in the container share one call
+    static final boolean COALESCE_READS = flag("COALESCE_READS");
+
+    // Each Fleet Hub operation fails fast while its recent calls mostly failed with outage errors
+    static final boolean CIRCUIT_BREAKER = flag("CIRCUIT_BREAKER");
+
+    // Percentage of outage errors among an operation's recent calls that opens its circuit
+    static final int CIRCUIT_BREAKER_ERROR_PERCENT = number("CIRCUIT_BREAKER_ERROR_PERCENT", 50);
+
+    // Seconds an open circuit refuses calls before letting a probe through
+    static final int CIRCUIT_BREAKER_OPEN_SECONDS = number("CIRCUIT_BREAKER_OPEN_SECONDS", 30);
+
+    // Most times a throttled Create, Update or Delete is called back before it fails with Throttling
+    static final int THROTTLING_MAX_ATTEMPTS = number("THROTTLING_MAX_ATTEMPTS", 10);
+
+    // Cap in seconds on a single attempt of a Fleet Hub call; 0 leaves each attempt the invocation's remaining time
+    static final int API_CALL_ATTEMPT_TIMEOUT_SECONDS = number("API_CALL_ATTEMPT_TIMEOUT_SECONDS", 0);
+
+    // A DescribeApplication still unanswered after a percentile of recent describe latencies is sent again
+    static final boolean HEDGE_READS = flag("HEDGE_READS");
+
+    // Percentile of recent describe latencies after which a describe is hedged
+    static final int HEDGE_PERCENTILE = number("HEDGE_PERCENTILE", 95);
+
+    // Most hedges sent, as a percentage of the describes made
+    static final int HEDGE_BUDGET_PERCENT = number("HEDGE_BUDGET_PERCENT", 10);
+
+    private Settings() {
+    }
+
+    static boolean flag(String name) {
+        return Boolean.parseBoolean(System.getenv(name));
+    }
+
+    static int number(String name, int defaultValue) {
+        String value = System.getenv(name);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+}
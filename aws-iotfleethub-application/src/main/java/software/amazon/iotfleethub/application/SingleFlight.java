@@ -0,0 +1,213 @@
+package software.amazon.iotfleethub.application;
+
+import software.amazon.awssdk.awscore.AwsRequest;
+import software.amazon.awssdk.awscore.AwsResponse;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.core.exception.ApiCallAttemptTimeoutException;
+import software.amazon.awssdk.core.exception.ApiCallTimeoutException;
+import software.amazon.awssdk.services.iotfleethub.IoTFleetHubClient;
+import software.amazon.awssdk.services.iotfleethub.model.CreateApplicationRequest;
+import software.amazon.awssdk.services.iotfleethub.model.DeleteApplicationRequest;
+import software.amazon.awssdk.services.iotfleethub.model.DescribeApplicationRequest;
+import software.amazon.awssdk.services.iotfleethub.model.ListApplicationsRequest;
+import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.ProxyClient;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Container-wide coalescing of identical blocking reads: a DescribeApplication of the same Application, or a
+ * ListApplications with the same nextToken, made while another is in flight for the same account waits for that
+ * call and shares its response or exception instead of making its own.
+ *
+ * Reads are scoped to the account only, since the handlers cannot see the credentials the proxy injects: a follower
+ * shares a response made with the leader's credentials, so coalescing is meant for callers whose roles in an account
+ * may all read its Applications. Failures that belong to the leader's invocation rather than to the read, such as
+ * running out of time or being denied access, are not shared; the follower makes its own call instead. A follower
+ * waits on the leader no longer than its own Deadline allows, and then fails with ApiCallTimeoutException.
+ *
+ * A write drops the in-flight reads it affects as it starts and again as it completes, so a read made after a write
+ * never joins a call that started before the write finished.
+ */
+final class SingleFlight {
+
+    private static final class Shared {
+        private static final SingleFlight INSTANCE = new SingleFlight(Settings.COALESCE_READS);
+    }
+
+    private final boolean enabled;
+    private final ConcurrentMap<String, CompletableFuture<AwsResponse>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    SingleFlight(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    static SingleFlight shared() {
+        return Shared.INSTANCE;
+    }
+
+    long getCoalesced() {
+        return coalesced.get();
+    }
+
+    int inFlight() {
+        return inFlight.size();
+    }
+
+    /**
+     * Wraps a ProxyClient so its blocking reads are coalesced with identical reads in flight for the account, waiting
+     * on them no longer than the deadline allows. Returns the ProxyClient itself when coalescing is off, or there is
+     * no account to scope the reads to.
+     */
+    ProxyClient<IoTFleetHubClient> wrap(final ProxyClient<IoTFleetHubClient> proxyClient, final String awsAccountId,
+                                        final Deadline deadline, final String action, final Logger logger) {
+        if (!enabled || awsAccountId == null) {
+            return proxyClient;
+        }
+
+        return new ProxyClient<IoTFleetHubClient>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <RequestT extends AwsRequest, ResponseT extends AwsResponse> ResponseT injectCredentialsAndInvokeV2(
+                    RequestT request, Function<RequestT, ResponseT> requestFunction) {
+
+                String key = key(awsAccountId, request);
+                if (key == null) {
+                    if (!DescribeCache.isWrite(request)) {
+                        return proxyClient.injectCredentialsAndInvokeV2(request, requestFunction);
+                    }
+                    forget(awsAccountId, request, null);
+                    ResponseT response = null;
+                    try {
+                        response = proxyClient.injectCredentialsAndInvokeV2(request, requestFunction);
+                        return response;
+                    } finally {
+                        forget(awsAccountId, request, response);
+                    }
+                }
+
+                CompletableFuture<AwsResponse> call = new CompletableFuture<>();
+                CompletableFuture<AwsResponse> leader = inFlight.putIfAbsent(key, call);
+                if (leader != null) {
+                    coalesced.incrementAndGet();
+                    record(action, RateLimiter.operationName(request), logger);
+                    AwsResponse shared = join(leader, deadline);
+                    if (shared != null) {
+                        return (ResponseT) shared;
+                    }
+                    logger.log(String.format("The %s joined failed for its own invocation, making it anew",
+                            RateLimiter.operationName(request)));
+                    return proxyClient.injectCredentialsAndInvokeV2(request, requestFunction);
+                }
+
+                try {
+                    ResponseT response = proxyClient.injectCredentialsAndInvokeV2(request, requestFunction);
+                    call.complete(response);
+                    return response;
+                } catch (RuntimeException | Error e) {
+                    call.completeExceptionally(e);
+                    throw e;
+                } finally {
+                    inFlight.remove(key, call);
+                }
+            }
+
+            @Override
+            public <RequestT extends AwsRequest, ResponseT extends AwsResponse> CompletableFuture<ResponseT> injectCredentialsAndInvokeV2Async(
+                    RequestT request, Function<RequestT, CompletableFuture<ResponseT>> requestFunction) {
+
+                if (!DescribeCache.isWrite(request)) {
+                    return proxyClient.injectCredentialsAndInvokeV2Async(request, requestFunction);
+                }
+                forget(awsAccountId, request, null);
+                return proxyClient.injectCredentialsAndInvokeV2Async(request, requestFunction)
+                        .whenComplete((response, e) -> forget(awsAccountId, request, response));
+            }
+
+            @Override
+            public IoTFleetHubClient client() {
+                return proxyClient.client();
+            }
+        };
+    }
+
+    // Key shared by identical reads in the account, or null for calls that are not coalesced
+    static String key(String awsAccountId, AwsRequest request) {
+        if (request instanceof DescribeApplicationRequest) {
+            return awsAccountId + "/DescribeApplication/" + ((DescribeApplicationRequest) request).applicationId();
+        }
+        if (request instanceof ListApplicationsRequest) {
+            return awsAccountId + "/ListApplications/" + ((ListApplicationsRequest) request).nextToken();
+        }
+        return null;
+    }
+
+    /**
+     * Drops the in-flight describe of the Application a write changes, and for Create and Delete the in-flight list
+     * pages of the account, so later reads start their own call.
+     */
+    private void forget(String awsAccountId, AwsRequest request, AwsResponse response) {
+        String applicationId = DescribeCache.applicationId(request, response);
+        if (applicationId != null) {
+            inFlight.remove(awsAccountId + "/DescribeApplication/" + applicationId);
+        }
+        if (request instanceof CreateApplicationRequest || request instanceof DeleteApplicationRequest) {
+            String listPrefix = awsAccountId + "/ListApplications/";
+            inFlight.keySet().removeIf(key -> key.startsWith(listPrefix));
+        }
+    }
+
+    // Response or exception the leader shares, or null when it failed for reasons of its own invocation
+    private static AwsResponse join(CompletableFuture<AwsResponse> leader, Deadline deadline) {
+        Duration remaining = deadline.remaining();
+        try {
+            return leader.get(remaining.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw ApiCallTimeoutException.create(remaining.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = AsyncCall.unwrap(e);
+            if (isInvocationSpecific(cause)) {
+                return null;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new CompletionException(cause);
+        }
+    }
+
+    // Failures that come from the leader's invocation, its time left or its credentials, rather than from the read
+    static boolean isInvocationSpecific(Throwable e) {
+        if (e instanceof AwsServiceException) {
+            int statusCode = ((AwsServiceException) e).statusCode();
+            return statusCode == 401 || statusCode == 403;
+        }
+        return e instanceof DeadlineExceededException
+                || e instanceof ApiCallTimeoutException
+                || e instanceof ApiCallAttemptTimeoutException;
+    }
+
+    private static void record(String action, String operation, Logger logger) {
+        new MetricEvent()
+                .dimension("Action", action)
+                .dimension("Operation", operation)
+                .metric("Coalesced", 1, MetricEvent.COUNT)
+                .emit(logger);
+    }
+}
@@ -0,0 +1,188 @@
+package software.amazon.iotfleethub.application;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Canonical, immutable form of an Application's tags: keys in sorted order, with their values in a parallel array.
+ *
+ * Create, Update and Read all go through this class to merge model tags with stack-level resource tags, to diff
+ * current against desired tags and to convert to and from the service's tag map. Both sides of a diff or equality
+ * check are sorted, so they are walked once, side by side, without intermediate collections.
+ */
+final class TagSet {
+
+    // Schema maxItems for Tags, which is also the per-resource limit of TagResource
+    static final int MAX_TAGS = 50;
+
+    static final TagSet EMPTY = new TagSet(new String[0], new String[0]);
+
+    private final String[] keys;
+    private final String[] values;
+
+    private TagSet(String[] keys, String[] values) {
+        this.keys = keys;
+        this.values = values;
+    }
+
+    /**
+     * Merges model tags with resource tags. Resource tags win when both set the same key.
+     */
+    static TagSet of(Set<Tag> modelTags, Map<String, String> resourceTags) {
+        int capacity = (modelTags == null ? 0 : modelTags.size()) + (resourceTags == null ? 0 : resourceTags.size());
+        if (capacity == 0) {
+            return EMPTY;
+        }
+
+        String[] keys = new String[capacity];
+        String[] values = new String[capacity];
+        int size = 0;
+        if (modelTags != null) {
+            for (Tag t : modelTags) {
+                size = put(keys, values, size, t.getKey(), t.getValue());
+            }
+        }
+        if (resourceTags != null) {
+            for (Map.Entry<String, String> tagEntry : resourceTags.entrySet()) {
+                size = put(keys, values, size, tagEntry.getKey(), tagEntry.getValue());
+            }
+        }
+        return size == capacity
+                ? new TagSet(keys, values)
+                : new TagSet(Arrays.copyOf(keys, size), Arrays.copyOf(values, size));
+    }
+
+    static TagSet of(Map<String, String> tags) {
+        return of(null, tags);
+    }
+
+    // Insertion into the sorted prefix of length size; tag sets are small enough that shifting beats a tree
+    private static int put(String[] keys, String[] values, int size, String key, String value) {
+        int index = Arrays.binarySearch(keys, 0, size, key);
+        if (index >= 0) {
+            values[index] = value;
+            return size;
+        }
+        int insertAt = -index - 1;
+        System.arraycopy(keys, insertAt, keys, insertAt + 1, size - insertAt);
+        System.arraycopy(values, insertAt, values, insertAt + 1, size - insertAt);
+        keys[insertAt] = key;
+        values[insertAt] = value;
+        return size + 1;
+    }
+
+    int size() {
+        return keys.length;
+    }
+
+    boolean isEmpty() {
+        return keys.length == 0;
+    }
+
+    boolean exceedsLimit() {
+        return keys.length > MAX_TAGS;
+    }
+
+    /**
+     * Minimal TagResource/UntagResource changes to turn this set into the desired one.
+     */
+    Diff diff(TagSet desired) {
+        Map<String, String> tagsToAdd = null;
+        Set<String> tagKeysToRemove = null;
+        int newKeys = 0;
+
+        int i = 0;
+        int j = 0;
+        while (i < keys.length || j < desired.keys.length) {
+            int order = i == keys.length ? 1
+                    : j == desired.keys.length ? -1
+                    : keys[i].compareTo(desired.keys[j]);
+            if (order < 0) {
+                if (tagKeysToRemove == null) {
+                    tagKeysToRemove = new HashSet<>();
+                }
+                tagKeysToRemove.add(keys[i++]);
+            } else if (order > 0) {
+                if (tagsToAdd == null) {
+                    tagsToAdd = new HashMap<>();
+                }
+                tagsToAdd.put(desired.keys[j], desired.values[j++]);
+                newKeys++;
+            } else {
+                if (!Objects.equals(values[i], desired.values[j])) {
+                    if (tagsToAdd == null) {
+                        tagsToAdd = new HashMap<>();
+                    }
+                    tagsToAdd.put(desired.keys[j], desired.values[j]);
+                }
+                i++;
+                j++;
+            }
+        }
+
+        return new Diff(
+                tagsToAdd == null ? Collections.emptyMap() : tagsToAdd,
+                tagKeysToRemove == null ? Collections.emptySet() : tagKeysToRemove,
+                // Tagging first would briefly put more than MAX_TAGS tags on the Application
+                keys.length + newKeys > MAX_TAGS);
+    }
+
+    Map<String, String> toMap() {
+        Map<String, String> tags = new HashMap<>(keys.length * 4 / 3 + 1);
+        for (int i = 0; i < keys.length; i++) {
+            tags.put(keys[i], values[i]);
+        }
+        return tags;
+    }
+
+    Set<Tag> toModelTags() {
+        Set<Tag> tags = new HashSet<>(keys.length * 4 / 3 + 1);
+        for (int i = 0; i < keys.length; i++) {
+            tags.add(Tag.builder()
+                    .key(keys[i])
+                    .value(values[i])
+                    .build());
+        }
+        return tags;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TagSet)) {
+            return false;
+        }
+        TagSet other = (TagSet) o;
+        return Arrays.equals(keys, other.keys) && Arrays.equals(values, other.values);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(keys) + Arrays.hashCode(values);
+    }
+
+    @Override
+    public String toString() {
+        return "TagSet(keys=" + Arrays.toString(keys) + ")";
+    }
+
+    @lombok.Getter
+    @lombok.ToString
+    @lombok.AllArgsConstructor
+    static final class Diff {
+        private final Map<String, String> tagsToAdd;
+        private final Set<String> tagKeysToRemove;
+        private final boolean untagFirst;
+
+        boolean isEmpty() {
+            return tagsToAdd.isEmpty() && tagKeysToRemove.isEmpty();
+        }
+    }
+}
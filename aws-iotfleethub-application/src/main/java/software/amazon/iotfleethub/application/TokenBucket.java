@@ -0,0 +1,128 @@
+package software.amazon.iotfleethub.application;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Adaptive token bucket guarding calls to a single Fleet Hub operation.
+ *
+ * The refill rate is halved whenever the operation is throttled and grows back by a fixed step after each
+ * successful call, so callers sharing a container back off together and recover gradually. Permits are reserved
+ * ahead of time: a caller that finds the bucket empty takes a token on credit and sleeps until it is paid off.
+ */
+public class TokenBucket {
+
+    static final double DEFAULT_MAX_RATE = 10.0;
+    static final double DEFAULT_MIN_RATE = 0.5;
+    static final double DECREASE_FACTOR = 0.5;
+    static final double INCREASE_STEP = 0.5;
+
+    interface Sleeper {
+        void sleep(long nanos) throws InterruptedException;
+    }
+
+    private final String operation;
+    private final double minRate;
+    private final double maxRate;
+    private final LongSupplier nanoClock;
+    private final Sleeper sleeper;
+
+    private double rate;
+    private double tokens;
+    private long lastRefillNanos;
+
+    private long acquisitions;
+    private long totalWaitNanos;
+    private long lastWaitNanos;
+
+    TokenBucket(String operation) {
+        this(operation, DEFAULT_MIN_RATE, DEFAULT_MAX_RATE, System::nanoTime, TimeUnit.NANOSECONDS::sleep);
+    }
+
+    TokenBucket(String operation, double minRate, double maxRate, LongSupplier nanoClock, Sleeper sleeper) {
+        this.operation = operation;
+        this.minRate = minRate;
+        this.maxRate = maxRate;
+        this.nanoClock = nanoClock;
+        this.sleeper = sleeper;
+        this.rate = maxRate;
+        this.tokens = maxRate;
+        this.lastRefillNanos = nanoClock.getAsLong();
+    }
+
+    /**
+     * Takes one permit, sleeping if the bucket is in debt, and returns how long the caller was queued.
+     */
+    Duration acquire() {
+        return tryAcquire(Duration.ofNanos(Long.MAX_VALUE)).get();
+    }
+
+    /**
+     * Takes one permit unless the caller would be queued for longer than maxWait, sleeping if the bucket is in debt,
+     * and returns how long the caller was queued. Returns empty, without taking a permit, when the wait is too long.
+     */
+    Optional<Duration> tryAcquire(Duration maxWait) {
+        long waitNanos;
+        synchronized (this) {
+            refill();
+            waitNanos = tokens >= 1 ? 0 : (long) ((1 - tokens) / rate * TimeUnit.SECONDS.toNanos(1));
+            if (waitNanos > maxWait.toNanos()) {
+                return Optional.empty();
+            }
+            tokens -= 1;
+            acquisitions++;
+            totalWaitNanos += waitNanos;
+            lastWaitNanos = waitNanos;
+        }
+
+        if (waitNanos > 0) {
+            try {
+                sleeper.sleep(waitNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return Optional.of(Duration.ofNanos(waitNanos));
+    }
+
+    synchronized void onSuccess() {
+        // Tokens earned so far accrue at the old rate before it is raised
+        refill();
+        rate = Math.min(maxRate, rate + INCREASE_STEP);
+    }
+
+    synchronized void onThrottle() {
+        refill();
+        rate = Math.max(minRate, rate * DECREASE_FACTOR);
+        // Drop the burst allowance so the lower rate takes effect immediately
+        tokens = Math.min(tokens, 0);
+    }
+
+    private void refill() {
+        long now = nanoClock.getAsLong();
+        double elapsedSeconds = (now - lastRefillNanos) / (double) TimeUnit.SECONDS.toNanos(1);
+        tokens = Math.min(maxRate, tokens + elapsedSeconds * rate);
+        lastRefillNanos = now;
+    }
+
+    String getOperation() {
+        return operation;
+    }
+
+    /**
+     * Current refill rate in permits per second.
+     */
+    synchronized double getRate() {
+        return rate;
+    }
+
+    synchronized Duration getLastQueueWait() {
+        return Duration.ofNanos(lastWaitNanos);
+    }
+
+    synchronized Duration getAverageQueueWait() {
+        return acquisitions == 0 ? Duration.ZERO : Duration.ofNanos(totalWaitNanos / acquisitions);
+    }
+}
@@ -1,15 +1,18 @@
 package software.amazon.iotfleethub.application;
 
-import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.apache.commons.lang3.StringUtils;
+import software.amazon.awssdk.core.exception.ApiCallAttemptTimeoutException;
+import software.amazon.awssdk.core.exception.ApiCallTimeoutException;
 import software.amazon.awssdk.services.iotfleethub.model.ConflictException;
 import software.amazon.awssdk.services.iotfleethub.model.CreateApplicationRequest;
 import software.amazon.awssdk.services.iotfleethub.model.DeleteApplicationRequest;
 import software.amazon.awssdk.services.iotfleethub.model.DescribeApplicationRequest;
+import software.amazon.awssdk.services.iotfleethub.model.DescribeApplicationResponse;
 import software.amazon.awssdk.services.iotfleethub.model.InternalFailureException;
 import software.amazon.awssdk.services.iotfleethub.model.InvalidRequestException;
 import software.amazon.awssdk.services.iotfleethub.model.LimitExceededException;
 import software.amazon.awssdk.services.iotfleethub.model.ListApplicationsRequest;
+import software.amazon.awssdk.services.iotfleethub.model.ListApplicationsResponse;
 import software.amazon.awssdk.services.iotfleethub.model.ResourceNotFoundException;
 import software.amazon.awssdk.services.iotfleethub.model.ThrottlingException;
 import software.amazon.awssdk.services.iotfleethub.model.UpdateApplicationRequest;
@@ -17,15 +20,17 @@ import software.amazon.cloudformation.proxy.HandlerErrorCode;
 import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import software.amazon.awssdk.awscore.AwsRequest;
 import software.amazon.awssdk.awscore.AwsResponse;
 
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -38,29 +43,41 @@ import java.util.stream.Stream;
 
 public class Translator {
 
+  // https://docs.aws.amazon.com/iot/latest/apireference/API_Operations_AWS_IoT_Fleet_Hub.html
+  private static final Map<Class<? extends Exception>, HandlerErrorCode> ERROR_CODES =
+          ImmutableMap.<Class<? extends Exception>, HandlerErrorCode>builder()
+                  .put(ConflictException.class, HandlerErrorCode.ResourceConflict)
+                  .put(InternalFailureException.class, HandlerErrorCode.InternalFailure)
+                  .put(InvalidRequestException.class, HandlerErrorCode.InvalidRequest)
+                  .put(LimitExceededException.class, HandlerErrorCode.ServiceLimitExceeded)
+                  .put(ResourceNotFoundException.class, HandlerErrorCode.NotFound)
+                  .put(ThrottlingException.class, HandlerErrorCode.Throttling)
+                  .put(CircuitOpenException.class, HandlerErrorCode.ServiceInternalError)
+                  .put(DeadlineExceededException.class, HandlerErrorCode.ServiceInternalError)
+                  .put(ApiCallTimeoutException.class, HandlerErrorCode.NetworkFailure)
+                  .put(ApiCallAttemptTimeoutException.class, HandlerErrorCode.NetworkFailure)
+                  .build();
+
+  // Classification by exception class, filled on first sight of each class. Empty for unexpected exceptions.
+  private static final ConcurrentMap<Class<?>, Optional<HandlerErrorCode>> CLASSIFIED = new ConcurrentHashMap<>();
+
   static HandlerErrorCode translateExceptionToErrorCode(Exception e, Logger logger) {
-    logger.log(String.format("Translating exception \"%s\", stack trace: %s",
-            e.getMessage(), ExceptionUtils.getStackTrace(e)));
-
-    // https://docs.aws.amazon.com/iot/latest/apireference/API_Operations_AWS_IoT_Fleet_Hub.html
-    if (e instanceof ConflictException) {
-      return HandlerErrorCode.ResourceConflict;
-    } else if (e instanceof InternalFailureException) {
-      return HandlerErrorCode.InternalFailure;
-    } else if (e instanceof InvalidRequestException) {
-      return HandlerErrorCode.InvalidRequest;
-    } else if (e instanceof LimitExceededException) {
-      return HandlerErrorCode.ServiceLimitExceeded;
-    } else if (e instanceof ResourceNotFoundException) {
-      return HandlerErrorCode.NotFound;
-    } else if (e instanceof ThrottlingException) {
-      return HandlerErrorCode.Throttling;
-    } else {
-      logger.log(String.format("Unexpected exception \"%s\", stack trace: %s",
-              e.getMessage(), ExceptionUtils.getStackTrace(e)));
-      // Any other exception at this point is unexpected.
-      return HandlerErrorCode.InternalFailure;
-    }
+    Optional<HandlerErrorCode> classified = classify(e);
+    // Any other exception at this point is unexpected.
+    HandlerErrorCode errorCode = classified.orElse(HandlerErrorCode.InternalFailure);
+    ErrorLogger.of(logger).logException(e, errorCode, !classified.isPresent());
+    return errorCode;
+  }
+
+  static HandlerErrorCode classifyException(Exception e) {
+    return classify(e).orElse(HandlerErrorCode.InternalFailure);
+  }
+
+  private static Optional<HandlerErrorCode> classify(Exception e) {
+    return CLASSIFIED.computeIfAbsent(e.getClass(), type -> ERROR_CODES.entrySet().stream()
+            .filter(entry -> entry.getKey().isAssignableFrom(type))
+            .map(Map.Entry::getValue)
+            .findFirst());
   }
 
   static CreateApplicationRequest translateToCreateRequest(
@@ -68,22 +85,12 @@ public class Translator {
           ResourceModel model,
           Logger logger) {
 
-    Map<String, String> tags = new HashMap<>();
-    if (model.getTags() != null) {
-      for (Tag t : model.getTags()) {
-        tags.put(t.getKey(), t.getValue());
-      }
-    }
-    if (request.getDesiredResourceTags() != null) {
-      tags.putAll(request.getDesiredResourceTags());
-    }
-
     return CreateApplicationRequest.builder()
             .applicationName(model.getApplicationName())
             .applicationDescription(model.getApplicationDescription())
             .clientToken(request.getClientRequestToken())
             .roleArn(model.getRoleArn())
-            .tags(tags)
+            .tags(TagSet.of(model.getTags(), request.getDesiredResourceTags()).toMap())
             .build();
   }
 
@@ -109,6 +116,70 @@ public class Translator {
             .build();
   }
 
+  static ResourceModel translateFromReadResponse(DescribeApplicationResponse describeResponse) {
+    return ResourceModel.builder()
+            .applicationId(describeResponse.applicationId())
+            .applicationArn(describeResponse.applicationArn())
+            .applicationName(describeResponse.applicationName())
+            .applicationDescription(describeResponse.applicationDescription())
+            .applicationUrl(describeResponse.applicationUrl())
+            .applicationState(describeResponse.applicationStateAsString())
+            .applicationCreationDate(toModelDate(describeResponse.applicationCreationDate()))
+            .applicationLastUpdateDate(toModelDate(describeResponse.applicationLastUpdateDate()))
+            .roleArn(describeResponse.roleArn())
+            .ssoClientId(describeResponse.ssoClientId())
+            .errorMessage(describeResponse.errorMessage())
+            .tags(TagSet.of(describeResponse.tags()).toModelTags())
+            .build();
+  }
+
+  // Date attributes need to be converted to int for CFN Model. Dates are in epoch seconds and within int range.
+  private static Integer toModelDate(Long epochSeconds) {
+    return epochSeconds == null ? null : epochSeconds.intValue();
+  }
+
+  /**
+   * Model an update ends with: the writable attributes and tags of the desired state, and the read-only
+   * attributes of the current model. ApplicationState, ApplicationLastUpdateDate and ErrorMessage change with the
+   * update, so they are taken from the current model only when it was described after UpdateApplication succeeded,
+   * and left unset otherwise.
+   */
+  static ResourceModel translateFromUpdate(ResourceModel current, boolean describedAfterUpdate,
+                                           ResourceHandlerRequest<ResourceModel> request) {
+    ResourceModel desired = request.getDesiredResourceState();
+    if (current == null) {
+      return desired;
+    }
+    return ResourceModel.builder()
+            .applicationId(current.getApplicationId() != null ? current.getApplicationId() : desired.getApplicationId())
+            .applicationArn(current.getApplicationArn() != null ? current.getApplicationArn() : desired.getApplicationArn())
+            .applicationName(desired.getApplicationName())
+            .applicationDescription(desired.getApplicationDescription())
+            .applicationUrl(current.getApplicationUrl())
+            .applicationState(describedAfterUpdate ? current.getApplicationState() : null)
+            .applicationCreationDate(current.getApplicationCreationDate())
+            .applicationLastUpdateDate(describedAfterUpdate ? current.getApplicationLastUpdateDate() : null)
+            .roleArn(desired.getRoleArn() != null ? desired.getRoleArn() : current.getRoleArn())
+            .ssoClientId(current.getSsoClientId())
+            .errorMessage(describedAfterUpdate ? current.getErrorMessage() : null)
+            .tags(desired.getTags())
+            .build();
+  }
+
+  static List<ResourceModel> translateFromListResponse(ListApplicationsResponse listResponse) {
+    return listResponse.applicationSummaries().stream()
+            .map(applicationSummary -> ResourceModel.builder()
+                    .applicationId(applicationSummary.applicationId())
+                    .applicationName(applicationSummary.applicationName())
+                    .applicationDescription(applicationSummary.applicationDescription())
+                    .applicationUrl(applicationSummary.applicationUrl())
+                    .applicationCreationDate(toModelDate(applicationSummary.applicationCreationDate()))
+                    .applicationLastUpdateDate(toModelDate(applicationSummary.applicationLastUpdateDate()))
+                    .applicationState(applicationSummary.applicationStateAsString())
+                    .build())
+            .collect(Collectors.toList());
+  }
+
   static UpdateApplicationRequest translateToUpdateRequest(
           ResourceHandlerRequest<ResourceModel> request,
           ResourceModel model) {
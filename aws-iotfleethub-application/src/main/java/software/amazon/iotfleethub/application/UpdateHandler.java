@@ -1,16 +1,14 @@
 package software.amazon.iotfleethub.application;
 
-import com.google.common.annotations.VisibleForTesting;
 import org.apache.commons.lang3.StringUtils;
+import software.amazon.awssdk.services.iotfleethub.IoTFleetHubAsyncClient;
 import software.amazon.awssdk.services.iotfleethub.IoTFleetHubClient;
-import software.amazon.awssdk.services.iotfleethub.model.DescribeApplicationRequest;
 import software.amazon.awssdk.services.iotfleethub.model.DescribeApplicationResponse;
 import software.amazon.awssdk.services.iotfleethub.model.ResourceNotFoundException;
 import software.amazon.awssdk.services.iotfleethub.model.TagResourceRequest;
+import software.amazon.awssdk.services.iotfleethub.model.TagResourceResponse;
 import software.amazon.awssdk.services.iotfleethub.model.UntagResourceRequest;
-import software.amazon.awssdk.services.iotfleethub.model.UpdateApplicationRequest;
-import software.amazon.awssdk.services.iotfleethub.model.UpdateApplicationResponse;
-import software.amazon.cloudformation.exceptions.CfnGeneralServiceException;
+import software.amazon.awssdk.services.iotfleethub.model.UntagResourceResponse;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.HandlerErrorCode;
 import software.amazon.cloudformation.proxy.Logger;
@@ -18,25 +16,20 @@ import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ProxyClient;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 
-public class UpdateHandler extends BaseHandler<CallbackContext> {
-
-    private final IoTFleetHubClient iotFleetHubClient;
-
-    public UpdateHandler() {
-        iotFleetHubClient = IoTFleetHubClient.builder().build();
-    }
+public class UpdateHandler extends BaseHandlerStd {
 
     @Override
-    public ProgressEvent<ResourceModel, CallbackContext> handleRequest(
+    protected ProgressEvent<ResourceModel, CallbackContext> handleRequest(
             final AmazonWebServicesClientProxy proxy,
             final ResourceHandlerRequest<ResourceModel> request,
             final CallbackContext callbackContext,
+            final ProxyClient<IoTFleetHubClient> proxyClient,
             final Logger logger) {
 
         ResourceModel prevModel = request.getPreviousResourceState();
@@ -64,98 +57,179 @@ public class UpdateHandler extends BaseHandler<CallbackContext> {
                     "Can only update ApplicationName, ApplicationDescription, or Tags.");
         }
 
-        UpdateApplicationRequest updateRequest = Translator.translateToUpdateRequest(request, model);
-
-        try {
-            proxy.injectCredentialsAndInvokeV2(updateRequest, iotFleetHubClient::updateApplication);
-        } catch (ResourceNotFoundException e) {
-            logger.log(String.format("Application with Id %s was not found", model.getApplicationId()));
-        } catch (RuntimeException e) {
-            HandlerErrorCode err = Translator.translateExceptionToErrorCode(e, logger);
-            return ProgressEvent.failed(model, callbackContext, err, e.getMessage());
+        if (TagSet.of(model.getTags(), request.getDesiredResourceTags()).exceedsLimit()) {
+            logger.log(String.format("Tags exceed the limit of %d tags per Application.", TagSet.MAX_TAGS));
+            return ProgressEvent.failed(model, callbackContext, HandlerErrorCode.InvalidRequest,
+                    String.format("An Application can have at most %d tags.", TagSet.MAX_TAGS));
         }
 
-        // Retrieving applicationArn to update tags
-        DescribeApplicationRequest describeRequest = DescribeApplicationRequest.builder()
-                .applicationId(model.getApplicationId())
-                .build();
-
-        DescribeApplicationResponse describeResponse;
-        try {
-            describeResponse = proxy.injectCredentialsAndInvokeV2(describeRequest, iotFleetHubClient::describeApplication);
-        } catch (ResourceNotFoundException e) {
-            logger.log(String.format("Application with Id %s was not found", model.getApplicationId()));
-            return ProgressEvent.failed(model, callbackContext, HandlerErrorCode.NotFound, e.getMessage());
-        } catch (RuntimeException e) {
-            HandlerErrorCode err = Translator.translateExceptionToErrorCode(e, logger);
-            return ProgressEvent.failed(model, callbackContext, err, e.getMessage());
+        if (!callbackContext.isUpdatePlanned()) {
+            UpdatePlan plan = UpdatePlan.of(request);
+            plan.applyTo(callbackContext);
+            logger.log(String.format("Update plan for Application with Id %s avoids %d of %d API calls: %s",
+                    model.getApplicationId(), plan.getAvoidedCalls(), UpdatePlan.MAX_CALLS, plan));
+            new MetricEvent()
+                    .dimension("Action", action())
+                    .metric("PlannedCalls", plan.getPlannedCalls(), MetricEvent.COUNT)
+                    .metric("AvoidedCalls", plan.getAvoidedCalls(), MetricEvent.COUNT)
+                    .emit(logger);
         }
 
-        String applicationArn = describeResponse.applicationArn();
-        Map<String, String> currentTags = describeResponse.tags();
-
-        try {
-            updateTags(proxy, request, applicationArn, currentTags, logger);
-        } catch (RuntimeException e) {
-            HandlerErrorCode err = Translator.translateExceptionToErrorCode(e, logger);
-            return ProgressEvent.failed(model, callbackContext, err, e.getMessage());
+        // The describe does not depend on the update, so in async mode it is in flight while the update runs. It is
+        // started only once UpdateApplication is sent, and given up on if the update stage does not succeed.
+        Optional<IoTFleetHubAsyncClient> asyncClient = asyncClient(logger);
+        boolean describeOverlapsUpdate =
+                asyncClient.isPresent() && !callbackContext.isApplicationUpdated() && callbackContext.getTagsToAdd() == null;
+        AsyncCall<DescribeApplicationResponse> describeCall = describeOverlapsUpdate
+                ? AsyncCall.deferred(proxyClient, Translator.translateToDescribeRequest(model), asyncClient.get()::describeApplication)
+                : AsyncCall.none();
+
+        // Each stage records a checkpoint in the CallbackContext, so a re-invocation skips the stages already done
+        ProgressEvent<ResourceModel, CallbackContext> updated = ProgressEvent.progress(model, callbackContext)
+                .then(progress -> callbackContext.isApplicationUpdated() ? progress
+                        : proxy.initiate("AWS-IoTFleetHub-Application::Update", proxyClient, model, callbackContext)
+                        .translateToServiceRequest(m -> Translator.translateToUpdateRequest(request, m))
+                        .backoffDelay(BackoffPolicy.RETRY)
+                        .makeServiceCall((updateRequest, client) ->
+                                client.injectCredentialsAndInvokeV2(updateRequest, r -> {
+                                    describeCall.start();
+                                    return client.client().updateApplication(r);
+                                }))
+                        .handleError((updateRequest, e, client, m, context) -> {
+                            // The plan may skip the describe, so a missing Application has to fail the update here
+                            if (e instanceof ResourceNotFoundException) {
+                                logger.log(String.format("Application with Id %s was not found", m.getApplicationId()));
+                                return ProgressEvent.failed(m, context, HandlerErrorCode.NotFound, e.getMessage());
+                            }
+                            return handleError(updateRequest, e, m, context, logger);
+                        })
+                        .done((updateRequest, updateResponse, client, m, context) -> {
+                            context.setApplicationUpdated(true);
+                            return ProgressEvent.progress(m, context);
+                        }));
+        if (!updated.isInProgress()) {
+            describeCall.cancel();
+            return updated;
         }
 
-        logger.log(String.format("Updated Application with Id %s.", model.getApplicationId()));
-        return ProgressEvent.defaultSuccessHandler(request.getDesiredResourceState());
+        return updated
+                // Retrieving applicationArn and current tags, unless the plan or a previous invocation already has them
+                .then(progress -> callbackContext.getTagsToAdd() != null
+                        ? applyTags(proxy, proxyClient, model, callbackContext, logger)
+                        : proxy.initiate("AWS-IoTFleetHub-Application::DescribeForTags", proxyClient, model, callbackContext)
+                        .translateToServiceRequest(Translator::translateToDescribeRequest)
+                        .backoffDelay(BackoffPolicy.RETRY)
+                        .makeServiceCall((describeRequest, client) -> describeCall.join(() ->
+                                client.injectCredentialsAndInvokeV2(describeRequest, client.client()::describeApplication)))
+                        .handleError((describeRequest, e, client, m, context) -> handleError(describeRequest, e, m, context, logger))
+                        .done(describeResponse -> {
+                            callbackContext.setDescribedModel(Translator.translateFromReadResponse(describeResponse));
+                            callbackContext.setDescribedAfterUpdate(!describeOverlapsUpdate);
+                            return updateTags(proxy, proxyClient, request, describeResponse.applicationArn(),
+                                    describeResponse.tags(), callbackContext, logger);
+                        }))
+                .then(progress -> {
+                    logger.log(String.format("Updated Application with Id %s.", model.getApplicationId()));
+                    // Read-only attributes come from the describe this update made, or the previous state if it
+                    // made none; only a describe issued after UpdateApplication succeeded supplies the ones an
+                    // update changes
+                    ResourceModel current = callbackContext.getDescribedModel() != null
+                            ? callbackContext.getDescribedModel() : request.getPreviousResourceState();
+                    return ProgressEvent.defaultSuccessHandler(
+                            Translator.translateFromUpdate(current, callbackContext.isDescribedAfterUpdate(), request));
+                });
     }
 
-    void updateTags(AmazonWebServicesClientProxy proxy,
-                    ResourceHandlerRequest<ResourceModel> request,
-                    String applicationArn,
-                    Map<String, String> currentTags,
-                    Logger logger) {
-
-        Map<String, String> desiredTags = new HashMap<>();
-        ResourceModel model = request.getDesiredResourceState();
-        if (model.getTags() != null) {
-            for (Tag t : model.getTags()) {
-                desiredTags.put(t.getKey(), t.getValue());
-            }
-        }
-        if (request.getDesiredResourceTags() != null) {
-            desiredTags.putAll(request.getDesiredResourceTags());
-        }
-
-        // Add Tags
-        Map<String, String> tagsToAdd = new HashMap<>();
-        for (Map.Entry<String,String> tagEntry : desiredTags.entrySet()) {
-            String currentTagValue = currentTags.get(tagEntry.getKey());
-            if (currentTagValue == null || !currentTagValue.equals(tagEntry.getValue())) {
-                tagsToAdd.put(tagEntry.getKey(), tagEntry.getValue());
-            }
-        }
-
-        if (!tagsToAdd.isEmpty()) {
-            TagResourceRequest tagRequest = TagResourceRequest.builder()
-                    .resourceArn(applicationArn)
-                    .tags(tagsToAdd)
-                    .build();
-            proxy.injectCredentialsAndInvokeV2(tagRequest, iotFleetHubClient::tagResource);
-            logger.log(String.format("Called TagResource for %s.", applicationArn));
-        }
+    /**
+     * Records the applicationArn and the tag changes needed to go from currentTags to the desired tags, then applies them.
+     */
+    ProgressEvent<ResourceModel, CallbackContext> updateTags(
+            AmazonWebServicesClientProxy proxy,
+            ProxyClient<IoTFleetHubClient> proxyClient,
+            ResourceHandlerRequest<ResourceModel> request,
+            String applicationArn,
+            Map<String, String> currentTags,
+            CallbackContext callbackContext,
+            Logger logger) {
+
+        TagSet.Diff tagDiff = TagSet.of(currentTags)
+                .diff(TagSet.of(request.getDesiredResourceState().getTags(), request.getDesiredResourceTags()));
+
+        callbackContext.setApplicationArn(applicationArn);
+        callbackContext.setTagsToAdd(tagDiff.getTagsToAdd());
+        callbackContext.setTagKeysToRemove(tagDiff.getTagKeysToRemove());
+        callbackContext.setUntagFirst(tagDiff.isUntagFirst());
+        return applyTags(proxy, proxyClient, request.getDesiredResourceState(), callbackContext, logger);
+    }
 
-        // Remove Tags
-        Collection<String> tagKeysToRemove = new HashSet<>();
-        for (Map.Entry<String,String> tagEntry : currentTags.entrySet()) {
-            String currentKey = tagEntry.getKey();
-            if (desiredTags.get(currentKey) == null) {
-                tagKeysToRemove.add(currentKey);
-            }
-        }
+    private ProgressEvent<ResourceModel, CallbackContext> applyTags(
+            AmazonWebServicesClientProxy proxy,
+            ProxyClient<IoTFleetHubClient> proxyClient,
+            ResourceModel model,
+            CallbackContext callbackContext,
+            Logger logger) {
+
+        String applicationArn = callbackContext.getApplicationArn();
+        Map<String, String> tagsToAdd = callbackContext.getTagsToAdd();
+        Set<String> tagKeysToRemove = callbackContext.getTagKeysToRemove();
+        TagResourceRequest tagResourceRequest = TagResourceRequest.builder()
+                .resourceArn(applicationArn)
+                .tags(tagsToAdd)
+                .build();
+        UntagResourceRequest untagResourceRequest = UntagResourceRequest.builder()
+                .resourceArn(applicationArn)
+                .tagKeys(tagKeysToRemove)
+                .build();
 
-        if (!tagKeysToRemove.isEmpty()) {
-            UntagResourceRequest untagRequest = UntagResourceRequest.builder()
-                    .resourceArn(applicationArn)
-                    .tagKeys(tagKeysToRemove)
-                    .build();
-            proxy.injectCredentialsAndInvokeV2(untagRequest, iotFleetHubClient::untagResource);
-            logger.log(String.format("Called UntagResource for %s.", applicationArn));
-        }
+        // Tagging and untagging touch disjoint keys, so in async mode both are in flight together, unless
+        // untagging has to finish first to stay under the tag limit
+        Optional<IoTFleetHubAsyncClient> asyncClient = asyncClient(logger);
+        boolean concurrent = asyncClient.isPresent() && !callbackContext.isUntagFirst()
+                && !callbackContext.isTagsAdded() && !tagsToAdd.isEmpty()
+                && !callbackContext.isTagsRemoved() && !tagKeysToRemove.isEmpty();
+        AsyncCall<TagResourceResponse> tagCall = concurrent
+                ? AsyncCall.start(proxyClient, tagResourceRequest, asyncClient.get()::tagResource)
+                : AsyncCall.none();
+        AsyncCall<UntagResourceResponse> untagCall = concurrent
+                ? AsyncCall.start(proxyClient, untagResourceRequest, asyncClient.get()::untagResource)
+                : AsyncCall.none();
+
+        Function<ProgressEvent<ResourceModel, CallbackContext>, ProgressEvent<ResourceModel, CallbackContext>> tagStage =
+                progress -> callbackContext.isTagsAdded() || tagsToAdd.isEmpty() ? progress
+                        : proxy.initiate("AWS-IoTFleetHub-Application::TagResource", proxyClient, model, callbackContext)
+                        .translateToServiceRequest(m -> tagResourceRequest)
+                        .backoffDelay(BackoffPolicy.RETRY)
+                        .makeServiceCall((tagRequest, client) -> {
+                            TagResourceResponse tagResponse = tagCall.join(() ->
+                                    client.injectCredentialsAndInvokeV2(tagRequest, client.client()::tagResource));
+                            logger.log(String.format("Called TagResource for %s.", applicationArn));
+                            return tagResponse;
+                        })
+                        .handleError((tagRequest, e, client, m, context) -> handleError(tagRequest, e, m, context, logger))
+                        .done((tagRequest, tagResponse, client, m, context) -> {
+                            context.setTagsAdded(true);
+                            return ProgressEvent.progress(m, context);
+                        });
+        Function<ProgressEvent<ResourceModel, CallbackContext>, ProgressEvent<ResourceModel, CallbackContext>> untagStage =
+                progress -> callbackContext.isTagsRemoved() || tagKeysToRemove.isEmpty() ? progress
+                        : proxy.initiate("AWS-IoTFleetHub-Application::UntagResource", proxyClient, model, callbackContext)
+                        .translateToServiceRequest(m -> untagResourceRequest)
+                        .backoffDelay(BackoffPolicy.RETRY)
+                        .makeServiceCall((untagRequest, client) -> {
+                            UntagResourceResponse untagResponse = untagCall.join(() ->
+                                    client.injectCredentialsAndInvokeV2(untagRequest, client.client()::untagResource));
+                            logger.log(String.format("Called UntagResource for %s.", applicationArn));
+                            return untagResponse;
+                        })
+                        .handleError((untagRequest, e, client, m, context) -> handleError(untagRequest, e, m, context, logger))
+                        .done((untagRequest, untagResponse, client, m, context) -> {
+                            context.setTagsRemoved(true);
+                            return ProgressEvent.progress(m, context);
+                        });
+
+        // Untag first when tagging first would take the Application over the tag limit
+        return callbackContext.isUntagFirst()
+                ? ProgressEvent.progress(model, callbackContext).then(untagStage).then(tagStage)
+                : ProgressEvent.progress(model, callbackContext).then(tagStage).then(untagStage);
     }
 }
@@ -0,0 +1,95 @@
+package software.amazon.iotfleethub.application;
+
+import org.apache.commons.lang3.StringUtils;
+import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The minimal set of API calls an update needs, worked out by diffing the previous and desired resource state.
+ *
+ * UpdateApplication is skipped when ApplicationName and ApplicationDescription are unchanged. DescribeApplication is
+ * only needed when the previous state is missing, so the current tags are unknown, or when tags change and the
+ * previous state does not carry the ApplicationArn. When no Describe is planned, the tag changes are diffed from
+ * the previous model tags and previous resource tags.
+ */
+@lombok.Builder
+@lombok.Getter
+@lombok.ToString
+class UpdatePlan {
+
+    // UpdateApplication, DescribeApplication, TagResource and UntagResource
+    static final int MAX_CALLS = 4;
+
+    private final boolean updateApplication;
+    private final boolean describeApplication;
+    private final String applicationArn;
+
+    // Null when the previous tags are unknown and the diff has to be made against DescribeApplication
+    private final Map<String, String> tagsToAdd;
+    private final Set<String> tagKeysToRemove;
+    private final boolean untagFirst;
+
+    static UpdatePlan of(ResourceHandlerRequest<ResourceModel> request) {
+        ResourceModel prevModel = request.getPreviousResourceState();
+        ResourceModel model = request.getDesiredResourceState();
+
+        if (prevModel == null) {
+            return UpdatePlan.builder()
+                    .updateApplication(true)
+                    .describeApplication(true)
+                    .build();
+        }
+
+        TagSet previousTags = TagSet.of(prevModel.getTags(), request.getPreviousResourceTags());
+        TagSet desiredTags = TagSet.of(model.getTags(), request.getDesiredResourceTags());
+        TagSet.Diff tagDiff = previousTags.equals(desiredTags) ? null : previousTags.diff(desiredTags);
+
+        String applicationArn = StringUtils.isEmpty(prevModel.getApplicationArn())
+                ? model.getApplicationArn() : prevModel.getApplicationArn();
+        boolean describeApplication = tagDiff != null && StringUtils.isEmpty(applicationArn);
+
+        return UpdatePlan.builder()
+                .updateApplication(!StringUtils.equals(prevModel.getApplicationName(), model.getApplicationName())
+                        || !StringUtils.equals(prevModel.getApplicationDescription(), model.getApplicationDescription()))
+                .describeApplication(describeApplication)
+                .applicationArn(applicationArn)
+                .tagsToAdd(describeApplication ? null : tagDiff == null ? Collections.emptyMap() : tagDiff.getTagsToAdd())
+                .tagKeysToRemove(describeApplication ? null : tagDiff == null ? Collections.emptySet() : tagDiff.getTagKeysToRemove())
+                .untagFirst(tagDiff != null && tagDiff.isUntagFirst())
+                .build();
+    }
+
+    /**
+     * Upper bound on the calls this plan makes. Tag calls count as planned while the tags still have to be diffed.
+     */
+    int getPlannedCalls() {
+        int calls = (updateApplication ? 1 : 0) + (describeApplication ? 1 : 0);
+        if (tagsToAdd == null) {
+            return calls + 2;
+        }
+        return calls + (tagsToAdd.isEmpty() ? 0 : 1) + (tagKeysToRemove.isEmpty() ? 0 : 1);
+    }
+
+    int getAvoidedCalls() {
+        return MAX_CALLS - getPlannedCalls();
+    }
+
+    /**
+     * Records the plan as checkpoints, so the UpdateHandler stages that are not needed are treated as done.
+     */
+    void applyTo(CallbackContext callbackContext) {
+        callbackContext.setUpdatePlanned(true);
+        if (!updateApplication) {
+            callbackContext.setApplicationUpdated(true);
+        }
+        if (!describeApplication) {
+            callbackContext.setApplicationArn(applicationArn);
+            callbackContext.setTagsToAdd(tagsToAdd);
+            callbackContext.setTagKeysToRemove(tagKeysToRemove);
+            callbackContext.setUntagFirst(untagFirst);
+        }
+    }
+}
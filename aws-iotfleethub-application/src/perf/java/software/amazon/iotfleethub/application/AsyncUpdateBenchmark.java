@@ -0,0 +1,110 @@
+package software.amazon.iotfleethub.application;
+
+import com.google.common.collect.ImmutableMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import software.amazon.awssdk.services.iotfleethub.IoTFleetHubAsyncClient;
+import software.amazon.awssdk.services.iotfleethub.IoTFleetHubClient;
+import software.amazon.awssdk.services.iotfleethub.model.CreateApplicationRequest;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.LoggerProxy;
+import software.amazon.cloudformation.proxy.ProgressEvent;
+import software.amazon.cloudformation.proxy.ProxyClient;
+import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wall-clock time of an UpdateHandler invocation that updates the Application and changes its tags, with blocking
+ * calls and with async calls, against FakeIoTFleetHubClient answering every call after a fixed latency.
+ *
+ * The invocation makes UpdateApplication, DescribeApplication, TagResource and UntagResource. Blocking, they take
+ * four round trips; async, the describe overlaps the update and tagging overlaps untagging, so they take two.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AsyncUpdateBenchmark {
+
+    @Param({"BLOCKING", "ASYNC"})
+    public String mode;
+
+    @Param({"5", "20"})
+    public int latencyMillis;
+
+    private final LoggerProxy logger = new LoggerProxy();
+
+    private ExecutorService executor;
+    private UpdateHandler handler;
+    private AmazonWebServicesClientProxy proxy;
+    private ProxyClient<IoTFleetHubClient> proxyClient;
+    private ResourceHandlerRequest<ResourceModel> request;
+    private ResourceHandlerRequest<ResourceModel> revertRequest;
+    private boolean reverted;
+
+    @Setup
+    public void setup() {
+        Duration latency = Duration.ofMillis(latencyMillis);
+        FakeIoTFleetHubClient client = FakeIoTFleetHubClient.builder()
+                .latency(() -> latency)
+                .build();
+        executor = Executors.newCachedThreadPool();
+        IoTFleetHubAsyncClient asyncClient = client.async(executor);
+        handler = "ASYNC".equals(mode)
+                ? new UpdateHandler() {
+                    @Override
+                    Optional<IoTFleetHubAsyncClient> asyncClient(Logger logger) {
+                        return Optional.of(asyncClient);
+                    }
+                }
+                : new UpdateHandler() {
+                    @Override
+                    Optional<IoTFleetHubAsyncClient> asyncClient(Logger logger) {
+                        return Optional.empty();
+                    }
+                };
+        proxy = AbstractTestBase.newProxy(logger);
+        proxyClient = AbstractTestBase.MOCK_PROXY(proxy, client);
+
+        String applicationId = client.createApplication(CreateApplicationRequest.builder()
+                .applicationName("benchmark")
+                .roleArn("arn:aws:iam::123456789012:role/benchmark")
+                .tags(ImmutableMap.of("stage", "beta", "owner", "fleet"))
+                .build()).applicationId();
+
+        // Alternating between the two requests changes the name and swaps one tag each time
+        request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(ResourceModel.builder().applicationId(applicationId).applicationName("benchmark-2").build())
+                .desiredResourceTags(ImmutableMap.of("stage", "prod", "team", "fleet"))
+                .clientRequestToken("benchmark")
+                .build();
+        revertRequest = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(ResourceModel.builder().applicationId(applicationId).applicationName("benchmark").build())
+                .desiredResourceTags(ImmutableMap.of("stage", "beta", "owner", "fleet"))
+                .clientRequestToken("benchmark")
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public ProgressEvent<ResourceModel, CallbackContext> update() {
+        reverted = !reverted;
+        return handler.handleRequest(proxy, reverted ? revertRequest : request, new CallbackContext(), proxyClient, logger);
+    }
+}
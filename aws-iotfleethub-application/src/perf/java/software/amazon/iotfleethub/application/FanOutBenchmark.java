@@ -0,0 +1,80 @@
+package software.amazon.iotfleethub.application;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import software.amazon.awssdk.services.iotfleethub.model.CreateApplicationRequest;
+import software.amazon.awssdk.services.iotfleethub.model.DescribeApplicationRequest;
+import software.amazon.awssdk.services.iotfleethub.model.DescribeApplicationResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wall-clock time of describing many Applications through FanOut, on virtual threads and on the java8 fallback's
+ * platform thread pool, against FakeIoTFleetHubClient answering every call after a fixed latency.
+ *
+ * The virtual thread executor needs a Java 21 runtime: run with a JDK 21 java on the PATH, or only the PLATFORM
+ * results are produced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class FanOutBenchmark {
+
+    @Param({"PLATFORM", "VIRTUAL"})
+    public String threads;
+
+    @Param({"16", "256"})
+    public int maxConcurrency;
+
+    @Param({"1000"})
+    public int applications;
+
+    private ExecutorService executor;
+    private FanOut fanOut;
+    private FakeIoTFleetHubClient client;
+    private List<String> applicationIds;
+
+    @Setup
+    public void setup() {
+        executor = "VIRTUAL".equals(threads)
+                ? FanOut.newVirtualThreadExecutor().orElseThrow(() -> new IllegalStateException("Virtual threads need Java 21"))
+                : FanOut.newPlatformThreadExecutor();
+        fanOut = new FanOut(executor);
+        Duration latency = Duration.ofMillis(10);
+        client = FakeIoTFleetHubClient.builder()
+                .latency(() -> latency)
+                .build();
+        applicationIds = new ArrayList<>();
+        for (int i = 0; i < applications; i++) {
+            applicationIds.add(client.createApplication(CreateApplicationRequest.builder()
+                    .applicationName("benchmark-" + i)
+                    .roleArn("arn:aws:iam::123456789012:role/benchmark")
+                    .build()).applicationId());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public List<CompletableFuture<DescribeApplicationResponse>> describeAll() {
+        List<CompletableFuture<DescribeApplicationResponse>> results = fanOut.map(applicationIds, maxConcurrency,
+                applicationId -> client.describeApplication(DescribeApplicationRequest.builder().applicationId(applicationId).build()));
+        CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])).join();
+        return results;
+    }
+}
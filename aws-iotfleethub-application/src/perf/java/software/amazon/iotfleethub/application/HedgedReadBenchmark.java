@@ -0,0 +1,85 @@
+package software.amazon.iotfleethub.application;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import software.amazon.awssdk.services.iotfleethub.IoTFleetHubClient;
+import software.amazon.awssdk.services.iotfleethub.model.CreateApplicationRequest;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.LoggerProxy;
+import software.amazon.cloudformation.proxy.ProgressEvent;
+import software.amazon.cloudformation.proxy.ProxyClient;
+import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency distribution of a ReadHandler invocation, unhedged and with DescribeApplication hedged at the default
+ * percentile and budget, against FakeIoTFleetHubClient answering after log-normal latencies with a long tail.
+ *
+ * Sample time mode reports the p50, p90, p99 and p99.9 of each mode; hedging should cut the upper percentiles while
+ * adding at most the budget's share of describes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class HedgedReadBenchmark {
+
+    @Param({"NONE", "HEDGED"})
+    public String mode;
+
+    @Param({"5"})
+    public int medianMillis;
+
+    @Param({"100"})
+    public int p99Millis;
+
+    private final LoggerProxy logger = new LoggerProxy();
+
+    private ExecutorService executor;
+    private ReadHandler handler;
+    private AmazonWebServicesClientProxy proxy;
+    private ProxyClient<IoTFleetHubClient> proxyClient;
+    private ResourceHandlerRequest<ResourceModel> request;
+
+    @Setup
+    public void setup() {
+        FakeIoTFleetHubClient client = FakeIoTFleetHubClient.builder()
+                .latency(FakeIoTFleetHubClient.logNormalLatency(
+                        Duration.ofMillis(medianMillis), Duration.ofMillis(p99Millis), 42))
+                .build();
+        executor = FanOut.newPlatformThreadExecutor();
+        Hedging hedging = new Hedging("HEDGED".equals(mode),
+                new HedgePolicy(Settings.HEDGE_PERCENTILE / 100.0, Settings.HEDGE_BUDGET_PERCENT / 100.0),
+                new FanOut(executor));
+        handler = new ReadHandler();
+        proxy = AbstractTestBase.newProxy(logger);
+        proxyClient = hedging.wrap(AbstractTestBase.MOCK_PROXY(proxy, client), "Read", logger);
+
+        String applicationId = client.createApplication(CreateApplicationRequest.builder()
+                .applicationName("benchmark")
+                .roleArn("arn:aws:iam::123456789012:role/benchmark")
+                .build()).applicationId();
+        request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(ResourceModel.builder().applicationId(applicationId).build())
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public ProgressEvent<ResourceModel, CallbackContext> read() {
+        return handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
+    }
+}
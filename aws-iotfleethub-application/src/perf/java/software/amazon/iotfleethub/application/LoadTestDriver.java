@@ -0,0 +1,279 @@
+package software.amazon.iotfleethub.application;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import software.amazon.awssdk.services.iotfleethub.IoTFleetHubClient;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.LoggerProxy;
+import software.amazon.cloudformation.proxy.ProgressEvent;
+import software.amazon.cloudformation.proxy.ProxyClient;
+import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Replays the contract test inputs as many concurrent synthetic stacks through the real handlers, against
+ * FakeIoTFleetHubClient, and reports handler latency percentiles, API calls per stack operation, throttle rate and
+ * heap usage.
+ *
+ * Each stack runs Create, Read, Update (inputs_1_create.json to inputs_1_update.json), List and Delete. An
+ * IN_PROGRESS event is re-invoked straight away with its CallbackContext, the way CloudFormation would after the
+ * callback delay, so latencies are per handler invocation. Options are key=value arguments, for example
+ * {@code mvn -Pperf test-compile exec:exec@load-test -Dload.args="stacks=5000 concurrency=128 throttleRate=0.05"}.
+ */
+public class LoadTestDriver {
+
+    private static final String[] HANDLERS = {"Create", "Read", "Update", "List", "Delete"};
+
+    private final int stacks;
+    private final int concurrency;
+    private final boolean rateLimited;
+    private final ResourceModel createInput;
+    private final ResourceModel updateInput;
+    private final FakeIoTFleetHubClient client;
+    private final LoggerProxy logger = new LoggerProxy();
+
+    private final ConcurrentMap<String, LatencyRecorder> latencies = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, AtomicLong> failures = new ConcurrentHashMap<>();
+    private final AtomicLong invocations = new AtomicLong();
+    private final AtomicLong peakHeapBytes = new AtomicLong();
+
+    LoadTestDriver(Map<String, String> options) throws IOException {
+        this.stacks = Integer.parseInt(options.getOrDefault("stacks", "2000"));
+        this.concurrency = Integer.parseInt(options.getOrDefault("concurrency", "64"));
+        this.rateLimited = Boolean.parseBoolean(options.getOrDefault("rateLimited", "false"));
+
+        Path inputs = Paths.get(options.getOrDefault("inputs", "inputs"));
+        this.createInput = readInput(inputs.resolve("inputs_1_create.json"));
+        this.updateInput = readInput(inputs.resolve("inputs_1_update.json"));
+
+        Supplier<Duration> latency = FakeIoTFleetHubClient.logNormalLatency(
+                Duration.ofMillis(Long.parseLong(options.getOrDefault("latencyMedianMs", "20"))),
+                Duration.ofMillis(Long.parseLong(options.getOrDefault("latencyP99Ms", "200"))),
+                Long.parseLong(options.getOrDefault("seed", "42")));
+        this.client = FakeIoTFleetHubClient.builder()
+                .latency(latency)
+                .throttleRate(Double.parseDouble(options.getOrDefault("throttleRate", "0.02")))
+                .conflictRate(Double.parseDouble(options.getOrDefault("conflictRate", "0")))
+                .internalFailureRate(Double.parseDouble(options.getOrDefault("internalFailureRate", "0.01")))
+                .pageSize(Integer.parseInt(options.getOrDefault("pageSize", "50")))
+                .build();
+    }
+
+    private static ResourceModel readInput(Path path) throws IOException {
+        String json = new String(Files.readAllBytes(path), StandardCharsets.UTF_8)
+                .replace("{{ContractTestExecutionAccountId}}", FakeIoTFleetHubClient.ACCOUNT_ID);
+        return new ObjectMapper()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+                .readValue(json, ResourceModel.class);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String[] option = arg.split("=", 2);
+            options.put(option[0], option.length > 1 ? option[1] : "true");
+        }
+        new LoadTestDriver(options).run();
+    }
+
+    void run() throws Exception {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        ScheduledExecutorService heapSampler = Executors.newSingleThreadScheduledExecutor();
+        heapSampler.scheduleAtFixedRate(() -> peakHeapBytes.accumulateAndGet(
+                memory.getHeapMemoryUsage().getUsed(), Math::max), 0, 50, TimeUnit.MILLISECONDS);
+        long gcCountBefore = gcCount();
+        long gcMillisBefore = gcMillis();
+
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> stackFutures = new ArrayList<>();
+            for (int i = 0; i < stacks; i++) {
+                int stack = i;
+                stackFutures.add(executor.submit(() -> runStack(stack)));
+            }
+            for (Future<?> future : stackFutures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+            heapSampler.shutdownNow();
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        report(elapsed, gcCount() - gcCountBefore, gcMillis() - gcMillisBefore, memory);
+    }
+
+    private void runStack(int stack) {
+        String clientToken = UUID.randomUUID().toString();
+        ResourceModel desired = copy(createInput);
+        desired.setApplicationName(createInput.getApplicationName() + stack);
+
+        ProgressEvent<ResourceModel, CallbackContext> created = invoke("Create", new CreateHandler(),
+                ResourceHandlerRequest.<ResourceModel>builder()
+                        .desiredResourceState(desired)
+                        .clientRequestToken(clientToken)
+                        .build());
+        if (!created.isSuccess()) {
+            return;
+        }
+        ResourceModel model = created.getResourceModel();
+
+        ProgressEvent<ResourceModel, CallbackContext> read = invoke("Read", new ReadHandler(),
+                ResourceHandlerRequest.<ResourceModel>builder()
+                        .desiredResourceState(ResourceModel.builder().applicationId(model.getApplicationId()).build())
+                        .build());
+
+        ResourceModel updated = copy(updateInput);
+        updated.setApplicationName(desired.getApplicationName());
+        updated.setApplicationId(model.getApplicationId());
+        updated.setApplicationArn(model.getApplicationArn());
+        ResourceModel previous = copy(desired);
+        previous.setApplicationId(model.getApplicationId());
+        previous.setApplicationArn(model.getApplicationArn());
+        invoke("Update", new UpdateHandler(), ResourceHandlerRequest.<ResourceModel>builder()
+                .previousResourceState(read.isSuccess() ? previous : null)
+                .desiredResourceState(updated)
+                .clientRequestToken(UUID.randomUUID().toString())
+                .build());
+
+        invoke("List", new ListHandler(), ResourceHandlerRequest.<ResourceModel>builder().build());
+
+        invoke("Delete", new DeleteHandler(), ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(ResourceModel.builder().applicationId(model.getApplicationId()).build())
+                .clientRequestToken(UUID.randomUUID().toString())
+                .build());
+    }
+
+    private ProgressEvent<ResourceModel, CallbackContext> invoke(
+            String handlerName,
+            BaseHandlerStd handler,
+            ResourceHandlerRequest<ResourceModel> request) {
+
+        LatencyRecorder recorder = latencies.computeIfAbsent(handlerName, name -> new LatencyRecorder());
+        CallbackContext callbackContext = new CallbackContext();
+        ProgressEvent<ResourceModel, CallbackContext> event;
+        do {
+            AmazonWebServicesClientProxy proxy = AbstractTestBase.newProxy(logger);
+            ProxyClient<IoTFleetHubClient> proxyClient = AbstractTestBase.MOCK_PROXY(proxy, client);
+            if (rateLimited) {
+                proxyClient = RateLimiter.limit(proxyClient, Deadline.forInvocation(), logger);
+            }
+
+            long start = System.nanoTime();
+            try {
+                event = handler.handleRequest(proxy, request, callbackContext, proxyClient, logger);
+            } catch (RuntimeException e) {
+                event = ProgressEvent.failed(request.getDesiredResourceState(), callbackContext, null, e.toString());
+            }
+            recorder.record(System.nanoTime() - start);
+            invocations.incrementAndGet();
+            callbackContext = event.getCallbackContext();
+        } while (event.isInProgress());
+
+        if (event.isFailed()) {
+            failures.computeIfAbsent(handlerName + ":" + event.getErrorCode(), key -> new AtomicLong()).incrementAndGet();
+        }
+        return event;
+    }
+
+    private static ResourceModel copy(ResourceModel model) {
+        return ResourceModel.builder()
+                .applicationName(model.getApplicationName())
+                .applicationDescription(model.getApplicationDescription())
+                .roleArn(model.getRoleArn())
+                .tags(model.getTags())
+                .build();
+    }
+
+    private void report(Duration elapsed, long gcCount, long gcMillis, MemoryMXBean memory) {
+        long stackOperations = (long) stacks * HANDLERS.length;
+        long calls = client.getTotalCalls();
+
+        System.out.printf("%d stacks (%d stack operations, %d handler invocations) at concurrency %d in %.1f s%n",
+                stacks, stackOperations, invocations.get(), concurrency, elapsed.toMillis() / 1000.0);
+        System.out.printf("%-8s %10s %10s %10s %10s %10s%n", "Handler", "count", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        for (String handlerName : HANDLERS) {
+            LatencyRecorder recorder = latencies.get(handlerName);
+            if (recorder != null) {
+                long[] sorted = recorder.sorted();
+                System.out.printf("%-8s %10d %10.2f %10.2f %10.2f %10.2f%n", handlerName, sorted.length,
+                        percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99),
+                        percentile(sorted, 1.0));
+            }
+        }
+        System.out.printf("API calls: %d (%.2f per stack operation), throttled: %d (%.2f%%)%n",
+                calls, (double) calls / stackOperations, client.getTotalThrottles(),
+                calls == 0 ? 0 : 100.0 * client.getTotalThrottles() / calls);
+        Map<String, Long> callsByOperation = new LinkedHashMap<>();
+        for (String operation : Arrays.asList("CreateApplication", "DescribeApplication", "UpdateApplication",
+                "DeleteApplication", "ListApplications", "TagResource", "UntagResource")) {
+            callsByOperation.put(operation, client.getCalls(operation));
+        }
+        System.out.printf("Calls by operation: %s%n", callsByOperation);
+        System.out.printf("Failed operations: %s%n", failures);
+        System.out.printf("Heap: peak used %d MB, used now %d MB, %d GCs taking %d ms%n",
+                peakHeapBytes.get() >> 20, memory.getHeapMemoryUsage().getUsed() >> 20, gcCount, gcMillis);
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+    }
+
+    private static long gcCount() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionCount).sum();
+    }
+
+    private static long gcMillis() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionTime).sum();
+    }
+
+    private static final class LatencyRecorder {
+        private long[] samples = new long[1024];
+        private int size;
+
+        synchronized void record(long nanos) {
+            if (size == samples.length) {
+                samples = Arrays.copyOf(samples, size * 2);
+            }
+            samples[size++] = nanos;
+        }
+
+        synchronized long[] sorted() {
+            long[] sorted = Arrays.copyOf(samples, size);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+}
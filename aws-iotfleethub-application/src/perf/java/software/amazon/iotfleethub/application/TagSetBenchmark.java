@@ -0,0 +1,100 @@
+package software.amazon.iotfleethub.application;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of merging, diffing and comparing tag sets up to the 50-tag limit.
+ *
+ * hashMapDiff is the HashMap-based diff UpdateHandler used before TagSet, kept as a baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TagSetBenchmark {
+
+    @Param({"1", "10", "50"})
+    public int tagCount;
+
+    private Set<Tag> modelTags;
+    private Map<String, String> desiredResourceTags;
+    private Map<String, String> currentTags;
+    private TagSet current;
+    private TagSet desired;
+
+    @Setup
+    public void setup() {
+        modelTags = new HashSet<>();
+        desiredResourceTags = new HashMap<>();
+        currentTags = new HashMap<>();
+        for (int i = 0; i < tagCount; i++) {
+            // Half the tags come from the model and half from the stack; a fifth change value on update
+            if (i % 2 == 0) {
+                modelTags.add(Tag.builder().key("key" + i).value("value" + i).build());
+            } else {
+                desiredResourceTags.put("key" + i, "value" + i);
+            }
+            currentTags.put("key" + i, i % 5 == 0 ? "previous" + i : "value" + i);
+        }
+        current = TagSet.of(currentTags);
+        desired = TagSet.of(modelTags, desiredResourceTags);
+    }
+
+    @Benchmark
+    public TagSet merge() {
+        return TagSet.of(modelTags, desiredResourceTags);
+    }
+
+    @Benchmark
+    public TagSet.Diff diff() {
+        return current.diff(desired);
+    }
+
+    @Benchmark
+    public TagSet.Diff mergeAndDiff() {
+        return TagSet.of(currentTags).diff(TagSet.of(modelTags, desiredResourceTags));
+    }
+
+    @Benchmark
+    public boolean equality() {
+        return current.equals(desired);
+    }
+
+    @Benchmark
+    public void hashMapDiff(Blackhole blackhole) {
+        Map<String, String> desiredTags = new HashMap<>();
+        for (Tag t : modelTags) {
+            desiredTags.put(t.getKey(), t.getValue());
+        }
+        desiredTags.putAll(desiredResourceTags);
+
+        Map<String, String> tagsToAdd = new HashMap<>();
+        for (Map.Entry<String, String> tagEntry : desiredTags.entrySet()) {
+            String currentTagValue = currentTags.get(tagEntry.getKey());
+            if (currentTagValue == null || !currentTagValue.equals(tagEntry.getValue())) {
+                tagsToAdd.put(tagEntry.getKey(), tagEntry.getValue());
+            }
+        }
+        Set<String> tagKeysToRemove = new HashSet<>();
+        for (String currentKey : currentTags.keySet()) {
+            if (desiredTags.get(currentKey) == null) {
+                tagKeysToRemove.add(currentKey);
+            }
+        }
+        blackhole.consume(tagsToAdd);
+        blackhole.consume(tagKeysToRemove);
+    }
+}
@@ -0,0 +1,139 @@
+package software.amazon.iotfleethub.application;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import software.amazon.awssdk.services.iotfleethub.model.ApplicationSummary;
+import software.amazon.awssdk.services.iotfleethub.model.CreateApplicationRequest;
+import software.amazon.awssdk.services.iotfleethub.model.DescribeApplicationResponse;
+import software.amazon.awssdk.services.iotfleethub.model.InternalFailureException;
+import software.amazon.awssdk.services.iotfleethub.model.ListApplicationsResponse;
+import software.amazon.awssdk.services.iotfleethub.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.iotfleethub.model.UpdateApplicationRequest;
+import software.amazon.cloudformation.proxy.HandlerErrorCode;
+import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.LoggerProxy;
+import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-invocation translation work: request construction, exception classification, and the Describe and List
+ * response mappings used by ReadHandler and ListHandler. Run with -prof gc (the perf profile default) for
+ * allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TranslatorBenchmark {
+
+    // A full page of ListApplications results
+    private static final int LIST_PAGE_SIZE = 100;
+
+    private final Logger logger = new LoggerProxy();
+
+    private ResourceHandlerRequest<ResourceModel> request;
+    private ResourceModel model;
+    private DescribeApplicationResponse describeResponse;
+    private ListApplicationsResponse listResponse;
+    private Exception expectedException;
+    private Exception unexpectedException;
+
+    @Setup
+    public void setup() {
+        Set<Tag> modelTags = new HashSet<>();
+        Map<String, String> tags = new HashMap<>();
+        for (int i = 0; i < 10; i++) {
+            modelTags.add(Tag.builder().key("modelKey" + i).value("value" + i).build());
+            tags.put("key" + i, "value" + i);
+        }
+
+        model = ResourceModel.builder()
+                .applicationName("benchmark-application")
+                .applicationDescription("Application used by TranslatorBenchmark")
+                .roleArn("arn:aws:iam::123456789012:role/service-role/AWSIotFleetHub_3")
+                .tags(modelTags)
+                .build();
+        request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(model)
+                .desiredResourceTags(tags)
+                .clientRequestToken("87e64213-f61a-4e99-2b22-c633b4512917")
+                .build();
+
+        describeResponse = DescribeApplicationResponse.builder()
+                .applicationId("a1b2c3d4-5678-90ab-cdef-0123456789ab")
+                .applicationArn("arn:aws:iotfleethub:us-east-1:123456789012:application/a1b2c3d4-5678-90ab-cdef-0123456789ab")
+                .applicationName("benchmark-application")
+                .applicationDescription("Application used by TranslatorBenchmark")
+                .applicationUrl("https://a1b2c3d4.app.iotfleethub.us-east-1.amazonaws.com")
+                .applicationState("ACTIVE")
+                .applicationCreationDate(1605054959L)
+                .applicationLastUpdateDate(1605054959L)
+                .roleArn("arn:aws:iam::123456789012:role/service-role/AWSIotFleetHub_3")
+                .ssoClientId("LHGUNDyWARfdHlWpWgMuLmJ5hp58xwbqCc")
+                .tags(tags)
+                .build();
+
+        List<ApplicationSummary> summaries = new ArrayList<>();
+        for (int i = 0; i < LIST_PAGE_SIZE; i++) {
+            summaries.add(ApplicationSummary.builder()
+                    .applicationId("application-" + i)
+                    .applicationName("benchmark-application-" + i)
+                    .applicationDescription("Application used by TranslatorBenchmark")
+                    .applicationUrl("https://application-" + i + ".app.iotfleethub.us-east-1.amazonaws.com")
+                    .applicationCreationDate(1605054959L)
+                    .applicationLastUpdateDate(1605054959L)
+                    .applicationState("ACTIVE")
+                    .build());
+        }
+        listResponse = ListApplicationsResponse.builder().applicationSummaries(summaries).build();
+
+        expectedException = ResourceNotFoundException.builder().message("Application not found").build();
+        unexpectedException = new IllegalStateException("Unexpected");
+    }
+
+    @Benchmark
+    public CreateApplicationRequest translateToCreateRequest() {
+        return Translator.translateToCreateRequest(request, model, logger);
+    }
+
+    @Benchmark
+    public UpdateApplicationRequest translateToUpdateRequest() {
+        return Translator.translateToUpdateRequest(request, model);
+    }
+
+    @Benchmark
+    public HandlerErrorCode translateExpectedException() {
+        return Translator.translateExceptionToErrorCode(expectedException, logger);
+    }
+
+    @Benchmark
+    public HandlerErrorCode translateUnexpectedException() {
+        return Translator.translateExceptionToErrorCode(unexpectedException, logger);
+    }
+
+    @Benchmark
+    public HandlerErrorCode translateRetriedException() {
+        return Translator.translateExceptionToErrorCode(InternalFailureException.builder().build(), logger);
+    }
+
+    @Benchmark
+    public ResourceModel translateFromReadResponse() {
+        return Translator.translateFromReadResponse(describeResponse);
+    }
+
+    @Benchmark
+    public List<ResourceModel> translateFromListResponse() {
+        return Translator.translateFromListResponse(listResponse);
+    }
+}
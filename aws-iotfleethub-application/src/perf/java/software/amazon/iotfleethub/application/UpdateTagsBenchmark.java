@@ -0,0 +1,91 @@
+package software.amazon.iotfleethub.application;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import software.amazon.awssdk.services.iotfleethub.IoTFleetHubClient;
+import software.amazon.awssdk.services.iotfleethub.model.TagResourceRequest;
+import software.amazon.awssdk.services.iotfleethub.model.TagResourceResponse;
+import software.amazon.awssdk.services.iotfleethub.model.UntagResourceRequest;
+import software.amazon.awssdk.services.iotfleethub.model.UntagResourceResponse;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.LoggerProxy;
+import software.amazon.cloudformation.proxy.ProgressEvent;
+import software.amazon.cloudformation.proxy.ProxyClient;
+import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * UpdateHandler.updateTags through the real call chain, against a client that answers TagResource and UntagResource
+ * immediately, so only the handler's own CPU and allocations are measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class UpdateTagsBenchmark {
+
+    private static final String APPLICATION_ARN =
+            "arn:aws:iotfleethub:us-east-1:123456789012:application/a1b2c3d4-5678-90ab-cdef-0123456789ab";
+
+    @Param({"10", "50"})
+    public int tagCount;
+
+    private final LoggerProxy logger = new LoggerProxy();
+    private final UpdateHandler handler = new UpdateHandler();
+
+    private AmazonWebServicesClientProxy proxy;
+    private ProxyClient<IoTFleetHubClient> proxyClient;
+    private ResourceHandlerRequest<ResourceModel> request;
+    private Map<String, String> currentTags;
+
+    @Setup
+    public void setup() {
+        IoTFleetHubClient client = new IoTFleetHubClient() {
+            @Override
+            public TagResourceResponse tagResource(TagResourceRequest tagResourceRequest) {
+                return TagResourceResponse.builder().build();
+            }
+
+            @Override
+            public UntagResourceResponse untagResource(UntagResourceRequest untagResourceRequest) {
+                return UntagResourceResponse.builder().build();
+            }
+
+            @Override
+            public String serviceName() {
+                return "iotfleethub";
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        proxy = AbstractTestBase.newProxy(logger);
+        proxyClient = AbstractTestBase.MOCK_PROXY(proxy, client);
+
+        // A fifth of the tags change value and one is replaced, so both TagResource and UntagResource are called
+        Map<String, String> desiredTags = new HashMap<>();
+        currentTags = new HashMap<>();
+        for (int i = 0; i < tagCount; i++) {
+            desiredTags.put("key" + i, "value" + i);
+            currentTags.put(i == 0 ? "removedKey" : "key" + i, i % 5 == 0 ? "previous" + i : "value" + i);
+        }
+        request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(ResourceModel.builder().applicationId("a1b2c3d4-5678-90ab-cdef-0123456789ab").build())
+                .desiredResourceTags(desiredTags)
+                .build();
+    }
+
+    @Benchmark
+    public ProgressEvent<ResourceModel, CallbackContext> updateTags() {
+        return handler.updateTags(proxy, proxyClient, request, APPLICATION_ARN, currentTags, new CallbackContext(), logger);
+    }
+}
@@ -0,0 +1,47 @@
+package software.amazon.iotfleethub.application;
+
+import software.amazon.awssdk.awscore.AwsRequest;
+import software.amazon.awssdk.awscore.AwsResponse;
+import software.amazon.awssdk.services.iotfleethub.IoTFleetHubClient;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.Credentials;
+import software.amazon.cloudformation.proxy.DelayFactory;
+import software.amazon.cloudformation.proxy.LoggerProxy;
+import software.amazon.cloudformation.proxy.ProxyClient;
+import software.amazon.cloudformation.proxy.WaitStrategy;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+public class AbstractTestBase {
+    protected static final Credentials MOCK_CREDENTIALS = new Credentials("accessKey", "secretKey", "token");
+
+    // Same wait strategy as the Lambda wrapper: every wait is handed back to CloudFormation as a callback.
+    static AmazonWebServicesClientProxy newProxy(LoggerProxy logger) {
+        return new AmazonWebServicesClientProxy(logger, MOCK_CREDENTIALS,
+                DelayFactory.CONSTANT_DEFAULT_DELAY_FACTORY, WaitStrategy.scheduleForCallbackStrategy());
+    }
+
+    static ProxyClient<IoTFleetHubClient> MOCK_PROXY(
+            final AmazonWebServicesClientProxy proxy,
+            final IoTFleetHubClient client) {
+        return new ProxyClient<IoTFleetHubClient>() {
+            @Override
+            public <RequestT extends AwsRequest, ResponseT extends AwsResponse> ResponseT injectCredentialsAndInvokeV2(
+                    RequestT request, Function<RequestT, ResponseT> requestFunction) {
+                return proxy.injectCredentialsAndInvokeV2(request, requestFunction);
+            }
+
+            @Override
+            public <RequestT extends AwsRequest, ResponseT extends AwsResponse> CompletableFuture<ResponseT> injectCredentialsAndInvokeV2Async(
+                    RequestT request, Function<RequestT, CompletableFuture<ResponseT>> requestFunction) {
+                return proxy.injectCredentialsAndInvokeV2Async(request, requestFunction);
+            }
+
+            @Override
+            public IoTFleetHubClient client() {
+                return client;
+            }
+        };
+    }
+}
@@ -0,0 +1,129 @@
+package software.amazon.iotfleethub.application;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import software.amazon.awssdk.services.iotfleethub.IoTFleetHubClient;
+import software.amazon.awssdk.services.iotfleethub.model.DescribeApplicationRequest;
+import software.amazon.awssdk.services.iotfleethub.model.DescribeApplicationResponse;
+import software.amazon.awssdk.services.iotfleethub.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.iotfleethub.model.ThrottlingException;
+import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.ProxyClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import static software.amazon.iotfleethub.application.TestConstants.APPLICATION_ID;
+
+@ExtendWith(MockitoExtension.class)
+public class ApiMetricsTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Mock
+    private ProxyClient<IoTFleetHubClient> proxyClient;
+
+    @Mock
+    private IoTFleetHubClient client;
+
+    @Mock
+    private Logger logger;
+
+    private AutoCloseable closeable;
+
+    private CallbackContext context;
+
+    private ProxyClient<IoTFleetHubClient> instrumented;
+
+    private final DescribeApplicationRequest describeRequest = DescribeApplicationRequest.builder()
+            .applicationId(APPLICATION_ID)
+            .build();
+
+    @BeforeEach
+    public void setup() {
+        closeable = MockitoAnnotations.openMocks(this);
+        context = new CallbackContext();
+        instrumented = ApiMetrics.instrument(proxyClient, "Read", context, logger);
+    }
+
+    @AfterEach
+    public void tear_down() throws Exception {
+        closeable.close();
+    }
+
+    private List<JsonNode> emittedLines() throws Exception {
+        ArgumentCaptor<String> lines = ArgumentCaptor.forClass(String.class);
+        verify(logger, atLeastOnce()).log(lines.capture());
+        List<JsonNode> parsed = new ArrayList<>();
+        for (String line : lines.getAllValues()) {
+            parsed.add(MAPPER.readTree(line));
+        }
+        return parsed;
+    }
+
+    @Test
+    public void instrument_Success_EmitsEmfLine() throws Exception {
+        when(proxyClient.injectCredentialsAndInvokeV2(any(), any()))
+                .thenReturn(DescribeApplicationResponse.builder().build());
+
+        instrumented.injectCredentialsAndInvokeV2(describeRequest, client::describeApplication);
+
+        JsonNode line = emittedLines().get(0);
+        JsonNode directive = line.get("_aws").get("CloudWatchMetrics").get(0);
+        assertThat(directive.get("Namespace").asText()).isEqualTo(MetricEvent.NAMESPACE);
+        assertThat(directive.get("Dimensions").get(0).toString()).isEqualTo("[\"Action\",\"Operation\",\"Outcome\"]");
+        assertThat(directive.get("Metrics").toString()).contains("\"Name\":\"Latency\",\"Unit\":\"Milliseconds\"");
+        assertThat(line.get("_aws").get("Timestamp").isNumber()).isTrue();
+        assertThat(line.get("Action").asText()).isEqualTo("Read");
+        assertThat(line.get("Operation").asText()).isEqualTo("DescribeApplication");
+        assertThat(line.get("Outcome").asText()).isEqualTo(ApiMetrics.SUCCESS);
+        assertThat(line.get("Latency").isNumber()).isTrue();
+        assertThat(line.get("Calls").asInt()).isEqualTo(1);
+        assertThat(line.get("Retries").asInt()).isZero();
+    }
+
+    @Test
+    public void instrument_Failures_ReportMappedOutcomeAndRetries() throws Exception {
+        when(proxyClient.injectCredentialsAndInvokeV2(any(), any()))
+                .thenThrow(ThrottlingException.builder().build())
+                .thenThrow(ResourceNotFoundException.builder().build())
+                .thenReturn(DescribeApplicationResponse.builder().build());
+
+        assertThrows(ThrottlingException.class,
+                () -> instrumented.injectCredentialsAndInvokeV2(describeRequest, client::describeApplication));
+        assertThrows(ResourceNotFoundException.class,
+                () -> instrumented.injectCredentialsAndInvokeV2(describeRequest, client::describeApplication));
+        instrumented.injectCredentialsAndInvokeV2(describeRequest, client::describeApplication);
+
+        List<JsonNode> lines = emittedLines();
+        assertThat(lines).hasSize(3);
+        assertThat(lines.get(0).get("Outcome").asText()).isEqualTo("Throttling");
+        assertThat(lines.get(0).get("Retries").asInt()).isZero();
+        assertThat(lines.get(1).get("Outcome").asText()).isEqualTo("NotFound");
+        assertThat(lines.get(1).get("Retries").asInt()).isEqualTo(1);
+        assertThat(lines.get(2).get("Outcome").asText()).isEqualTo(ApiMetrics.SUCCESS);
+        assertThat(lines.get(2).get("Retries").asInt()).isEqualTo(2);
+        assertThat(context.getConsecutiveApiFailures()).isEmpty();
+    }
+
+    @Test
+    public void action_StripsHandlerSuffix() {
+        assertThat(new CreateHandler().action()).isEqualTo("Create");
+        assertThat(new ListHandler().action()).isEqualTo("List");
+    }
+}
@@ -0,0 +1,60 @@
+package software.amazon.iotfleethub.application;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BackoffPolicyTest {
+
+    private final BackoffPolicy policy = BackoffPolicy.builder()
+            .minDelay(Duration.ofSeconds(2))
+            .maxDelay(Duration.ofSeconds(10))
+            .timeout(Duration.ofSeconds(30))
+            .build();
+
+    @Test
+    public void nextDelay_DoublesUntilCapped() {
+        assertThat(policy.nextDelay(1)).isEqualTo(Duration.ofSeconds(2));
+        assertThat(policy.nextDelay(2)).isEqualTo(Duration.ofSeconds(4));
+        assertThat(policy.nextDelay(3)).isEqualTo(Duration.ofSeconds(8));
+        assertThat(policy.nextDelay(4)).isEqualTo(Duration.ofSeconds(10));
+    }
+
+    @Test
+    public void nextDelay_GivesUpAfterTimeout() {
+        // 2 + 4 + 8 + 10 = 24 seconds waited before attempt 5, 34 seconds before attempt 6
+        assertThat(policy.nextDelay(5)).isEqualTo(Duration.ofSeconds(10));
+        assertThat(policy.nextDelay(6)).isEqualTo(Duration.ZERO);
+        assertThat(policy.nextDelay(Integer.MAX_VALUE)).isEqualTo(Duration.ZERO);
+    }
+
+    @Test
+    public void delayFor_AttemptBelowOne_UsesMinDelay() {
+        assertThat(policy.delayFor(0)).isEqualTo(Duration.ofSeconds(2));
+    }
+
+    @Test
+    public void nextDelay_GivesUpAfterMaxAttempts() {
+        BackoffPolicy budgeted = BackoffPolicy.builder()
+                .minDelay(Duration.ofSeconds(1))
+                .maxDelay(Duration.ofSeconds(1))
+                .timeout(Duration.ofHours(1))
+                .maxAttempts(3)
+                .build();
+
+        assertThat(budgeted.nextDelay(3)).isEqualTo(Duration.ofSeconds(1));
+        assertThat(budgeted.nextDelay(4)).isEqualTo(Duration.ZERO);
+        assertThat(policy.getMaxAttempts()).isEqualTo(Integer.MAX_VALUE);
+    }
+
+    @Test
+    public void jitteredCallbackDelaySeconds_StaysInUpperHalf() {
+        for (int i = 0; i < 100; i++) {
+            // 8 second backoff on attempt 3
+            assertThat(policy.jitteredCallbackDelaySeconds(3)).isBetween(4, 8);
+        }
+        assertThat(policy.jitteredCallbackDelaySeconds(6)).isEqualTo(0);
+    }
+}
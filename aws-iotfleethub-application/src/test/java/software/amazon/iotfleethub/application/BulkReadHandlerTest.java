@@ -0,0 +1,125 @@
+package software.amazon.iotfleethub.application;
+
+import software.amazon.awssdk.services.iotfleethub.IoTFleetHubClient;
+import software.amazon.awssdk.services.iotfleethub.model.DescribeApplicationRequest;
+import software.amazon.awssdk.services.iotfleethub.model.DescribeApplicationResponse;
+import software.amazon.awssdk.services.iotfleethub.model.InvalidRequestException;
+import software.amazon.awssdk.services.iotfleethub.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.iotfleethub.model.ThrottlingException;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.HandlerErrorCode;
+import software.amazon.cloudformation.proxy.LoggerProxy;
+import software.amazon.cloudformation.proxy.ProxyClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import static software.amazon.iotfleethub.application.TestConstants.APPLICATION_CREATION_DATE;
+import static software.amazon.iotfleethub.application.TestConstants.APPLICATION_LAST_UPDATE_DATE;
+import static software.amazon.iotfleethub.application.TestConstants.APPLICATION_NAME;
+import static software.amazon.iotfleethub.application.TestConstants.APPLICATION_STATE;
+import static software.amazon.iotfleethub.application.TestConstants.MODEL_TAG_MAP;
+import static software.amazon.iotfleethub.application.TestConstants.ROLE_ARN;
+import static software.amazon.iotfleethub.application.TestConstants.SSO_CLIENT_ID;
+
+@ExtendWith(MockitoExtension.class)
+public class BulkReadHandlerTest extends AbstractTestBase {
+
+    @Mock
+    private IoTFleetHubClient client;
+
+    @Mock
+    private LoggerProxy logger;
+
+    private AutoCloseable closeable;
+
+    private ProxyClient<IoTFleetHubClient> proxyClient;
+
+    private BulkReadHandler handler;
+
+    @BeforeEach
+    public void setup() {
+        closeable = MockitoAnnotations.openMocks(this);
+        AmazonWebServicesClientProxy proxy = newProxy(logger);
+        proxyClient = MOCK_PROXY(proxy, client);
+        handler = new BulkReadHandler();
+    }
+
+    @AfterEach
+    public void tear_down() throws Exception {
+        closeable.close();
+    }
+
+    private static DescribeApplicationResponse describe(String applicationId) {
+        return DescribeApplicationResponse.builder()
+                .applicationId(applicationId)
+                .applicationName(APPLICATION_NAME)
+                .applicationCreationDate(APPLICATION_CREATION_DATE)
+                .applicationLastUpdateDate(APPLICATION_LAST_UPDATE_DATE)
+                .applicationState(APPLICATION_STATE)
+                .roleArn(ROLE_ARN)
+                .ssoClientId(SSO_CLIENT_ID)
+                .tags(MODEL_TAG_MAP)
+                .build();
+    }
+
+    @Test
+    public void handleRequest_SeparatesModelsNotFoundAndFailures() {
+        AtomicInteger throttled = new AtomicInteger();
+        when(client.describeApplication(any(DescribeApplicationRequest.class))).thenAnswer(invocation -> {
+            String applicationId = invocation.getArgument(0, DescribeApplicationRequest.class).applicationId();
+            if ("gone".equals(applicationId)) {
+                throw ResourceNotFoundException.builder().message("Not found").build();
+            }
+            if ("invalid".equals(applicationId)) {
+                throw InvalidRequestException.builder().message("Invalid request").build();
+            }
+            if ("throttled".equals(applicationId) && throttled.getAndIncrement() == 0) {
+                throw ThrottlingException.builder().message("Rate exceeded").build();
+            }
+            return describe(applicationId);
+        });
+
+        BulkReadHandler.Result result = handler.handleRequest(proxyClient,
+                Arrays.asList("app1", "gone", "throttled", "invalid", "app1"),
+                Deadline.after(Duration.ofSeconds(30), System::nanoTime), logger);
+
+        // The throttled describe is retried in place and the duplicate ID is described once
+        assertThat(result.getModels().keySet()).containsExactly("app1", "throttled");
+        assertThat(result.getModels().get("app1").getRoleArn()).isEqualTo(ROLE_ARN);
+        assertThat(result.getModels().get("app1").getTags()).isEqualTo(TagSet.of(MODEL_TAG_MAP).toModelTags());
+        assertThat(result.getNotFound()).containsExactly("gone");
+        assertThat(result.getFailures().keySet()).containsExactly("invalid");
+        assertThat(result.getFailures().get("invalid").getErrorCode()).isEqualTo(HandlerErrorCode.InvalidRequest);
+        assertThat(result.getFailures().get("invalid").getMessage()).contains("Invalid request");
+        verify(client, times(5)).describeApplication(any(DescribeApplicationRequest.class));
+    }
+
+    @Test
+    public void handleRequest_DeadlineSpent_ReportsThrottling() {
+        when(client.describeApplication(any(DescribeApplicationRequest.class)))
+                .thenThrow(ThrottlingException.builder().message("Rate exceeded").build());
+
+        BulkReadHandler.Result result = handler.handleRequest(proxyClient,
+                Arrays.asList("app1"), Deadline.after(Duration.ZERO, System::nanoTime), logger);
+
+        assertThat(result.getModels()).isEmpty();
+        assertThat(result.getNotFound()).isEmpty();
+        assertThat(result.getFailures().get("app1").getErrorCode()).isEqualTo(HandlerErrorCode.Throttling);
+        verify(client, times(1)).describeApplication(any(DescribeApplicationRequest.class));
+    }
+}
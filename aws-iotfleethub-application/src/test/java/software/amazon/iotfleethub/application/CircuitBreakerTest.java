@@ -0,0 +1,131 @@
+package software.amazon.iotfleethub.application;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.services.iotfleethub.IoTFleetHubClient;
+import software.amazon.awssdk.services.iotfleethub.model.DescribeApplicationRequest;
+import software.amazon.awssdk.services.iotfleethub.model.InternalFailureException;
+import software.amazon.awssdk.services.iotfleethub.model.InvalidRequestException;
+import software.amazon.awssdk.services.iotfleethub.model.ThrottlingException;
+import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.ProxyClient;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class CircuitBreakerTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private final CircuitBreaker breaker =
+            new CircuitBreaker("DescribeApplication", 0.5, 4, 4, Duration.ofSeconds(30), nanos::get);
+
+    @Test
+    public void onFailure_OpensAtErrorRateOverWindow() {
+        breaker.onSuccess();
+        breaker.onSuccess();
+        assertThat(breaker.onFailure()).isFalse();
+        // Half of the last four calls failed
+        assertThat(breaker.onFailure()).isTrue();
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        assertThat(breaker.getRetryAfter()).isEqualTo(Duration.ofSeconds(20));
+    }
+
+    @Test
+    public void onSuccess_OldFailuresLeaveTheWindow() {
+        for (int i = 0; i < 20; i++) {
+            breaker.onSuccess();
+            breaker.onSuccess();
+            breaker.onSuccess();
+            assertThat(breaker.onFailure()).isFalse();
+        }
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.getRetryAfter()).isEqualTo(Duration.ZERO);
+    }
+
+    @Test
+    public void tryAcquire_HalfOpenLetsOneProbeThrough() {
+        for (int i = 0; i < 4; i++) {
+            breaker.onFailure();
+        }
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(30));
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+        assertThat(breaker.getRetryAfter()).isEqualTo(Duration.ofSeconds(30));
+
+        // A failed probe opens the circuit again for a full period
+        assertThat(breaker.onFailure()).isTrue();
+        assertThat(breaker.tryAcquire()).isFalse();
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.onSuccess()).isTrue();
+
+        // Closed with a fresh window
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.onFailure()).isFalse();
+    }
+
+    @Test
+    public void release_GivesBackProbeWithoutClosing() {
+        for (int i = 0; i < 4; i++) {
+            breaker.onFailure();
+        }
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(30));
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.release();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+
+        // The next caller becomes the probe
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void wrap_ErrorDuringProbe_GivesBackProbe() {
+        CircuitBreakers breakers = new CircuitBreakers(true, operation -> breaker);
+        ProxyClient<IoTFleetHubClient> proxyClient = mock(ProxyClient.class);
+        when(proxyClient.injectCredentialsAndInvokeV2(any(), any())).thenThrow(new StackOverflowError());
+        for (int i = 0; i < 4; i++) {
+            breaker.onFailure();
+        }
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(30));
+
+        assertThatThrownBy(() -> breakers.wrap(proxyClient, mock(Logger.class)).injectCredentialsAndInvokeV2(
+                DescribeApplicationRequest.builder().build(), request -> null))
+                .isInstanceOf(StackOverflowError.class);
+
+        // The Error said nothing about the service, so the next caller may probe
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    public void isOutage_OnlyServerAndClientSideFailures() {
+        assertThat(CircuitBreakers.isOutage(InternalFailureException.builder().statusCode(500).build())).isTrue();
+        assertThat(CircuitBreakers.isOutage(SdkClientException.create("Unable to execute HTTP request"))).isTrue();
+        assertThat(CircuitBreakers.isOutage(ThrottlingException.builder().statusCode(429).build())).isFalse();
+        assertThat(CircuitBreakers.isOutage(InvalidRequestException.builder().statusCode(400).build())).isFalse();
+        assertThat(CircuitBreakers.isOutage(new IllegalStateException())).isFalse();
+    }
+
+    @Test
+    public void exception_RetryAfterRoundedUpToSeconds() {
+        assertThat(new CircuitOpenException("DescribeApplication", Duration.ofMillis(1500)).getRetryAfterSeconds())
+                .isEqualTo(2);
+        assertThat(new CircuitOpenException("DescribeApplication", Duration.ZERO).getRetryAfterSeconds()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,87 @@
+package software.amazon.iotfleethub.application;
+
+import software.amazon.awssdk.services.iotfleethub.IoTFleetHubClient;
+import software.amazon.cloudformation.proxy.Logger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class ClientBuilderTest {
+
+    @Mock
+    private Logger logger;
+
+    // Counts the clients built, so the tests never construct a real SDK client or resolve a region
+    private final AtomicInteger built = new AtomicInteger();
+
+    private IoTFleetHubClient build() {
+        built.incrementAndGet();
+        return mock(IoTFleetHubClient.class);
+    }
+
+    @Test
+    public void get_BuildsOnceAndReturnsSharedInstance() {
+        ClientBuilder.SharedClient<IoTFleetHubClient> shared =
+                new ClientBuilder.SharedClient<>("IoTFleetHubClient", this::build);
+        assertThat(shared.getInitializationDuration()).isNull();
+
+        IoTFleetHubClient first = shared.get(logger);
+
+        assertThat(first).isNotNull();
+        assertThat(shared.get(logger)).isSameAs(first);
+        assertThat(shared.getInitializationDuration()).isNotNull();
+        assertThat(built.get()).isEqualTo(1);
+        verify(logger, times(1)).log(anyString());
+    }
+
+    @Test
+    public void get_ConcurrentCallers_ShareOneInstance() throws Exception {
+        CountDownLatch building = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ClientBuilder.SharedClient<IoTFleetHubClient> shared = new ClientBuilder.SharedClient<>("IoTFleetHubClient", () -> {
+            building.countDown();
+            try {
+                assertThat(release.await(10, TimeUnit.SECONDS)).isTrue();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return build();
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<IoTFleetHubClient>> futures = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                futures.add(executor.submit(() -> shared.get(logger)));
+            }
+            // Every caller asks while the first build is still in progress
+            assertThat(building.await(10, TimeUnit.SECONDS)).isTrue();
+            release.countDown();
+
+            IoTFleetHubClient expected = shared.get(logger);
+            for (Future<IoTFleetHubClient> future : futures) {
+                assertThat(future.get()).isSameAs(expected);
+            }
+            assertThat(built.get()).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
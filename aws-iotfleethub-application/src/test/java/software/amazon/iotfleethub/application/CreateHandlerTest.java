@@ -1,15 +1,22 @@
 package software.amazon.iotfleethub.application;
 
 import java.time.Duration;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
-import software.amazon.awssdk.core.SdkClient;
+import software.amazon.awssdk.core.exception.ApiCallTimeoutException;
+import software.amazon.awssdk.services.iotfleethub.IoTFleetHubClient;
+import software.amazon.awssdk.services.iotfleethub.model.ApplicationState;
 import software.amazon.awssdk.services.iotfleethub.model.CreateApplicationRequest;
 import software.amazon.awssdk.services.iotfleethub.model.CreateApplicationResponse;
+import software.amazon.awssdk.services.iotfleethub.model.DescribeApplicationRequest;
+import software.amazon.awssdk.services.iotfleethub.model.DescribeApplicationResponse;
 import software.amazon.awssdk.services.iotfleethub.model.InvalidRequestException;
+import software.amazon.awssdk.services.iotfleethub.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.iotfleethub.model.ThrottlingException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.HandlerErrorCode;
-import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.LoggerProxy;
 import software.amazon.cloudformation.proxy.OperationStatus;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ProxyClient;
@@ -26,67 +33,108 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import static junit.framework.Assert.assertEquals;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.atLeastOnce;
-import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 import static software.amazon.iotfleethub.application.TestConstants.APPLICATION_ARN;
+import static software.amazon.iotfleethub.application.TestConstants.APPLICATION_CREATION_DATE;
+import static software.amazon.iotfleethub.application.TestConstants.APPLICATION_LAST_UPDATE_DATE;
 import static software.amazon.iotfleethub.application.TestConstants.APPLICATION_NAME;
 import static software.amazon.iotfleethub.application.TestConstants.APPLICATION_DESCRIPTION;
 import static software.amazon.iotfleethub.application.TestConstants.APPLICATION_ID;
+import static software.amazon.iotfleethub.application.TestConstants.APPLICATION_STATE;
+import static software.amazon.iotfleethub.application.TestConstants.APPLICATION_URL;
 import static software.amazon.iotfleethub.application.TestConstants.CLIENT_TOKEN;
+import static software.amazon.iotfleethub.application.TestConstants.ERROR_MESSAGE;
 import static software.amazon.iotfleethub.application.TestConstants.MODEL_TAG_MAP;
 import static software.amazon.iotfleethub.application.TestConstants.INVALID_APPLICATION_NAME;
 import static software.amazon.iotfleethub.application.TestConstants.MODEL_TAGS;
 import static software.amazon.iotfleethub.application.TestConstants.ROLE_ARN;
+import static software.amazon.iotfleethub.application.TestConstants.SSO_CLIENT_ID;
 
 @ExtendWith(MockitoExtension.class)
-public class CreateHandlerTest {
+public class CreateHandlerTest extends AbstractTestBase {
 
     @Mock
-    private AmazonWebServicesClientProxy proxy;
+    private IoTFleetHubClient client;
 
     @Mock
-    private Logger logger;
+    private LoggerProxy logger;
 
     private AutoCloseable closeable;
 
+    private AmazonWebServicesClientProxy proxy;
+
+    private ProxyClient<IoTFleetHubClient> proxyClient;
+
     private CreateHandler handler;
 
     @BeforeEach
     public void setup() {
         closeable = MockitoAnnotations.openMocks(this);
+        proxy = newProxy(logger);
+        proxyClient = MOCK_PROXY(proxy, client);
         handler = new CreateHandler();
     }
 
     @AfterEach
     public void tear_down() throws Exception {
-        verifyNoMoreInteractions(proxy);
+        // The call chain reads the service name to key its state in the CallbackContext
+        verify(client, atLeast(0)).serviceName();
+        verifyNoMoreInteractions(client);
         closeable.close();
     }
 
-    @Test
-    public void handleRequest_Simple_Success() {
+    private ResourceHandlerRequest<ResourceModel> simpleRequest() {
         ResourceModel model = ResourceModel.builder()
                 .applicationName(APPLICATION_NAME)
                 .roleArn(ROLE_ARN)
                 .build();
 
-        ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+        return ResourceHandlerRequest.<ResourceModel>builder()
                 .desiredResourceState(model)
                 .clientRequestToken(CLIENT_TOKEN)
                 .build();
+    }
 
+    private void mockCreate() {
         CreateApplicationResponse createResponse = CreateApplicationResponse.builder()
                 .applicationId(APPLICATION_ID)
                 .applicationArn(APPLICATION_ARN)
                 .build();
-        when(proxy.injectCredentialsAndInvokeV2(any(), any()))
+        when(client.createApplication(any(CreateApplicationRequest.class)))
                 .thenReturn(createResponse);
+    }
 
-        ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, null, logger);
+    private void mockDescribe(ApplicationState state) {
+        DescribeApplicationResponse describeResponse = DescribeApplicationResponse.builder()
+                .applicationId(APPLICATION_ID)
+                .applicationArn(APPLICATION_ARN)
+                .applicationName(APPLICATION_NAME)
+                .applicationUrl(APPLICATION_URL)
+                .applicationState(state)
+                .applicationCreationDate(APPLICATION_CREATION_DATE)
+                .applicationLastUpdateDate(APPLICATION_LAST_UPDATE_DATE)
+                .roleArn(ROLE_ARN)
+                .ssoClientId(SSO_CLIENT_ID)
+                .errorMessage(ERROR_MESSAGE)
+                .build();
+        when(client.describeApplication(any(DescribeApplicationRequest.class)))
+                .thenReturn(describeResponse);
+    }
+
+    @Test
+    public void handleRequest_Simple_Success() {
+        ResourceHandlerRequest<ResourceModel> request = simpleRequest();
+        mockCreate();
+        mockDescribe(ApplicationState.CREATING);
+
+        ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
 
         ResourceModel expectedModel = ResourceModel.builder()
                 .applicationName(APPLICATION_NAME)
@@ -94,12 +142,69 @@ public class CreateHandlerTest {
                 .applicationArn(APPLICATION_ARN)
                 .roleArn(ROLE_ARN)
                 .build();
-        ProgressEvent<ResourceModel, CallbackContext> expectedResponse = ProgressEvent.<ResourceModel, CallbackContext>builder()
-                .resourceModel(expectedModel)
-                .status(OperationStatus.SUCCESS)
-                .callbackDelaySeconds(0)
+        // Application is still CREATING, so the handler hands back a callback instead of reporting SUCCESS
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(response.getResourceModel()).isEqualTo(expectedModel);
+        assertThat(response.getCallbackDelaySeconds())
+                .isEqualTo((int) BackoffPolicy.STABILIZATION.getMinDelay().getSeconds());
+        assertThat(response.getCallbackContext().isCreateValidated()).isTrue();
+        verify(client).createApplication(any(CreateApplicationRequest.class));
+        verify(client).describeApplication(any(DescribeApplicationRequest.class));
+    }
+
+    @Test
+    public void handleRequest_ActiveImmediately_Success() {
+        ResourceHandlerRequest<ResourceModel> request = simpleRequest();
+        mockCreate();
+        mockDescribe(ApplicationState.ACTIVE);
+
+        ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
+
+        // The model comes from the describe that found the Application ACTIVE, so it needs no Read to fill it in
+        ResourceModel expectedModel = ResourceModel.builder()
+                .applicationId(APPLICATION_ID)
+                .applicationArn(APPLICATION_ARN)
+                .applicationName(APPLICATION_NAME)
+                .applicationUrl(APPLICATION_URL)
+                .applicationState(APPLICATION_STATE)
+                .applicationCreationDate((int) APPLICATION_CREATION_DATE)
+                .applicationLastUpdateDate((int) APPLICATION_LAST_UPDATE_DATE)
+                .roleArn(ROLE_ARN)
+                .ssoClientId(SSO_CLIENT_ID)
+                .errorMessage(ERROR_MESSAGE)
+                .tags(Collections.emptySet())
                 .build();
-        assertThat(response).isEqualTo(expectedResponse);
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModel()).isEqualTo(expectedModel);
+        verify(client).createApplication(any(CreateApplicationRequest.class));
+        verify(client).describeApplication(any(DescribeApplicationRequest.class));
+    }
+
+    @Test
+    public void handleRequest_Callback_DoesNotCreateAgain() {
+        ResourceHandlerRequest<ResourceModel> request = simpleRequest();
+        mockCreate();
+        mockDescribe(ApplicationState.CREATING);
+
+        ProgressEvent<ResourceModel, CallbackContext> first =
+                handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
+        assertThat(first.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+
+        // CloudFormation calls back with the model and context of the previous event
+        ResourceHandlerRequest<ResourceModel> callback = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(first.getResourceModel())
+                .clientRequestToken(CLIENT_TOKEN)
+                .build();
+        mockDescribe(ApplicationState.ACTIVE);
+
+        ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, callback, first.getCallbackContext(), proxyClient, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModel().getApplicationArn()).isEqualTo(APPLICATION_ARN);
+        verify(client, times(1)).createApplication(any(CreateApplicationRequest.class));
+        verify(client, times(2)).describeApplication(any(DescribeApplicationRequest.class));
     }
 
     @Test
@@ -117,14 +222,11 @@ public class CreateHandlerTest {
                 .desiredResourceTags(MODEL_TAG_MAP)
                 .build();
 
-        CreateApplicationResponse createResponse = CreateApplicationResponse.builder()
-                .applicationId(APPLICATION_ID)
-                .applicationArn(APPLICATION_ARN)
-                .build();
-        when(proxy.injectCredentialsAndInvokeV2(any(), any()))
-                .thenReturn(createResponse);
+        mockCreate();
+        mockDescribe(ApplicationState.CREATING);
 
-        ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, null, logger);
+        ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
 
         ResourceModel expectedModel = ResourceModel.builder()
                 .applicationName(APPLICATION_NAME)
@@ -134,21 +236,18 @@ public class CreateHandlerTest {
                 .roleArn(ROLE_ARN)
                 .tags(MODEL_TAGS)
                 .build();
-        ProgressEvent<ResourceModel, CallbackContext> expectedResponse = ProgressEvent.<ResourceModel, CallbackContext>builder()
-                .resourceModel(expectedModel)
-                .status(OperationStatus.SUCCESS)
-                .callbackDelaySeconds(0)
-                .build();
-        assertThat(response).isEqualTo(expectedResponse);
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(response.getResourceModel()).isEqualTo(expectedModel);
 
         // Examining the actual request used in CreateApplication call
         ArgumentCaptor<CreateApplicationRequest> requestCaptor = ArgumentCaptor.forClass(CreateApplicationRequest.class);
-        verify(proxy).injectCredentialsAndInvokeV2(requestCaptor.capture(), any());
+        verify(client).createApplication(requestCaptor.capture());
         CreateApplicationRequest actualRequest = requestCaptor.getAllValues().get(0);
 
         Map<String, String> testTags = new HashMap<>();
         testTags.putAll(request.getDesiredResourceTags());
         assertEquals(testTags, actualRequest.tags());
+        verify(client).describeApplication(any(DescribeApplicationRequest.class));
     }
 
     @Test
@@ -165,7 +264,8 @@ public class CreateHandlerTest {
                 .clientRequestToken(CLIENT_TOKEN)
                 .build();
 
-        ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, null, logger);
+        ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
 
         assertThat(response).isNotNull();
         assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
@@ -185,15 +285,103 @@ public class CreateHandlerTest {
                 .clientRequestToken(CLIENT_TOKEN)
                 .build();
 
-        when(proxy.injectCredentialsAndInvokeV2(any(), any()))
+        when(client.createApplication(any(CreateApplicationRequest.class)))
                 .thenThrow(InvalidRequestException.builder().build());
 
-        ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, null, logger);
+        ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
 
         assertThat(response).isNotNull();
         assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
         assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.InvalidRequest);
         assertThat(response.getMessage()).isNull();
+        verify(client).createApplication(any(CreateApplicationRequest.class));
+    }
+
+    @Test
+    public void handleRequest_Throttled_RetriesWithBackoff() {
+        ResourceHandlerRequest<ResourceModel> request = simpleRequest();
+
+        when(client.createApplication(any(CreateApplicationRequest.class)))
+                .thenThrow(ThrottlingException.builder().build());
+
+        ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(response.getCallbackDelaySeconds())
+                .isBetween(1, (int) BackoffPolicy.THROTTLING.getMinDelay().getSeconds());
+        assertThat(response.getCallbackContext().getThrottlingAttempts()).isEqualTo(1);
+        verify(client).createApplication(any(CreateApplicationRequest.class));
+        verify(client, never()).describeApplication(any(DescribeApplicationRequest.class));
+    }
+
+    @Test
+    public void handleRequest_CircuitOpen_CallsBack() {
+        ResourceHandlerRequest<ResourceModel> request = simpleRequest();
+
+        when(client.createApplication(any(CreateApplicationRequest.class)))
+                .thenThrow(new CircuitOpenException("CreateApplication", Duration.ofSeconds(30)));
+
+        ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
+
+        // Create may call back, so it waits for the circuit instead of failing
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(response.getCallbackDelaySeconds()).isEqualTo(30);
+        verify(client, never()).describeApplication(any(DescribeApplicationRequest.class));
+    }
+
+    @Test
+    public void handleRequest_ThrottlingBudgetSpent_Failure() {
+        ResourceHandlerRequest<ResourceModel> request = simpleRequest();
+
+        when(client.createApplication(any(CreateApplicationRequest.class)))
+                .thenThrow(ThrottlingException.builder().build());
+
+        CallbackContext context = new CallbackContext();
+        context.setThrottlingAttempts(BackoffPolicy.THROTTLING.getMaxAttempts());
+
+        ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, request, context, proxyClient, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.Throttling);
+        verify(client).createApplication(any(CreateApplicationRequest.class));
+    }
+
+    @Test
+    public void handleRequest_CallTimedOut_CallsBack() {
+        ResourceHandlerRequest<ResourceModel> request = simpleRequest();
+
+        when(client.createApplication(any(CreateApplicationRequest.class)))
+                .thenThrow(ApiCallTimeoutException.create(30_000));
+
+        ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(response.getCallbackDelaySeconds()).isPositive();
+        assertThat(response.getCallbackContext().getTimeoutAttempts()).isEqualTo(1);
+        verify(client).createApplication(any(CreateApplicationRequest.class));
+    }
+
+    @Test
+    public void handleRequest_TimeoutBudgetSpent_Failure() {
+        ResourceHandlerRequest<ResourceModel> request = simpleRequest();
+
+        when(client.createApplication(any(CreateApplicationRequest.class)))
+                .thenThrow(ApiCallTimeoutException.create(30_000));
+
+        CallbackContext context = new CallbackContext();
+        context.setTimeoutAttempts(BackoffPolicy.TIMEOUT.getMaxAttempts());
+
+        ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, request, context, proxyClient, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.NetworkFailure);
+        verify(client).createApplication(any(CreateApplicationRequest.class));
     }
 
     @Test
@@ -217,4 +405,73 @@ public class CreateHandlerTest {
         assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.InvalidRequest);
         assertThat(response.getMessage()).isEqualTo("ClientToken was not provided.");
     }
+
+    @Test
+    public void handleRequest_Stabilize_NotYetVisible_InProgress() {
+        ResourceHandlerRequest<ResourceModel> request = simpleRequest();
+        mockCreate();
+        when(client.describeApplication(any(DescribeApplicationRequest.class)))
+                .thenThrow(ResourceNotFoundException.builder().build());
+
+        ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        verify(client).createApplication(any(CreateApplicationRequest.class));
+        verify(client).describeApplication(any(DescribeApplicationRequest.class));
+    }
+
+    @Test
+    public void handleRequest_Stabilize_CreateFailed_Failure() {
+        ResourceHandlerRequest<ResourceModel> request = simpleRequest();
+        mockCreate();
+        mockDescribe(ApplicationState.CREATE_FAILED);
+
+        ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.NotStabilized);
+        assertThat(response.getMessage()).isEqualTo(ERROR_MESSAGE);
+        verify(client).createApplication(any(CreateApplicationRequest.class));
+        verify(client).describeApplication(any(DescribeApplicationRequest.class));
+    }
+
+    @Test
+    public void handleRequest_Stabilize_TimedOut_Failure() {
+        ResourceHandlerRequest<ResourceModel> request = simpleRequest();
+        mockCreate();
+        mockDescribe(ApplicationState.CREATING);
+
+        // Keep calling back until the stabilization backoff gives up
+        CallbackContext context = new CallbackContext();
+        ProgressEvent<ResourceModel, CallbackContext> response;
+        int invocations = 0;
+        do {
+            response = handler.handleRequest(proxy, request, context, proxyClient, logger);
+            context = response.getCallbackContext();
+            invocations++;
+        } while (response.isInProgress() && invocations < 100);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.NotStabilized);
+        verify(client, times(1)).createApplication(any(CreateApplicationRequest.class));
+        verify(client, times(invocations)).describeApplication(any(DescribeApplicationRequest.class));
+    }
+
+    @Test
+    public void handleRequest_Stabilize_DescribeError_Failure() {
+        ResourceHandlerRequest<ResourceModel> request = simpleRequest();
+        mockCreate();
+        when(client.describeApplication(any(DescribeApplicationRequest.class)))
+                .thenThrow(InvalidRequestException.builder().build());
+
+        ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.InvalidRequest);
+        verify(client).createApplication(any(CreateApplicationRequest.class));
+        verify(client).describeApplication(any(DescribeApplicationRequest.class));
+    }
 }
@@ -0,0 +1,93 @@
+package software.amazon.iotfleethub.application;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import software.amazon.awssdk.awscore.AwsRequestOverrideConfiguration;
+import software.amazon.awssdk.services.iotfleethub.IoTFleetHubClient;
+import software.amazon.awssdk.services.iotfleethub.model.DescribeApplicationRequest;
+import software.amazon.awssdk.services.iotfleethub.model.DescribeApplicationResponse;
+import software.amazon.cloudformation.proxy.LoggerProxy;
+import software.amazon.cloudformation.proxy.ProxyClient;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static software.amazon.iotfleethub.application.TestConstants.APPLICATION_ID;
+
+public class DeadlineTest extends AbstractTestBase {
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    @Test
+    public void remaining_CountsDownToZero() {
+        Deadline deadline = Deadline.after(Duration.ofSeconds(10), nanos::get);
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(4));
+        assertThat(deadline.remaining()).isEqualTo(Duration.ofSeconds(6));
+        assertThat(deadline.allows(Duration.ofSeconds(5))).isTrue();
+        assertThat(deadline.allows(Duration.ofSeconds(6))).isFalse();
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        assertThat(deadline.remaining()).isEqualTo(Duration.ZERO);
+    }
+
+    @Test
+    public void within_KeepsEarlierDeadline() {
+        Deadline deadline = Deadline.after(Duration.ofSeconds(10), nanos::get);
+
+        assertThat(deadline.within(Duration.ofSeconds(3)).remaining()).isEqualTo(Duration.ofSeconds(3));
+        assertThat(deadline.within(Duration.ofSeconds(30)).remaining()).isEqualTo(Duration.ofSeconds(10));
+    }
+
+    @Test
+    public void forInvocation_LeavesResponseMargin() {
+        Duration remaining = Deadline.forInvocation().remaining();
+
+        assertThat(remaining).isLessThanOrEqualTo(Deadline.INVOCATION_TIMEOUT.minus(Deadline.RESPONSE_MARGIN));
+        assertThat(remaining).isGreaterThan(Duration.ZERO);
+    }
+
+    @Test
+    public void bound_SetsCallTimeoutsAndKeepsCredentials() {
+        IoTFleetHubClient client = mock(IoTFleetHubClient.class);
+        when(client.describeApplication(any(DescribeApplicationRequest.class)))
+                .thenReturn(DescribeApplicationResponse.builder().applicationId(APPLICATION_ID).build());
+        ProxyClient<IoTFleetHubClient> proxyClient = MOCK_PROXY(newProxy(new LoggerProxy()), client);
+        Deadline deadline = Deadline.after(Duration.ofSeconds(10), nanos::get);
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(4));
+
+        ProxyClient<IoTFleetHubClient> bounded = deadline.bound(proxyClient);
+        bounded.injectCredentialsAndInvokeV2(DescribeApplicationRequest.builder().applicationId(APPLICATION_ID).build(),
+                bounded.client()::describeApplication);
+
+        ArgumentCaptor<DescribeApplicationRequest> sent = ArgumentCaptor.forClass(DescribeApplicationRequest.class);
+        verify(client).describeApplication(sent.capture());
+        AwsRequestOverrideConfiguration overrideConfiguration = sent.getValue().overrideConfiguration().get();
+        assertThat(overrideConfiguration.apiCallTimeout()).contains(Duration.ofSeconds(6));
+        assertThat(overrideConfiguration.apiCallAttemptTimeout()).contains(Duration.ofSeconds(6));
+        assertThat(overrideConfiguration.credentialsProvider()).isPresent();
+    }
+
+    @Test
+    public void bound_TooLittleTimeLeft_CallNotStarted() {
+        IoTFleetHubClient client = mock(IoTFleetHubClient.class);
+        ProxyClient<IoTFleetHubClient> bounded = Deadline.after(Duration.ofSeconds(10), nanos::get)
+                .bound(MOCK_PROXY(newProxy(new LoggerProxy()), client));
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(9));
+
+        assertThatThrownBy(() -> bounded.injectCredentialsAndInvokeV2(
+                DescribeApplicationRequest.builder().applicationId(APPLICATION_ID).build(),
+                bounded.client()::describeApplication))
+                .isInstanceOf(DeadlineExceededException.class)
+                .hasMessageContaining("DescribeApplication");
+        verifyNoInteractions(client);
+    }
+}
@@ -1,18 +1,21 @@
 package software.amazon.iotfleethub.application;
 
-import java.time.Duration;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
-import software.amazon.awssdk.core.SdkClient;
+import software.amazon.awssdk.services.iotfleethub.IoTFleetHubClient;
+import software.amazon.awssdk.services.iotfleethub.model.ApplicationState;
 import software.amazon.awssdk.services.iotfleethub.model.DeleteApplicationRequest;
+import software.amazon.awssdk.services.iotfleethub.model.DeleteApplicationResponse;
+import software.amazon.awssdk.services.iotfleethub.model.DescribeApplicationRequest;
+import software.amazon.awssdk.services.iotfleethub.model.DescribeApplicationResponse;
+import software.amazon.awssdk.services.iotfleethub.model.InternalFailureException;
 import software.amazon.awssdk.services.iotfleethub.model.InvalidRequestException;
-import software.amazon.awssdk.services.iotfleethub.model.IoTFleetHubRequest;
 import software.amazon.awssdk.services.iotfleethub.model.ResourceNotFoundException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.HandlerErrorCode;
-import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.LoggerProxy;
 import software.amazon.cloudformation.proxy.OperationStatus;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ProxyClient;
@@ -22,69 +25,249 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
-import static junit.framework.Assert.assertEquals;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.atLeastOnce;
-import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
-
 import static software.amazon.iotfleethub.application.TestConstants.APPLICATION_ID;
 import static software.amazon.iotfleethub.application.TestConstants.CLIENT_TOKEN;
+import static software.amazon.iotfleethub.application.TestConstants.ERROR_MESSAGE;
 import static software.amazon.iotfleethub.application.TestConstants.INVALID_APPLICATION_ID;
 
 @ExtendWith(MockitoExtension.class)
-public class DeleteHandlerTest {
+public class DeleteHandlerTest extends AbstractTestBase {
 
     @Mock
-    private AmazonWebServicesClientProxy proxy;
+    private IoTFleetHubClient client;
 
     @Mock
-    private Logger logger;
+    private LoggerProxy logger;
 
     private AutoCloseable closeable;
 
+    private AmazonWebServicesClientProxy proxy;
+
+    private ProxyClient<IoTFleetHubClient> proxyClient;
+
     private DeleteHandler handler;
 
     @BeforeEach
     public void setup() {
         closeable = MockitoAnnotations.openMocks(this);
+        proxy = newProxy(logger);
+        proxyClient = MOCK_PROXY(proxy, client);
         handler = new DeleteHandler();
     }
 
     @AfterEach
     public void tear_down() throws Exception {
-        verifyNoMoreInteractions(proxy);
+        // The call chain reads the service name to key its state in the CallbackContext
+        verify(client, atLeast(0)).serviceName();
+        verifyNoMoreInteractions(client);
         closeable.close();
     }
 
-    @Test
-    public void handleRequest_Simple_Success() {
+    private ResourceHandlerRequest<ResourceModel> simpleRequest() {
         ResourceModel model = ResourceModel.builder()
                 .applicationId(APPLICATION_ID)
                 .build();
 
-        ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+        return ResourceHandlerRequest.<ResourceModel>builder()
                 .desiredResourceState(model)
                 .clientRequestToken(CLIENT_TOKEN)
                 .build();
+    }
 
-        ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, null, logger);
+    private static DescribeApplicationResponse describeResponse(ApplicationState state) {
+        return DescribeApplicationResponse.builder()
+                .applicationId(APPLICATION_ID)
+                .applicationState(state)
+                .errorMessage(ERROR_MESSAGE)
+                .build();
+    }
+
+    @Test
+    public void handleRequest_Simple_Success() {
+        ResourceHandlerRequest<ResourceModel> request = simpleRequest();
+
+        when(client.describeApplication(any(DescribeApplicationRequest.class)))
+                .thenReturn(describeResponse(ApplicationState.ACTIVE), describeResponse(ApplicationState.DELETING));
+        when(client.deleteApplication(any(DeleteApplicationRequest.class)))
+                .thenReturn(DeleteApplicationResponse.builder().build());
+
+        ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
+
+        // Application is still DELETING, so the handler hands back a callback instead of reporting SUCCESS
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(response.getCallbackDelaySeconds())
+                .isEqualTo((int) BackoffPolicy.STABILIZATION.getMinDelay().getSeconds());
+
+        ArgumentCaptor<DeleteApplicationRequest> requestCaptor = ArgumentCaptor.forClass(DeleteApplicationRequest.class);
+        verify(client).deleteApplication(requestCaptor.capture());
+        assertThat(requestCaptor.getValue().applicationId()).isEqualTo(APPLICATION_ID);
+        assertThat(requestCaptor.getValue().clientToken()).isEqualTo(CLIENT_TOKEN);
+        verify(client, times(2)).describeApplication(any(DescribeApplicationRequest.class));
+    }
+
+    @Test
+    public void handleRequest_Callback_DoesNotDeleteAgain() {
+        ResourceHandlerRequest<ResourceModel> request = simpleRequest();
+
+        when(client.describeApplication(any(DescribeApplicationRequest.class)))
+                .thenReturn(describeResponse(ApplicationState.ACTIVE), describeResponse(ApplicationState.DELETING))
+                .thenThrow(ResourceNotFoundException.builder().build());
+        when(client.deleteApplication(any(DeleteApplicationRequest.class)))
+                .thenReturn(DeleteApplicationResponse.builder().build());
+
+        ProgressEvent<ResourceModel, CallbackContext> first =
+                handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
+        assertThat(first.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+
+        ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, request, first.getCallbackContext(), proxyClient, logger);
 
         ProgressEvent<ResourceModel, CallbackContext> expectedResponse = ProgressEvent.<ResourceModel, CallbackContext>builder()
                 .status(OperationStatus.SUCCESS)
                 .callbackDelaySeconds(0)
                 .build();
         assertThat(response).isEqualTo(expectedResponse);
+        verify(client, times(1)).deleteApplication(any(DeleteApplicationRequest.class));
+        verify(client, times(3)).describeApplication(any(DescribeApplicationRequest.class));
+    }
+
+    @Test
+    public void handleRequest_AlreadyDeleting_SkipsDelete() {
+        ResourceHandlerRequest<ResourceModel> request = simpleRequest();
+
+        when(client.describeApplication(any(DescribeApplicationRequest.class)))
+                .thenReturn(describeResponse(ApplicationState.DELETING));
 
-        ArgumentCaptor<IoTFleetHubRequest> requestCaptor = ArgumentCaptor.forClass(DeleteApplicationRequest.class);
-        verify(proxy, times(1)).injectCredentialsAndInvokeV2(requestCaptor.capture(), any());
+        ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
 
-        DeleteApplicationRequest deleteRequest = (DeleteApplicationRequest) requestCaptor.getAllValues().get(0);
-        assertThat(deleteRequest.applicationId()).isEqualTo(APPLICATION_ID);
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        verify(client, never()).deleteApplication(any(DeleteApplicationRequest.class));
+        verify(client, times(2)).describeApplication(any(DescribeApplicationRequest.class));
+    }
+
+    @Test
+    public void handleRequest_DeleteError_Failure() {
+        ResourceHandlerRequest<ResourceModel> request = simpleRequest();
+
+        when(client.describeApplication(any(DescribeApplicationRequest.class)))
+                .thenReturn(describeResponse(ApplicationState.ACTIVE));
+        when(client.deleteApplication(any(DeleteApplicationRequest.class)))
+                .thenThrow(InvalidRequestException.builder().build());
+
+        ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.InvalidRequest);
+        verify(client).describeApplication(any(DescribeApplicationRequest.class));
+        verify(client).deleteApplication(any(DeleteApplicationRequest.class));
+    }
+
+    @Test
+    public void handleRequest_InternalFailure_RetriesWithBackoff() {
+        ResourceHandlerRequest<ResourceModel> request = simpleRequest();
+
+        when(client.describeApplication(any(DescribeApplicationRequest.class)))
+                .thenReturn(describeResponse(ApplicationState.ACTIVE));
+        when(client.deleteApplication(any(DeleteApplicationRequest.class)))
+                .thenThrow(InternalFailureException.builder().build());
+
+        ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        verify(client).describeApplication(any(DescribeApplicationRequest.class));
+        verify(client).deleteApplication(any(DeleteApplicationRequest.class));
+    }
+
+    @Test
+    public void handleRequest_Stabilize_NotFound_Success() {
+        ResourceHandlerRequest<ResourceModel> request = simpleRequest();
+
+        when(client.describeApplication(any(DescribeApplicationRequest.class)))
+                .thenReturn(describeResponse(ApplicationState.ACTIVE))
+                .thenThrow(ResourceNotFoundException.builder().build());
+        when(client.deleteApplication(any(DeleteApplicationRequest.class)))
+                .thenReturn(DeleteApplicationResponse.builder().build());
+
+        ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModel()).isNull();
+        verify(client).deleteApplication(any(DeleteApplicationRequest.class));
+        verify(client, times(2)).describeApplication(any(DescribeApplicationRequest.class));
+    }
+
+    @Test
+    public void handleRequest_Stabilize_DeleteFailed_Failure() {
+        ResourceHandlerRequest<ResourceModel> request = simpleRequest();
+
+        when(client.describeApplication(any(DescribeApplicationRequest.class)))
+                .thenReturn(describeResponse(ApplicationState.ACTIVE), describeResponse(ApplicationState.DELETE_FAILED));
+        when(client.deleteApplication(any(DeleteApplicationRequest.class)))
+                .thenReturn(DeleteApplicationResponse.builder().build());
+
+        ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.NotStabilized);
+        assertThat(response.getMessage()).isEqualTo(ERROR_MESSAGE);
+        verify(client).deleteApplication(any(DeleteApplicationRequest.class));
+        verify(client, times(2)).describeApplication(any(DescribeApplicationRequest.class));
+    }
+
+    @Test
+    public void handleRequest_Stabilize_TimedOut_Failure() {
+        ResourceHandlerRequest<ResourceModel> request = simpleRequest();
+
+        when(client.describeApplication(any(DescribeApplicationRequest.class)))
+                .thenReturn(describeResponse(ApplicationState.DELETING));
+
+        // Keep calling back until the stabilization backoff gives up
+        CallbackContext context = new CallbackContext();
+        ProgressEvent<ResourceModel, CallbackContext> response;
+        int invocations = 0;
+        do {
+            response = handler.handleRequest(proxy, request, context, proxyClient, logger);
+            context = response.getCallbackContext();
+            invocations++;
+        } while (response.isInProgress() && invocations < 100);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.NotStabilized);
+        verify(client, never()).deleteApplication(any(DeleteApplicationRequest.class));
+        verify(client, times(invocations + 1)).describeApplication(any(DescribeApplicationRequest.class));
+    }
+
+    @Test
+    public void handleRequest_Stabilize_DescribeError_Failure() {
+        ResourceHandlerRequest<ResourceModel> request = simpleRequest();
+
+        when(client.describeApplication(any(DescribeApplicationRequest.class)))
+                .thenReturn(describeResponse(ApplicationState.ACTIVE))
+                .thenThrow(InvalidRequestException.builder().build());
+        when(client.deleteApplication(any(DeleteApplicationRequest.class)))
+                .thenReturn(DeleteApplicationResponse.builder().build());
+
+        ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.InvalidRequest);
+        verify(client).deleteApplication(any(DeleteApplicationRequest.class));
+        verify(client, times(2)).describeApplication(any(DescribeApplicationRequest.class));
     }
 
     @Test
@@ -128,24 +311,19 @@ public class DeleteHandlerTest {
 
     @Test
     public void handleRequest_AppNotFound_Failure() {
-        ResourceModel model = ResourceModel.builder()
-                .applicationId(APPLICATION_ID)
-                .build();
+        ResourceHandlerRequest<ResourceModel> request = simpleRequest();
 
-        ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
-                .desiredResourceState(model)
-                .clientRequestToken(CLIENT_TOKEN)
-                .build();
-
-        when(proxy.injectCredentialsAndInvokeV2(any(), any()))
+        when(client.describeApplication(any(DescribeApplicationRequest.class)))
                 .thenThrow(ResourceNotFoundException.builder().build());
 
-        ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, null, logger);
+        ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
 
         assertThat(response).isNotNull();
         assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
         assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.NotFound);
         assertThat(response.getMessage()).isNull();
+        verify(client).describeApplication(any(DescribeApplicationRequest.class));
     }
 
     @Test
@@ -0,0 +1,220 @@
+package software.amazon.iotfleethub.application;
+
+import software.amazon.awssdk.services.iotfleethub.IoTFleetHubClient;
+import software.amazon.awssdk.services.iotfleethub.model.ApplicationState;
+import software.amazon.awssdk.services.iotfleethub.model.CreateApplicationRequest;
+import software.amazon.awssdk.services.iotfleethub.model.CreateApplicationResponse;
+import software.amazon.awssdk.services.iotfleethub.model.DescribeApplicationRequest;
+import software.amazon.awssdk.services.iotfleethub.model.DescribeApplicationResponse;
+import software.amazon.awssdk.services.iotfleethub.model.InvalidRequestException;
+import software.amazon.awssdk.services.iotfleethub.model.TagResourceRequest;
+import software.amazon.awssdk.services.iotfleethub.model.TagResourceResponse;
+import software.amazon.awssdk.services.iotfleethub.model.UntagResourceRequest;
+import software.amazon.awssdk.services.iotfleethub.model.UntagResourceResponse;
+import software.amazon.awssdk.services.iotfleethub.model.UpdateApplicationRequest;
+import software.amazon.cloudformation.proxy.LoggerProxy;
+import software.amazon.cloudformation.proxy.ProxyClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import static software.amazon.iotfleethub.application.TestConstants.APPLICATION_ARN;
+import static software.amazon.iotfleethub.application.TestConstants.APPLICATION_ID;
+import static software.amazon.iotfleethub.application.TestConstants.APPLICATION_ID_2;
+import static software.amazon.iotfleethub.application.TestConstants.APPLICATION_NAME;
+
+@ExtendWith(MockitoExtension.class)
+public class DescribeCacheTest extends AbstractTestBase {
+
+    private static final Duration TTL = Duration.ofSeconds(10);
+
+    private static final String ACCOUNT_ID = "123456789012";
+
+    @Mock
+    private IoTFleetHubClient client;
+
+    @Mock
+    private LoggerProxy logger;
+
+    private AutoCloseable closeable;
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private DescribeCache cache;
+
+    private ProxyClient<IoTFleetHubClient> proxyClient;
+
+    @BeforeEach
+    public void setup() {
+        closeable = MockitoAnnotations.openMocks(this);
+        cache = new DescribeCache(TTL, 2, nanos::get);
+        proxyClient = cache.wrap(MOCK_PROXY(newProxy(logger), client), ACCOUNT_ID, "Read", logger);
+    }
+
+    @AfterEach
+    public void tear_down() throws Exception {
+        closeable.close();
+    }
+
+    private static DescribeApplicationResponse describeResponse(String applicationId, ApplicationState state) {
+        return DescribeApplicationResponse.builder()
+                .applicationId(applicationId)
+                .applicationName(APPLICATION_NAME)
+                .applicationState(state)
+                .build();
+    }
+
+    private DescribeApplicationResponse describe(String applicationId) {
+        return proxyClient.injectCredentialsAndInvokeV2(
+                DescribeApplicationRequest.builder().applicationId(applicationId).build(),
+                proxyClient.client()::describeApplication);
+    }
+
+    @Test
+    public void describe_ActiveApplication_ServedUntilTtlExpires() {
+        when(client.describeApplication(any(DescribeApplicationRequest.class)))
+                .thenReturn(describeResponse(APPLICATION_ID, ApplicationState.ACTIVE));
+
+        DescribeApplicationResponse first = describe(APPLICATION_ID);
+        nanos.addAndGet(TTL.toNanos() - 1);
+        assertThat(describe(APPLICATION_ID)).isSameAs(first);
+        nanos.incrementAndGet();
+        describe(APPLICATION_ID);
+
+        assertThat(cache.getHits()).isEqualTo(1);
+        assertThat(cache.getMisses()).isEqualTo(2);
+        verify(client, times(2)).describeApplication(any(DescribeApplicationRequest.class));
+    }
+
+    @Test
+    public void describe_OtherAccount_NotServedFromCache() {
+        when(client.describeApplication(any(DescribeApplicationRequest.class)))
+                .thenReturn(describeResponse(APPLICATION_ID, ApplicationState.ACTIVE));
+        ProxyClient<IoTFleetHubClient> otherAccount =
+                cache.wrap(MOCK_PROXY(newProxy(logger), client), "210987654321", "Read", logger);
+
+        describe(APPLICATION_ID);
+        otherAccount.injectCredentialsAndInvokeV2(DescribeApplicationRequest.builder().applicationId(APPLICATION_ID).build(),
+                otherAccount.client()::describeApplication);
+
+        assertThat(cache.getHits()).isZero();
+        assertThat(cache.size()).isEqualTo(2);
+        verify(client, times(2)).describeApplication(any(DescribeApplicationRequest.class));
+    }
+
+    @Test
+    public void describe_TransitionalState_NotCached() {
+        when(client.describeApplication(any(DescribeApplicationRequest.class)))
+                .thenReturn(describeResponse(APPLICATION_ID, ApplicationState.CREATING));
+
+        describe(APPLICATION_ID);
+        describe(APPLICATION_ID);
+
+        assertThat(cache.getHits()).isZero();
+        assertThat(cache.size()).isZero();
+        verify(client, times(2)).describeApplication(any(DescribeApplicationRequest.class));
+    }
+
+    @Test
+    public void writes_InvalidateTheirApplication() {
+        when(client.describeApplication(any(DescribeApplicationRequest.class)))
+                .thenReturn(describeResponse(APPLICATION_ID, ApplicationState.ACTIVE));
+        when(client.tagResource(any(TagResourceRequest.class))).thenReturn(TagResourceResponse.builder().build());
+        when(client.untagResource(any(UntagResourceRequest.class))).thenReturn(UntagResourceResponse.builder().build());
+        when(client.updateApplication(any(UpdateApplicationRequest.class)))
+                .thenThrow(InvalidRequestException.builder().message("Invalid request").build());
+
+        describe(APPLICATION_ID);
+        proxyClient.injectCredentialsAndInvokeV2(TagResourceRequest.builder().resourceArn(APPLICATION_ARN).build(),
+                proxyClient.client()::tagResource);
+        assertThat(cache.size()).isZero();
+
+        describe(APPLICATION_ID);
+        proxyClient.injectCredentialsAndInvokeV2Async(UntagResourceRequest.builder().resourceArn(APPLICATION_ARN).build(),
+                request -> CompletableFuture.completedFuture(client.untagResource(request))).join();
+        assertThat(cache.size()).isZero();
+
+        // A failed write may still have changed the Application
+        describe(APPLICATION_ID);
+        assertThatThrownBy(() -> proxyClient.injectCredentialsAndInvokeV2(
+                UpdateApplicationRequest.builder().applicationId(APPLICATION_ID).build(),
+                proxyClient.client()::updateApplication)).isInstanceOf(InvalidRequestException.class);
+        assertThat(cache.size()).isZero();
+
+        assertThat(cache.getHits()).isZero();
+        verify(client, times(3)).describeApplication(any(DescribeApplicationRequest.class));
+    }
+
+    @Test
+    public void describe_WriteWhileInFlight_NotCached() {
+        String key = DescribeCache.key(ACCOUNT_ID, APPLICATION_ID);
+        DescribeApplicationResponse response = cache.describe(key, () -> {
+            cache.invalidate(key);
+            return describeResponse(APPLICATION_ID, ApplicationState.ACTIVE);
+        }, "Read", logger);
+
+        assertThat(response.applicationId()).isEqualTo(APPLICATION_ID);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    public void describe_WriteToOtherApplicationWhileInFlight_Cached() {
+        String key = DescribeCache.key(ACCOUNT_ID, APPLICATION_ID);
+        cache.describe(key, () -> {
+            cache.invalidate(DescribeCache.key(ACCOUNT_ID, "other-application"));
+            cache.invalidate(DescribeCache.key("111111111111", APPLICATION_ID));
+            return describeResponse(APPLICATION_ID, ApplicationState.ACTIVE);
+        }, "Read", logger);
+
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void describe_Full_EvictsExpiredEntriesOnly() {
+        when(client.describeApplication(any(DescribeApplicationRequest.class))).thenAnswer(invocation ->
+                describeResponse(invocation.getArgument(0, DescribeApplicationRequest.class).applicationId(), ApplicationState.ACTIVE));
+
+        describe(APPLICATION_ID);
+        nanos.addAndGet(TTL.toNanos());
+        describe(APPLICATION_ID_2);
+        describe("app3");
+        assertThat(cache.size()).isEqualTo(2);
+
+        // Both entries are live, so a fourth Application is described but not cached
+        describe("app4");
+        assertThat(cache.size()).isEqualTo(2);
+        describe("app4");
+        assertThat(cache.getHits()).isZero();
+    }
+
+    @Test
+    public void wrap_Disabled_ReturnsProxyClient() {
+        ProxyClient<IoTFleetHubClient> unwrapped = MOCK_PROXY(newProxy(logger), client);
+
+        assertThat(new DescribeCache(Duration.ZERO, 2, nanos::get).wrap(unwrapped, ACCOUNT_ID, "Read", logger))
+                .isSameAs(unwrapped);
+        assertThat(cache.wrap(unwrapped, null, "Read", logger)).isSameAs(unwrapped);
+    }
+
+    @Test
+    public void applicationId_CreateResponse() {
+        assertThat(DescribeCache.applicationId(CreateApplicationRequest.builder().build(),
+                CreateApplicationResponse.builder().applicationId(APPLICATION_ID).build())).isEqualTo(APPLICATION_ID);
+        assertThat(DescribeCache.applicationId(CreateApplicationRequest.builder().build(), null)).isNull();
+    }
+}
@@ -0,0 +1,133 @@
+package software.amazon.iotfleethub.application;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import software.amazon.cloudformation.proxy.HandlerErrorCode;
+import software.amazon.cloudformation.proxy.Logger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class ErrorLoggerTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    // Occurrences are counted per exception class for the whole container, so each test uses its own class
+    private static class SampledException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        SampledException(String message) {
+            super(message);
+        }
+    }
+
+    private static class UnexpectedException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        UnexpectedException(String message) {
+            super(message);
+        }
+    }
+
+    @Mock
+    private Logger logger;
+
+    private AutoCloseable closeable;
+
+    @BeforeEach
+    public void setup() {
+        closeable = MockitoAnnotations.openMocks(this);
+    }
+
+    @AfterEach
+    public void tear_down() throws Exception {
+        closeable.close();
+    }
+
+    private List<String> loggedLines(int count) {
+        ArgumentCaptor<String> lines = ArgumentCaptor.forClass(String.class);
+        verify(logger, times(count)).log(lines.capture());
+        return lines.getAllValues();
+    }
+
+    @Test
+    public void logException_Expected_SampledAtPowersOfTwo() throws Exception {
+        ErrorLogger errorLogger = new ErrorLogger(logger);
+        for (int i = 0; i < 10; i++) {
+            errorLogger.logException(new SampledException("not found"), HandlerErrorCode.NotFound, false);
+        }
+
+        // Occurrences 1, 2, 4 and 8
+        List<String> lines = loggedLines(4);
+        JsonNode last = MAPPER.readTree(lines.get(3));
+        assertThat(last.get("level").asText()).isEqualTo("WARN");
+        assertThat(last.get("errorCode").asText()).isEqualTo("NotFound");
+        assertThat(last.get("exception").asText()).isEqualTo(SampledException.class.getName());
+        assertThat(last.get("occurrences").asLong()).isEqualTo(8);
+        assertThat(last.has("stackTrace")).isFalse();
+    }
+
+    @Test
+    public void logException_Unexpected_AlwaysLoggedWithSampledStackTrace() throws Exception {
+        ErrorLogger errorLogger = new ErrorLogger(logger);
+        for (int i = 0; i < 3; i++) {
+            errorLogger.logException(new UnexpectedException("boom"), HandlerErrorCode.InternalFailure, true);
+        }
+
+        List<String> lines = loggedLines(3);
+        assertThat(MAPPER.readTree(lines.get(0)).get("stackTrace").asText()).contains("UnexpectedException: boom");
+        assertThat(MAPPER.readTree(lines.get(1)).has("stackTrace")).isTrue();
+        assertThat(MAPPER.readTree(lines.get(2)).has("stackTrace")).isFalse();
+        assertThat(MAPPER.readTree(lines.get(2)).get("level").asText()).isEqualTo("ERROR");
+    }
+
+    @Test
+    public void logBudgeted_BudgetSpent_SkipsFormatting() {
+        ErrorLogger errorLogger = new ErrorLogger(logger, 10);
+        errorLogger.logBudgeted(() -> "12345");
+        errorLogger.logBudgeted(() -> "123456");
+        errorLogger.logBudgeted(() -> {
+            throw new AssertionError("Formatted after the budget was spent");
+        });
+        errorLogger.log("plain lines are not budgeted");
+
+        List<String> lines = loggedLines(3);
+        assertThat(lines.get(0)).isEqualTo("12345");
+        assertThat(lines.get(1)).contains("budget of 10 bytes spent");
+        assertThat(lines.get(2)).isEqualTo("plain lines are not budgeted");
+        assertThat(errorLogger.getSuppressed()).isEqualTo(2);
+    }
+
+    @Test
+    public void logBudgeted_CountsUtf8Bytes() {
+        ErrorLogger errorLogger = new ErrorLogger(logger, 10);
+        // Five characters, but ten bytes in UTF-8
+        errorLogger.logBudgeted(() -> "\u00e9\u00e9\u00e9\u00e9\u00e9");
+        errorLogger.logBudgeted(() -> "e");
+
+        List<String> lines = loggedLines(2);
+        assertThat(lines.get(0)).isEqualTo("\u00e9\u00e9\u00e9\u00e9\u00e9");
+        assertThat(lines.get(1)).contains("budget of 10 bytes spent");
+        assertThat(errorLogger.getSuppressed()).isEqualTo(1);
+    }
+
+    @Test
+    public void of_ReusesInvocationLogger() {
+        ErrorLogger errorLogger = new ErrorLogger(logger);
+
+        assertThat(ErrorLogger.of(errorLogger)).isSameAs(errorLogger);
+        assertThat(ErrorLogger.of(logger)).isNotSameAs(errorLogger);
+    }
+}
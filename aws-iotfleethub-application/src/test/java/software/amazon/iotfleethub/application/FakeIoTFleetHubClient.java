@@ -0,0 +1,411 @@
+package software.amazon.iotfleethub.application;
+
+import software.amazon.awssdk.services.iotfleethub.IoTFleetHubAsyncClient;
+import software.amazon.awssdk.services.iotfleethub.IoTFleetHubClient;
+import software.amazon.awssdk.services.iotfleethub.model.ApplicationState;
+import software.amazon.awssdk.services.iotfleethub.model.ApplicationSummary;
+import software.amazon.awssdk.services.iotfleethub.model.ConflictException;
+import software.amazon.awssdk.services.iotfleethub.model.CreateApplicationRequest;
+import software.amazon.awssdk.services.iotfleethub.model.CreateApplicationResponse;
+import software.amazon.awssdk.services.iotfleethub.model.DeleteApplicationRequest;
+import software.amazon.awssdk.services.iotfleethub.model.DeleteApplicationResponse;
+import software.amazon.awssdk.services.iotfleethub.model.DescribeApplicationRequest;
+import software.amazon.awssdk.services.iotfleethub.model.DescribeApplicationResponse;
+import software.amazon.awssdk.services.iotfleethub.model.InternalFailureException;
+import software.amazon.awssdk.services.iotfleethub.model.InvalidRequestException;
+import software.amazon.awssdk.services.iotfleethub.model.ListApplicationsRequest;
+import software.amazon.awssdk.services.iotfleethub.model.ListApplicationsResponse;
+import software.amazon.awssdk.services.iotfleethub.model.ListTagsForResourceRequest;
+import software.amazon.awssdk.services.iotfleethub.model.ListTagsForResourceResponse;
+import software.amazon.awssdk.services.iotfleethub.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.iotfleethub.model.TagResourceRequest;
+import software.amazon.awssdk.services.iotfleethub.model.TagResourceResponse;
+import software.amazon.awssdk.services.iotfleethub.model.ThrottlingException;
+import software.amazon.awssdk.services.iotfleethub.model.UntagResourceRequest;
+import software.amazon.awssdk.services.iotfleethub.model.UntagResourceResponse;
+import software.amazon.awssdk.services.iotfleethub.model.UpdateApplicationRequest;
+import software.amazon.awssdk.services.iotfleethub.model.UpdateApplicationResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Stateful, in-memory stand-in for the IoT Fleet Hub API, for handler tests, benchmarks and load tests.
+ *
+ * Applications move from CREATING to ACTIVE, and from DELETING to gone, once stateTransitionDelay has passed on
+ * nanoClock. Tags are kept per ApplicationArn and ListApplications is paginated by pageSize. Every call first
+ * waits for a sample of latency, then may fail with ThrottlingException, ConflictException or
+ * InternalFailureException at the configured rates, drawn from a seeded Random so runs are repeatable.
+ */
+@lombok.Builder
+public class FakeIoTFleetHubClient implements IoTFleetHubClient {
+
+    static final String ACCOUNT_ID = "123456789012";
+    static final String REGION = "us-east-1";
+
+    @lombok.Builder.Default
+    private final Duration stateTransitionDelay = Duration.ZERO;
+    @lombok.Builder.Default
+    private final int pageSize = 10;
+    @lombok.Builder.Default
+    private final Supplier<Duration> latency = () -> Duration.ZERO;
+    @lombok.Builder.Default
+    private final double throttleRate = 0;
+    @lombok.Builder.Default
+    private final double conflictRate = 0;
+    @lombok.Builder.Default
+    private final double internalFailureRate = 0;
+    @lombok.Builder.Default
+    private final LongSupplier nanoClock = System::nanoTime;
+    @lombok.Builder.Default
+    private final Random random = new Random(42);
+
+    // Applications by ApplicationId, sorted so ListApplications pages are stable
+    private final ConcurrentSkipListMap<String, Application> applications = new ConcurrentSkipListMap<>();
+    private final ConcurrentMap<String, String> applicationIdsByClientToken = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<RuntimeException> injectedFailures = new ConcurrentLinkedQueue<>();
+    private final ConcurrentMap<String, AtomicLong> calls = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, AtomicLong> throttles = new ConcurrentHashMap<>();
+
+    private static class Application {
+        private final String applicationId;
+        private final String applicationArn;
+        private final String roleArn;
+        private final long applicationCreationDate;
+        private final Map<String, String> tags = new HashMap<>();
+        private String applicationName;
+        private String applicationDescription;
+        private long applicationLastUpdateDate;
+        private ApplicationState applicationState = ApplicationState.CREATING;
+        private long stateChangedNanos;
+
+        Application(String applicationId, CreateApplicationRequest request, long nowNanos) {
+            this.applicationId = applicationId;
+            this.applicationArn = String.format("arn:aws:iotfleethub:%s:%s:application/%s", REGION, ACCOUNT_ID, applicationId);
+            this.roleArn = request.roleArn();
+            this.applicationName = request.applicationName();
+            this.applicationDescription = request.applicationDescription();
+            this.applicationCreationDate = System.currentTimeMillis() / 1000;
+            this.applicationLastUpdateDate = applicationCreationDate;
+            this.stateChangedNanos = nowNanos;
+            this.tags.putAll(request.tags());
+        }
+    }
+
+    /**
+     * Fails the next call, whichever operation it is, with the given exception, ahead of any sampled fault.
+     */
+    void failNext(RuntimeException exception) {
+        injectedFailures.add(exception);
+    }
+
+    long getCalls(String operation) {
+        AtomicLong count = calls.get(operation);
+        return count == null ? 0 : count.get();
+    }
+
+    long getTotalCalls() {
+        return calls.values().stream().mapToLong(AtomicLong::get).sum();
+    }
+
+    long getTotalThrottles() {
+        return throttles.values().stream().mapToLong(AtomicLong::get).sum();
+    }
+
+    int getApplicationCount() {
+        return applications.size();
+    }
+
+    /**
+     * Async view of this stand-in: each call runs against the same state on the executor and completes its future
+     * when done, as an IoTFleetHubAsyncClient's would once the response arrives.
+     */
+    IoTFleetHubAsyncClient async(Executor executor) {
+        FakeIoTFleetHubClient fake = this;
+        return new IoTFleetHubAsyncClient() {
+            @Override
+            public CompletableFuture<DescribeApplicationResponse> describeApplication(DescribeApplicationRequest request) {
+                return CompletableFuture.supplyAsync(() -> fake.describeApplication(request), executor);
+            }
+
+            @Override
+            public CompletableFuture<ListApplicationsResponse> listApplications(ListApplicationsRequest request) {
+                return CompletableFuture.supplyAsync(() -> fake.listApplications(request), executor);
+            }
+
+            @Override
+            public CompletableFuture<TagResourceResponse> tagResource(TagResourceRequest request) {
+                return CompletableFuture.supplyAsync(() -> fake.tagResource(request), executor);
+            }
+
+            @Override
+            public CompletableFuture<UntagResourceResponse> untagResource(UntagResourceRequest request) {
+                return CompletableFuture.supplyAsync(() -> fake.untagResource(request), executor);
+            }
+
+            @Override
+            public String serviceName() {
+                return SERVICE_NAME;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    @Override
+    public CreateApplicationResponse createApplication(CreateApplicationRequest request) {
+        call("CreateApplication", true);
+        long now = nanoClock.getAsLong();
+        String applicationId = request.clientToken() == null ? UUID.randomUUID().toString()
+                : applicationIdsByClientToken.computeIfAbsent(request.clientToken(), token -> UUID.randomUUID().toString());
+        Application application = applications.computeIfAbsent(applicationId, id -> new Application(id, request, now));
+        return CreateApplicationResponse.builder()
+                .applicationId(application.applicationId)
+                .applicationArn(application.applicationArn)
+                .build();
+    }
+
+    @Override
+    public DescribeApplicationResponse describeApplication(DescribeApplicationRequest request) {
+        call("DescribeApplication", false);
+        Application application = find(request.applicationId());
+        synchronized (application) {
+            return DescribeApplicationResponse.builder()
+                    .applicationId(application.applicationId)
+                    .applicationArn(application.applicationArn)
+                    .applicationName(application.applicationName)
+                    .applicationDescription(application.applicationDescription)
+                    .applicationUrl(String.format("https://%s.app.iotfleethub.%s.amazonaws.com", application.applicationId, REGION))
+                    .applicationState(application.applicationState)
+                    .applicationCreationDate(application.applicationCreationDate)
+                    .applicationLastUpdateDate(application.applicationLastUpdateDate)
+                    .roleArn(application.roleArn)
+                    .ssoClientId("sso-" + application.applicationId)
+                    .tags(new HashMap<>(application.tags))
+                    .build();
+        }
+    }
+
+    @Override
+    public UpdateApplicationResponse updateApplication(UpdateApplicationRequest request) {
+        call("UpdateApplication", true);
+        Application application = find(request.applicationId());
+        synchronized (application) {
+            requireActive(application);
+            if (request.applicationName() != null) {
+                application.applicationName = request.applicationName();
+            }
+            if (request.applicationDescription() != null) {
+                application.applicationDescription = request.applicationDescription();
+            }
+            application.applicationLastUpdateDate = System.currentTimeMillis() / 1000;
+        }
+        return UpdateApplicationResponse.builder().build();
+    }
+
+    @Override
+    public DeleteApplicationResponse deleteApplication(DeleteApplicationRequest request) {
+        call("DeleteApplication", true);
+        Application application = find(request.applicationId());
+        synchronized (application) {
+            if (application.applicationState != ApplicationState.DELETING) {
+                requireActive(application);
+                application.applicationState = ApplicationState.DELETING;
+                application.stateChangedNanos = nanoClock.getAsLong();
+            }
+        }
+        return DeleteApplicationResponse.builder().build();
+    }
+
+    @Override
+    public ListApplicationsResponse listApplications(ListApplicationsRequest request) {
+        call("ListApplications", false);
+        List<ApplicationSummary> summaries = new ArrayList<>();
+        String fromId = request.nextToken();
+        String nextToken = null;
+        Map<String, Application> page = fromId == null ? applications : applications.tailMap(fromId, true);
+        for (String applicationId : new ArrayList<>(page.keySet())) {
+            Application application;
+            try {
+                application = find(applicationId);
+            } catch (ResourceNotFoundException e) {
+                continue;
+            }
+            if (summaries.size() == pageSize) {
+                nextToken = applicationId;
+                break;
+            }
+            synchronized (application) {
+                summaries.add(ApplicationSummary.builder()
+                        .applicationId(application.applicationId)
+                        .applicationName(application.applicationName)
+                        .applicationDescription(application.applicationDescription)
+                        .applicationUrl(String.format("https://%s.app.iotfleethub.%s.amazonaws.com", application.applicationId, REGION))
+                        .applicationCreationDate(application.applicationCreationDate)
+                        .applicationLastUpdateDate(application.applicationLastUpdateDate)
+                        .applicationState(application.applicationState)
+                        .build());
+            }
+        }
+        return ListApplicationsResponse.builder()
+                .applicationSummaries(summaries)
+                .nextToken(nextToken)
+                .build();
+    }
+
+    @Override
+    public TagResourceResponse tagResource(TagResourceRequest request) {
+        call("TagResource", true);
+        Application application = findByArn(request.resourceArn());
+        synchronized (application) {
+            Map<String, String> tags = new HashMap<>(application.tags);
+            tags.putAll(request.tags());
+            if (tags.size() > TagSet.MAX_TAGS) {
+                throw InvalidRequestException.builder()
+                        .message(String.format("An Application can have at most %d tags.", TagSet.MAX_TAGS))
+                        .statusCode(400)
+                        .build();
+            }
+            application.tags.putAll(request.tags());
+        }
+        return TagResourceResponse.builder().build();
+    }
+
+    @Override
+    public UntagResourceResponse untagResource(UntagResourceRequest request) {
+        call("UntagResource", true);
+        Application application = findByArn(request.resourceArn());
+        synchronized (application) {
+            application.tags.keySet().removeAll(request.tagKeys());
+        }
+        return UntagResourceResponse.builder().build();
+    }
+
+    @Override
+    public ListTagsForResourceResponse listTagsForResource(ListTagsForResourceRequest request) {
+        call("ListTagsForResource", false);
+        Application application = findByArn(request.resourceArn());
+        synchronized (application) {
+            return ListTagsForResourceResponse.builder().tags(new HashMap<>(application.tags)).build();
+        }
+    }
+
+    @Override
+    public String serviceName() {
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    private void call(String operation, boolean mutating) {
+        calls.computeIfAbsent(operation, op -> new AtomicLong()).incrementAndGet();
+
+        Duration delay = latency.get();
+        if (!delay.isZero()) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(delay.toNanos());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        RuntimeException injected = injectedFailures.poll();
+        if (injected != null) {
+            throw injected;
+        }
+
+        double sample;
+        synchronized (random) {
+            sample = random.nextDouble();
+        }
+        if (sample < throttleRate) {
+            throttles.computeIfAbsent(operation, op -> new AtomicLong()).incrementAndGet();
+            throw ThrottlingException.builder().message("Rate exceeded").statusCode(429).build();
+        }
+        sample -= throttleRate;
+        if (mutating && sample < conflictRate) {
+            throw ConflictException.builder().message("Concurrent modification").statusCode(409).build();
+        }
+        sample -= conflictRate;
+        if (sample < internalFailureRate) {
+            throw InternalFailureException.builder().message("Internal failure").statusCode(500).build();
+        }
+    }
+
+    // Applies any state transition that is due, and treats Applications that finished deleting as gone
+    private Application find(String applicationId) {
+        Application application = applicationId == null ? null : applications.get(applicationId);
+        if (application != null) {
+            synchronized (application) {
+                boolean due = nanoClock.getAsLong() - application.stateChangedNanos >= stateTransitionDelay.toNanos();
+                if (due && application.applicationState == ApplicationState.CREATING) {
+                    application.applicationState = ApplicationState.ACTIVE;
+                    application.stateChangedNanos = nanoClock.getAsLong();
+                } else if (due && application.applicationState == ApplicationState.DELETING) {
+                    applications.remove(applicationId);
+                    application = null;
+                }
+            }
+        }
+        if (application == null) {
+            throw ResourceNotFoundException.builder()
+                    .message(String.format("Application %s not found", applicationId))
+                    .statusCode(404)
+                    .build();
+        }
+        return application;
+    }
+
+    private Application findByArn(String applicationArn) {
+        String prefix = String.format("arn:aws:iotfleethub:%s:%s:application/", REGION, ACCOUNT_ID);
+        if (applicationArn == null || !applicationArn.startsWith(prefix)) {
+            throw InvalidRequestException.builder().message("Invalid resource ARN").statusCode(400).build();
+        }
+        return find(applicationArn.substring(prefix.length()));
+    }
+
+    private static void requireActive(Application application) {
+        if (application.applicationState != ApplicationState.ACTIVE) {
+            throw ConflictException.builder()
+                    .message(String.format("Application %s is %s", application.applicationId, application.applicationState))
+                    .statusCode(409)
+                    .build();
+        }
+    }
+
+    /**
+     * Latency samples drawn from a log-normal distribution with the given median and 99th percentile.
+     */
+    static Supplier<Duration> logNormalLatency(Duration median, Duration p99, long seed) {
+        Random random = new Random(seed);
+        double mu = Math.log(median.toNanos());
+        // 2.326 is the standard normal 99th percentile
+        double sigma = (Math.log(p99.toNanos()) - mu) / 2.326;
+        return () -> {
+            double gaussian;
+            synchronized (random) {
+                gaussian = random.nextGaussian();
+            }
+            return Duration.ofNanos((long) Math.exp(mu + sigma * gaussian));
+        };
+    }
+}
@@ -0,0 +1,307 @@
+package software.amazon.iotfleethub.application;
+
+import com.google.common.collect.ImmutableMap;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.iotfleethub.IoTFleetHubAsyncClient;
+import software.amazon.awssdk.services.iotfleethub.IoTFleetHubClient;
+import software.amazon.awssdk.services.iotfleethub.model.InternalFailureException;
+import software.amazon.awssdk.services.iotfleethub.model.ThrottlingException;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.HandlerErrorCode;
+import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.LoggerProxy;
+import software.amazon.cloudformation.proxy.OperationStatus;
+import software.amazon.cloudformation.proxy.ProgressEvent;
+import software.amazon.cloudformation.proxy.ProxyClient;
+import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static software.amazon.iotfleethub.application.TestConstants.APPLICATION_DESCRIPTION;
+import static software.amazon.iotfleethub.application.TestConstants.APPLICATION_NAME;
+import static software.amazon.iotfleethub.application.TestConstants.APPLICATION_NAME_2;
+import static software.amazon.iotfleethub.application.TestConstants.CLIENT_TOKEN;
+import static software.amazon.iotfleethub.application.TestConstants.MODEL_TAG_MAP;
+import static software.amazon.iotfleethub.application.TestConstants.MODEL_TAG_MAP_2;
+import static software.amazon.iotfleethub.application.TestConstants.ROLE_ARN;
+
+/**
+ * Runs the handlers end to end against FakeIoTFleetHubClient instead of per-call mocks.
+ */
+public class FakeIoTFleetHubClientTest extends AbstractTestBase {
+
+    private final LoggerProxy logger = new LoggerProxy();
+    private final AtomicLong nanos = new AtomicLong();
+
+    private FakeIoTFleetHubClient client;
+    private AmazonWebServicesClientProxy proxy;
+    private ProxyClient<IoTFleetHubClient> proxyClient;
+
+    @BeforeEach
+    public void setup() {
+        client = FakeIoTFleetHubClient.builder()
+                .stateTransitionDelay(Duration.ofSeconds(30))
+                .pageSize(10)
+                .nanoClock(nanos::get)
+                .build();
+        proxy = newProxy(logger);
+        proxyClient = MOCK_PROXY(proxy, client);
+    }
+
+    private ProgressEvent<ResourceModel, CallbackContext> create() {
+        ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(ResourceModel.builder()
+                        .applicationName(APPLICATION_NAME)
+                        .applicationDescription(APPLICATION_DESCRIPTION)
+                        .roleArn(ROLE_ARN)
+                        .build())
+                .desiredResourceTags(MODEL_TAG_MAP)
+                .clientRequestToken(CLIENT_TOKEN)
+                .build();
+
+        ProgressEvent<ResourceModel, CallbackContext> response =
+                new CreateHandler().handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
+        while (response.isInProgress()) {
+            nanos.addAndGet(TimeUnit.SECONDS.toNanos(response.getCallbackDelaySeconds()));
+            response = new CreateHandler().handleRequest(proxy, request, response.getCallbackContext(), proxyClient, logger);
+        }
+        return response;
+    }
+
+    @Test
+    public void lifecycle_CreateReadUpdateDelete() {
+        ProgressEvent<ResourceModel, CallbackContext> created = create();
+        assertThat(created.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        ResourceModel model = created.getResourceModel();
+        assertThat(model.getApplicationId()).isNotNull();
+        assertThat(client.getCalls("CreateApplication")).isEqualTo(1);
+
+        ResourceModel read = new ReadHandler().handleRequest(proxy, ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(model).build(), new CallbackContext(), proxyClient, logger).getResourceModel();
+        assertThat(read.getApplicationState()).isEqualTo("ACTIVE");
+        assertThat(read.getTags()).isEqualTo(TagSet.of(MODEL_TAG_MAP).toModelTags());
+
+        // The planner takes the ApplicationArn and current tags from the previous state, so no Describe is needed
+        long describeCalls = client.getCalls("DescribeApplication");
+        ResourceModel desired = Translator.translateFromReadResponse(proxyClient.client().describeApplication(
+                Translator.translateToDescribeRequest(read)));
+        describeCalls++;
+        desired.setApplicationName(APPLICATION_NAME_2);
+        desired.setTags(null);
+        ProgressEvent<ResourceModel, CallbackContext> updated = new UpdateHandler().handleRequest(proxy,
+                ResourceHandlerRequest.<ResourceModel>builder()
+                        .previousResourceState(read)
+                        .desiredResourceState(desired)
+                        .desiredResourceTags(MODEL_TAG_MAP_2)
+                        .clientRequestToken(CLIENT_TOKEN)
+                        .build(), new CallbackContext(), proxyClient, logger);
+        assertThat(updated.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(client.getCalls("DescribeApplication")).isEqualTo(describeCalls);
+        assertThat(client.getCalls("UpdateApplication")).isEqualTo(1);
+        assertThat(client.getCalls("TagResource")).isEqualTo(1);
+        assertThat(client.getCalls("UntagResource")).isEqualTo(1);
+
+        ResourceModel reread = new ReadHandler().handleRequest(proxy, ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(desired).build(), new CallbackContext(), proxyClient, logger).getResourceModel();
+        assertThat(reread.getApplicationName()).isEqualTo(APPLICATION_NAME_2);
+        assertThat(reread.getTags()).isEqualTo(TagSet.of(MODEL_TAG_MAP_2).toModelTags());
+
+        ResourceHandlerRequest<ResourceModel> deleteRequest = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(ResourceModel.builder().applicationId(model.getApplicationId()).build())
+                .clientRequestToken(CLIENT_TOKEN)
+                .build();
+        ProgressEvent<ResourceModel, CallbackContext> deleted =
+                new DeleteHandler().handleRequest(proxy, deleteRequest, new CallbackContext(), proxyClient, logger);
+        assertThat(deleted.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        deleted = new DeleteHandler().handleRequest(proxy, deleteRequest, deleted.getCallbackContext(), proxyClient, logger);
+        assertThat(deleted.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(client.getApplicationCount()).isZero();
+    }
+
+    @Test
+    public void create_StaysInProgressUntilActive() {
+        ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(ResourceModel.builder().applicationName(APPLICATION_NAME).roleArn(ROLE_ARN).build())
+                .clientRequestToken(CLIENT_TOKEN)
+                .build();
+
+        ProgressEvent<ResourceModel, CallbackContext> response =
+                new CreateHandler().handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+
+        // Not due yet: still CREATING
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        response = new CreateHandler().handleRequest(proxy, request, response.getCallbackContext(), proxyClient, logger);
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(20));
+        response = new CreateHandler().handleRequest(proxy, request, response.getCallbackContext(), proxyClient, logger);
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(client.getCalls("CreateApplication")).isEqualTo(1);
+        assertThat(client.getCalls("DescribeApplication")).isEqualTo(3);
+    }
+
+    @Test
+    public void read_InjectedThrottle_RetriedWithinInvocation() {
+        ResourceModel model = create().getResourceModel();
+        ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(model)
+                .build();
+        client.failNext(ThrottlingException.builder().message("Rate exceeded").statusCode(429).build());
+
+        ProgressEvent<ResourceModel, CallbackContext> response =
+                new ReadHandler().handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModel().getApplicationId()).isEqualTo(model.getApplicationId());
+    }
+
+    @Test
+    public void read_Outage_CircuitFailsFastUntilProbeSucceeds() {
+        ResourceModel model = create().getResourceModel();
+        ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(model)
+                .build();
+        CircuitBreakers breakers = new CircuitBreakers(true, operation ->
+                new CircuitBreaker(operation, 0.5, 4, 2, Duration.ofSeconds(30), nanos::get));
+        ProxyClient<IoTFleetHubClient> guarded = breakers.wrap(proxyClient, logger);
+        for (int i = 0; i < 2; i++) {
+            client.failNext(InternalFailureException.builder().message("Internal failure").statusCode(500).build());
+        }
+
+        // Two failed describes, not retried in place, fail their Reads and open the circuit for DescribeApplication
+        ReadHandler noRetries = new ReadHandler() {
+            @Override
+            BackoffPolicy inInvocationRetries() {
+                return BackoffPolicy.builder().maxAttempts(0).build();
+            }
+        };
+        for (int i = 0; i < 2; i++) {
+            ProgressEvent<ResourceModel, CallbackContext> response =
+                    noRetries.handleRequest(proxy, request, new CallbackContext(), guarded, logger);
+            assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+            assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.ServiceInternalError);
+        }
+        assertThat(breakers.forOperation("DescribeApplication").getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        long describeCalls = client.getCalls("DescribeApplication");
+        ProgressEvent<ResourceModel, CallbackContext> response =
+                new ReadHandler().handleRequest(proxy, request, new CallbackContext(), guarded, logger);
+        // Read may not call back, so it fails fast while the circuit is open
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.ServiceInternalError);
+        assertThat(client.getCalls("DescribeApplication")).isEqualTo(describeCalls);
+
+        // After the open period the probe reaches the recovered service and closes the circuit
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        response = new ReadHandler().handleRequest(proxy, request, new CallbackContext(), guarded, logger);
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(client.getCalls("DescribeApplication")).isEqualTo(describeCalls + 1);
+        assertThat(breakers.forOperation("DescribeApplication").getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    public void update_AsyncCalls_ReachesSameState() {
+        ResourceModel model = create().getResourceModel();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            IoTFleetHubAsyncClient asyncClient = client.async(executor);
+            UpdateHandler handler = new UpdateHandler() {
+                @Override
+                Optional<IoTFleetHubAsyncClient> asyncClient(Logger logger) {
+                    return Optional.of(asyncClient);
+                }
+            };
+            ResourceModel desired = ResourceModel.builder()
+                    .applicationId(model.getApplicationId())
+                    .applicationName(APPLICATION_NAME_2)
+                    .build();
+
+            ProgressEvent<ResourceModel, CallbackContext> updated = handler.handleRequest(proxy,
+                    ResourceHandlerRequest.<ResourceModel>builder()
+                            .desiredResourceState(desired)
+                            .desiredResourceTags(MODEL_TAG_MAP_2)
+                            .clientRequestToken(CLIENT_TOKEN)
+                            .build(), new CallbackContext(), proxyClient, logger);
+
+            assertThat(updated.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+            assertThat(client.getCalls("TagResource")).isEqualTo(1);
+            assertThat(client.getCalls("UntagResource")).isEqualTo(1);
+            ResourceModel read = new ReadHandler().handleRequest(proxy, ResourceHandlerRequest.<ResourceModel>builder()
+                    .desiredResourceState(desired).build(), new CallbackContext(), proxyClient, logger).getResourceModel();
+            assertThat(read.getApplicationName()).isEqualTo(APPLICATION_NAME_2);
+            assertThat(read.getTags()).isEqualTo(TagSet.of(MODEL_TAG_MAP_2).toModelTags());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void list_PaginatesAllApplications() {
+        for (int i = 0; i < 25; i++) {
+            client.createApplication(software.amazon.awssdk.services.iotfleethub.model.CreateApplicationRequest.builder()
+                    .applicationName(APPLICATION_NAME + i)
+                    .roleArn(ROLE_ARN)
+                    .build());
+        }
+
+        int pages = 0;
+        int applications = 0;
+        String nextToken = null;
+        do {
+            ProgressEvent<ResourceModel, CallbackContext> response = new ListHandler().handleRequest(proxy,
+                    ResourceHandlerRequest.<ResourceModel>builder().nextToken(nextToken).build(),
+                    new CallbackContext(), proxyClient, logger);
+            assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+            applications += response.getResourceModels().size();
+            nextToken = response.getNextToken();
+            pages++;
+        } while (nextToken != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(applications).isEqualTo(25);
+    }
+
+    @Test
+    public void faultRates_FailCallsAtConfiguredRates() {
+        FakeIoTFleetHubClient faulty = FakeIoTFleetHubClient.builder()
+                .throttleRate(1.0)
+                .build();
+
+        BackoffPolicy fastRetries = BackoffPolicy.builder()
+                .minDelay(Duration.ofMillis(10))
+                .maxDelay(Duration.ofMillis(10))
+                .timeout(Duration.ofSeconds(1))
+                .maxAttempts(2)
+                .build();
+        ProgressEvent<ResourceModel, CallbackContext> response = new ReadHandler() {
+            @Override
+            BackoffPolicy inInvocationRetries() {
+                return fastRetries;
+            }
+        }.handleRequest(newProxy(logger),
+                ResourceHandlerRequest.<ResourceModel>builder()
+                        .desiredResourceState(ResourceModel.builder().applicationId("missing").build())
+                        .build(), new CallbackContext(), MOCK_PROXY(proxy, faulty), logger);
+
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.Throttling);
+        assertThat(faulty.getTotalThrottles()).isEqualTo(faulty.getTotalCalls()).isEqualTo(3);
+
+        FakeIoTFleetHubClient conflicting = FakeIoTFleetHubClient.builder()
+                .conflictRate(1.0)
+                .build();
+        response = new UpdateHandler().handleRequest(proxy, ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(ResourceModel.builder().applicationId("missing").build())
+                .clientRequestToken(CLIENT_TOKEN)
+                .desiredResourceTags(ImmutableMap.of())
+                .build(), new CallbackContext(), MOCK_PROXY(proxy, conflicting), logger);
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.ResourceConflict);
+    }
+}
@@ -0,0 +1,109 @@
+package software.amazon.iotfleethub.application;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class FanOutTest {
+
+    private ExecutorService executor;
+    private FanOut fanOut;
+
+    @BeforeEach
+    public void setup() {
+        executor = FanOut.newPlatformThreadExecutor();
+        fanOut = new FanOut(executor);
+    }
+
+    @AfterEach
+    public void tear_down() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void map_ResultsInItemOrder() {
+        List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            items.add(i);
+        }
+
+        List<CompletableFuture<Integer>> results = fanOut.map(items, 8, i -> i * 2);
+
+        assertThat(results).hasSize(100);
+        for (int i = 0; i < 100; i++) {
+            assertThat(results.get(i).join()).isEqualTo(i * 2);
+        }
+    }
+
+    @Test
+    public void map_NeverExceedsMaxConcurrency() {
+        List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            items.add(i);
+        }
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        List<CompletableFuture<Integer>> results = fanOut.map(items, 4, i -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                TimeUnit.MILLISECONDS.sleep(2);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+            return i;
+        });
+        CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])).join();
+
+        assertThat(maxRunning.get()).isBetween(1, 4);
+    }
+
+    @Test
+    public void map_FailedItem_OnlyFailsItsFuture() {
+        List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            items.add(i);
+        }
+
+        List<CompletableFuture<Integer>> results = fanOut.map(items, 2, i -> {
+            if (i == 1) {
+                throw new IllegalStateException("item " + i);
+            }
+            return i;
+        });
+
+        assertThat(results.get(0).join()).isEqualTo(0);
+        assertThatThrownBy(() -> results.get(1).join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+        assertThat(results.get(2).join()).isEqualTo(2);
+    }
+
+    @Test
+    public void shared_UsesVirtualThreadsOnlyWhenRuntimeHasThem() {
+        boolean runtimeHasVirtualThreads;
+        try {
+            Thread.class.getMethod("ofVirtual");
+            runtimeHasVirtualThreads = true;
+        } catch (NoSuchMethodException e) {
+            runtimeHasVirtualThreads = false;
+        }
+
+        assertThat(FanOut.newVirtualThreadExecutor().isPresent()).isEqualTo(runtimeHasVirtualThreads);
+        List<Integer> items = new ArrayList<>();
+        items.add(1);
+        assertThat(FanOut.shared().map(items, i -> i + 1).get(0).join()).isEqualTo(2);
+    }
+}
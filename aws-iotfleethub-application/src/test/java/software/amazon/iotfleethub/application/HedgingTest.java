@@ -0,0 +1,142 @@
+package software.amazon.iotfleethub.application;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.iotfleethub.IoTFleetHubClient;
+import software.amazon.awssdk.services.iotfleethub.model.CreateApplicationRequest;
+import software.amazon.awssdk.services.iotfleethub.model.DescribeApplicationRequest;
+import software.amazon.awssdk.services.iotfleethub.model.DescribeApplicationResponse;
+import software.amazon.awssdk.services.iotfleethub.model.ListApplicationsRequest;
+import software.amazon.cloudformation.proxy.LoggerProxy;
+import software.amazon.cloudformation.proxy.ProxyClient;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static software.amazon.iotfleethub.application.TestConstants.APPLICATION_NAME;
+import static software.amazon.iotfleethub.application.TestConstants.ROLE_ARN;
+
+public class HedgingTest extends AbstractTestBase {
+
+    private static final Duration SLOW = Duration.ofSeconds(5);
+
+    private final LoggerProxy logger = new LoggerProxy();
+
+    // Latency of each call to the fake in turn; calls past the end answer at once
+    private final Queue<Duration> latencies = new ConcurrentLinkedQueue<>();
+
+    private ExecutorService executor;
+    private FakeIoTFleetHubClient client;
+    private ProxyClient<IoTFleetHubClient> unhedged;
+    private String applicationId;
+
+    @BeforeEach
+    public void setup() {
+        executor = Executors.newCachedThreadPool();
+        client = FakeIoTFleetHubClient.builder()
+                .latency(() -> {
+                    Duration latency = latencies.poll();
+                    return latency == null ? Duration.ZERO : latency;
+                })
+                .build();
+        unhedged = MOCK_PROXY(newProxy(logger), client);
+        applicationId = client.createApplication(CreateApplicationRequest.builder()
+                .applicationName(APPLICATION_NAME)
+                .roleArn(ROLE_ARN)
+                .build()).applicationId();
+    }
+
+    @AfterEach
+    public void tear_down() {
+        executor.shutdownNow();
+    }
+
+    // Hedges after the median of the recorded latencies, once one is known, with a hedge earned by every call. The
+    // recorded latency leaves the first attempt time to start, so it is the one that takes the queued latency.
+    private static HedgePolicy policy(double budgetRatio) {
+        HedgePolicy policy = new HedgePolicy(0.5, budgetRatio, 10, 1, 10);
+        policy.record(Duration.ofMillis(100));
+        return policy;
+    }
+
+    private DescribeApplicationResponse describe(ProxyClient<IoTFleetHubClient> proxyClient) {
+        return proxyClient.injectCredentialsAndInvokeV2(
+                DescribeApplicationRequest.builder().applicationId(applicationId).build(),
+                proxyClient.client()::describeApplication);
+    }
+
+    @Test
+    public void describe_SlowAnswer_HedgeWins() {
+        Hedging hedging = new Hedging(true, policy(1.0), new FanOut(executor));
+        latencies.add(SLOW);
+
+        long start = System.nanoTime();
+        DescribeApplicationResponse response = describe(hedging.wrap(unhedged, "Read", logger));
+
+        assertThat(response.applicationId()).isEqualTo(applicationId);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(SLOW);
+        assertThat(hedging.getHedged()).isEqualTo(1);
+        assertThat(hedging.getWon()).isEqualTo(1);
+        assertThat(client.getCalls("DescribeApplication")).isEqualTo(2);
+    }
+
+    @Test
+    public void describe_FastAnswer_NotHedged() {
+        Hedging hedging = new Hedging(true, policy(1.0), new FanOut(executor));
+
+        describe(hedging.wrap(unhedged, "Read", logger));
+
+        assertThat(hedging.getHedged()).isZero();
+        assertThat(client.getCalls("DescribeApplication")).isEqualTo(1);
+    }
+
+    @Test
+    public void describe_BudgetSpent_WaitsForFirstAttempt() {
+        Hedging hedging = new Hedging(true, policy(0.0), new FanOut(executor));
+        latencies.add(Duration.ofMillis(200));
+
+        DescribeApplicationResponse response = describe(hedging.wrap(unhedged, "Read", logger));
+
+        assertThat(response.applicationId()).isEqualTo(applicationId);
+        assertThat(hedging.getHedged()).isZero();
+        assertThat(client.getCalls("DescribeApplication")).isEqualTo(1);
+    }
+
+    @Test
+    public void onCall_HedgesAfterPercentileOfRecentLatencies() {
+        HedgePolicy policy = new HedgePolicy(0.9, 0.5, 10, 5, 1);
+        for (int millis = 1; millis <= 4; millis++) {
+            policy.record(Duration.ofMillis(millis));
+        }
+        assertThat(policy.onCall()).isEmpty();
+
+        // Only the last ten latencies count, and the 90th percentile of 11..20 ms is 19 ms
+        for (int millis = 5; millis <= 20; millis++) {
+            policy.record(Duration.ofMillis(millis));
+        }
+        assertThat(policy.onCall()).contains(Duration.ofMillis(19));
+
+        // Two calls earned a hedge, but no more than one is ever saved up
+        assertThat(policy.tryHedge()).isTrue();
+        assertThat(policy.tryHedge()).isFalse();
+    }
+
+    @Test
+    public void wrap_OnlyHedgesEnabledDescribes() {
+        assertThat(new Hedging(false, policy(1.0), new FanOut(executor)).wrap(unhedged, "Read", logger)).isSameAs(unhedged);
+
+        Hedging hedging = new Hedging(true, policy(1.0), new FanOut(executor));
+        ProxyClient<IoTFleetHubClient> proxyClient = hedging.wrap(unhedged, "List", logger);
+        latencies.add(Duration.ofMillis(50));
+        proxyClient.injectCredentialsAndInvokeV2(ListApplicationsRequest.builder().build(),
+                proxyClient.client()::listApplications);
+
+        assertThat(hedging.getHedged()).isZero();
+        assertThat(client.getCalls("ListApplications")).isEqualTo(1);
+    }
+}
@@ -1,12 +1,21 @@
 package software.amazon.iotfleethub.application;
 
+import software.amazon.awssdk.services.iotfleethub.IoTFleetHubClient;
 import software.amazon.awssdk.services.iotfleethub.model.ListApplicationsRequest;
 import software.amazon.awssdk.services.iotfleethub.model.ListApplicationsResponse;
 import software.amazon.awssdk.services.iotfleethub.model.ApplicationSummary;
+import software.amazon.awssdk.services.iotfleethub.model.DescribeApplicationRequest;
+import software.amazon.awssdk.services.iotfleethub.model.DescribeApplicationResponse;
+import software.amazon.awssdk.services.iotfleethub.model.InternalFailureException;
+import software.amazon.awssdk.services.iotfleethub.model.InvalidRequestException;
+import software.amazon.awssdk.services.iotfleethub.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.iotfleethub.model.ThrottlingException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
-import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.HandlerErrorCode;
+import software.amazon.cloudformation.proxy.LoggerProxy;
 import software.amazon.cloudformation.proxy.OperationStatus;
 import software.amazon.cloudformation.proxy.ProgressEvent;
+import software.amazon.cloudformation.proxy.ProxyClient;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -16,6 +25,7 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.ArrayList;
@@ -23,6 +33,10 @@ import java.util.ArrayList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 import static software.amazon.iotfleethub.application.TestConstants.APPLICATION_CREATION_DATE;
@@ -35,28 +49,40 @@ import static software.amazon.iotfleethub.application.TestConstants.APPLICATION_
 import static software.amazon.iotfleethub.application.TestConstants.APPLICATION_STATE;
 import static software.amazon.iotfleethub.application.TestConstants.APPLICATION_URL;
 import static software.amazon.iotfleethub.application.TestConstants.APPLICATION_URL_2;
+import static software.amazon.iotfleethub.application.TestConstants.MODEL_TAG_MAP;
+import static software.amazon.iotfleethub.application.TestConstants.ROLE_ARN;
+import static software.amazon.iotfleethub.application.TestConstants.SSO_CLIENT_ID;
 
 @ExtendWith(MockitoExtension.class)
-public class ListHandlerTest {
+public class ListHandlerTest extends AbstractTestBase {
 
     @Mock
-    private AmazonWebServicesClientProxy proxy;
+    private IoTFleetHubClient client;
 
     @Mock
-    private Logger logger;
+    private LoggerProxy logger;
 
     private AutoCloseable closeable;
 
+    private AmazonWebServicesClientProxy proxy;
+
+    private ProxyClient<IoTFleetHubClient> proxyClient;
+
     private ListHandler handler;
 
     @BeforeEach
     public void setup() {
         closeable = MockitoAnnotations.openMocks(this);
+        proxy = newProxy(logger);
+        proxyClient = MOCK_PROXY(proxy, client);
         handler = new ListHandler();
     }
 
     @AfterEach
     public void tear_down() throws Exception {
+        // The call chain reads the service name to key its state in the CallbackContext
+        verify(client, atLeast(0)).serviceName();
+        verifyNoMoreInteractions(client);
         closeable.close();
     }
 
@@ -93,10 +119,11 @@ public class ListHandlerTest {
                 .applicationSummaries(applicationSummaries)
                 .nextToken("nextToken2")
                 .build();
-        when(proxy.injectCredentialsAndInvokeV2(any(), any()))
+        when(client.listApplications(any(ListApplicationsRequest.class)))
                 .thenReturn(listResponse);
 
-        ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, null, logger);
+        ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
 
         assertThat(response.getNextToken()).isEqualTo("nextToken2");
         List<ResourceModel> expectedModelList = Arrays.asList(
@@ -127,6 +154,7 @@ public class ListHandlerTest {
                 .callbackDelaySeconds(0)
                 .build();
         assertThat(response).isEqualTo(expectedResponse);
+        verify(client).listApplications(any(ListApplicationsRequest.class));
     }
 
     @Test
@@ -151,10 +179,11 @@ public class ListHandlerTest {
                 .applicationSummaries(applicationSummaries)
                 .nextToken(null)
                 .build();
-        when(proxy.injectCredentialsAndInvokeV2(any(), any()))
+        when(client.listApplications(any(ListApplicationsRequest.class)))
                 .thenReturn(listResponse);
 
-        ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, null, logger);
+        ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
 
         assertThat(response.getNextToken()).isEqualTo(null);
         List<ResourceModel> expectedModelList = Arrays.asList(
@@ -174,5 +203,180 @@ public class ListHandlerTest {
                 .callbackDelaySeconds(0)
                 .build();
         assertThat(response).isEqualTo(expectedResponse);
+        verify(client).listApplications(any(ListApplicationsRequest.class));
+    }
+
+    @Test
+    public void handleRequest_ListError_Failure() {
+        ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .nextToken("nextToken1")
+                .build();
+
+        when(client.listApplications(any(ListApplicationsRequest.class)))
+                .thenThrow(InvalidRequestException.builder().build());
+
+        ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.InvalidRequest);
+        verify(client).listApplications(any(ListApplicationsRequest.class));
+    }
+
+    @Test
+    public void handleRequest_Throttled_FailsOnceRetriesRunOut() {
+        ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder().build();
+        when(client.listApplications(any(ListApplicationsRequest.class)))
+                .thenThrow(ThrottlingException.builder().message("Rate exceeded").build());
+
+        BackoffPolicy policy = BackoffPolicy.builder()
+                .minDelay(Duration.ofMillis(10))
+                .maxDelay(Duration.ofMillis(10))
+                .timeout(Duration.ofSeconds(1))
+                .maxAttempts(1)
+                .build();
+        ProgressEvent<ResourceModel, CallbackContext> response = new ListHandler() {
+            @Override
+            BackoffPolicy inInvocationRetries() {
+                return policy;
+            }
+        }.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
+
+        // List may not return IN_PROGRESS, so it fails once the retries within the invocation run out
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.Throttling);
+        verify(client, times(2)).listApplications(any(ListApplicationsRequest.class));
+    }
+
+    private static ListApplicationsResponse page(String nextToken, String... applicationIds) {
+        List<ApplicationSummary> applicationSummaries = new ArrayList<>();
+        for (String applicationId : applicationIds) {
+            applicationSummaries.add(ApplicationSummary.builder()
+                    .applicationId(applicationId)
+                    .applicationName(APPLICATION_NAME)
+                    .applicationUrl(APPLICATION_URL)
+                    .applicationCreationDate(APPLICATION_CREATION_DATE)
+                    .applicationLastUpdateDate(APPLICATION_LAST_UPDATE_DATE)
+                    .applicationState(APPLICATION_STATE)
+                    .build());
+        }
+        return ListApplicationsResponse.builder()
+                .applicationSummaries(applicationSummaries)
+                .nextToken(nextToken)
+                .build();
+    }
+
+    private static List<String> applicationIds(ProgressEvent<ResourceModel, CallbackContext> response) {
+        List<String> applicationIds = new ArrayList<>();
+        for (ResourceModel model : response.getResourceModels()) {
+            applicationIds.add(model.getApplicationId());
+        }
+        return applicationIds;
+    }
+
+    @Test
+    public void handleRequest_MaxResults_AggregatesAllPages() {
+        ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder().build();
+        when(client.listApplications(any(ListApplicationsRequest.class)))
+                .thenReturn(page("token1", "app1", "app2"))
+                .thenReturn(page("token2", "app3", "app4"))
+                .thenReturn(page(null, "app5"));
+
+        ProgressEvent<ResourceModel, CallbackContext> response = new ListHandler(100, Duration.ofSeconds(30), false)
+                .handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(applicationIds(response)).containsExactly("app1", "app2", "app3", "app4", "app5");
+        assertThat(response.getNextToken()).isNull();
+        verify(client, times(3)).listApplications(any(ListApplicationsRequest.class));
+    }
+
+    @Test
+    public void handleRequest_MaxResultsReached_ReturnsContinuationToken() {
+        ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder().build();
+        when(client.listApplications(any(ListApplicationsRequest.class)))
+                .thenReturn(page("token1", "app1", "app2"))
+                .thenReturn(page("token2", "app3", "app4"));
+
+        ProgressEvent<ResourceModel, CallbackContext> response = new ListHandler(3, Duration.ofSeconds(30), false)
+                .handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
+
+        // Pages are never split, so the result count stops at the first page boundary past maxResults
+        assertThat(applicationIds(response)).containsExactly("app1", "app2", "app3", "app4");
+        assertThat(response.getNextToken()).isEqualTo("token2");
+        verify(client, times(2)).listApplications(any(ListApplicationsRequest.class));
+    }
+
+    @Test
+    public void handleRequest_TimeBudgetSpent_ReturnsOnePage() {
+        ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder().build();
+        when(client.listApplications(any(ListApplicationsRequest.class)))
+                .thenReturn(page("token1", "app1", "app2"));
+
+        ProgressEvent<ResourceModel, CallbackContext> response = new ListHandler(100, Duration.ZERO, false)
+                .handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
+
+        assertThat(applicationIds(response)).containsExactly("app1", "app2");
+        assertThat(response.getNextToken()).isEqualTo("token1");
+        verify(client).listApplications(any(ListApplicationsRequest.class));
+    }
+
+    @Test
+    public void handleRequest_LaterPageThrottled_ReturnsPagesSoFar() {
+        ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder().build();
+        when(client.listApplications(any(ListApplicationsRequest.class)))
+                .thenReturn(page("token1", "app1", "app2"))
+                .thenThrow(ThrottlingException.builder().message("Rate exceeded").build());
+
+        ProgressEvent<ResourceModel, CallbackContext> response = new ListHandler(100, Duration.ofSeconds(30), false)
+                .handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(applicationIds(response)).containsExactly("app1", "app2");
+        assertThat(response.getNextToken()).isEqualTo("token1");
+        verify(client, times(2)).listApplications(any(ListApplicationsRequest.class));
+    }
+
+    @Test
+    public void handleRequest_Enriched_DescribesEveryApplication() {
+        ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder().build();
+        when(client.listApplications(any(ListApplicationsRequest.class)))
+                .thenReturn(page("token1", "app1", "app2"))
+                .thenReturn(page(null, "app3", "gone", "failing"));
+        when(client.describeApplication(any(DescribeApplicationRequest.class))).thenAnswer(invocation -> {
+            String applicationId = invocation.getArgument(0, DescribeApplicationRequest.class).applicationId();
+            if ("gone".equals(applicationId)) {
+                throw ResourceNotFoundException.builder().message("Not found").build();
+            }
+            if ("failing".equals(applicationId)) {
+                throw InternalFailureException.builder().message("Internal failure").build();
+            }
+            return DescribeApplicationResponse.builder()
+                    .applicationId(applicationId)
+                    .applicationName(APPLICATION_NAME)
+                    .applicationCreationDate(APPLICATION_CREATION_DATE)
+                    .applicationLastUpdateDate(APPLICATION_LAST_UPDATE_DATE)
+                    .applicationState(APPLICATION_STATE)
+                    .roleArn(ROLE_ARN)
+                    .ssoClientId(SSO_CLIENT_ID)
+                    .tags(MODEL_TAG_MAP)
+                    .build();
+        });
+
+        ProgressEvent<ResourceModel, CallbackContext> response = new ListHandler(100, Duration.ofSeconds(30), true)
+                .handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
+
+        // The deleted Application is left out and the one that could not be described keeps its summary
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(applicationIds(response)).containsExactly("app1", "app2", "app3", "failing");
+        for (ResourceModel model : response.getResourceModels().subList(0, 3)) {
+            assertThat(model.getRoleArn()).isEqualTo(ROLE_ARN);
+            assertThat(model.getSsoClientId()).isEqualTo(SSO_CLIENT_ID);
+            assertThat(model.getTags()).isEqualTo(TagSet.of(MODEL_TAG_MAP).toModelTags());
+        }
+        assertThat(response.getResourceModels().get(3).getRoleArn()).isNull();
+        assertThat(response.getResourceModels().get(3).getApplicationUrl()).isEqualTo(APPLICATION_URL);
+        verify(client, times(2)).listApplications(any(ListApplicationsRequest.class));
+        verify(client, times(5)).describeApplication(any(DescribeApplicationRequest.class));
     }
 }
@@ -0,0 +1,117 @@
+package software.amazon.iotfleethub.application;
+
+import software.amazon.awssdk.services.iotfleethub.IoTFleetHubClient;
+import software.amazon.awssdk.services.iotfleethub.model.DescribeApplicationRequest;
+import software.amazon.awssdk.services.iotfleethub.model.DescribeApplicationResponse;
+import software.amazon.awssdk.services.iotfleethub.model.InvalidRequestException;
+import software.amazon.awssdk.services.iotfleethub.model.ThrottlingException;
+import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.ProxyClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import static software.amazon.iotfleethub.application.TestConstants.APPLICATION_ID;
+
+@ExtendWith(MockitoExtension.class)
+public class RateLimiterTest {
+
+    @Mock
+    private ProxyClient<IoTFleetHubClient> proxyClient;
+
+    @Mock
+    private IoTFleetHubClient client;
+
+    @Mock
+    private Logger logger;
+
+    private AutoCloseable closeable;
+
+    private ProxyClient<IoTFleetHubClient> limited;
+
+    private final DescribeApplicationRequest describeRequest = DescribeApplicationRequest.builder()
+            .applicationId(APPLICATION_ID)
+            .build();
+
+    @BeforeEach
+    public void setup() {
+        closeable = MockitoAnnotations.openMocks(this);
+        limited = RateLimiter.limit(proxyClient, Deadline.forInvocation(), logger);
+    }
+
+    @AfterEach
+    public void tear_down() throws Exception {
+        closeable.close();
+    }
+
+    @Test
+    public void operationName_StripsRequestSuffix() {
+        assertThat(RateLimiter.operationName(describeRequest)).isEqualTo("DescribeApplication");
+    }
+
+    @Test
+    public void forOperation_ReturnsSharedBucket() {
+        assertThat(RateLimiter.forOperation("DescribeApplication"))
+                .isSameAs(RateLimiter.forOperation("DescribeApplication"))
+                .isNotSameAs(RateLimiter.forOperation("ListApplications"));
+    }
+
+    @Test
+    public void limit_Throttled_LowersRate() {
+        TokenBucket bucket = RateLimiter.forOperation("DescribeApplication");
+        double before = bucket.getRate();
+
+        when(proxyClient.injectCredentialsAndInvokeV2(any(), any()))
+                .thenThrow(ThrottlingException.builder().build());
+
+        assertThrows(ThrottlingException.class,
+                () -> limited.injectCredentialsAndInvokeV2(describeRequest, client::describeApplication));
+        assertThat(bucket.getRate()).isLessThan(before);
+    }
+
+    @Test
+    public void limit_Success_RaisesRate() {
+        TokenBucket bucket = RateLimiter.forOperation("DescribeApplication");
+        bucket.onThrottle();
+        double before = bucket.getRate();
+
+        DescribeApplicationResponse describeResponse = DescribeApplicationResponse.builder().build();
+        when(proxyClient.injectCredentialsAndInvokeV2(any(), any()))
+                .thenReturn(describeResponse);
+
+        DescribeApplicationResponse response =
+                limited.injectCredentialsAndInvokeV2(describeRequest, client::describeApplication);
+
+        assertThat(response).isSameAs(describeResponse);
+        assertThat(bucket.getRate()).isGreaterThan(before);
+    }
+
+    @Test
+    public void limit_OtherError_KeepsRate() {
+        TokenBucket bucket = RateLimiter.forOperation("DescribeApplication");
+        double before = bucket.getRate();
+
+        when(proxyClient.injectCredentialsAndInvokeV2(any(), any()))
+                .thenThrow(InvalidRequestException.builder().build());
+
+        assertThrows(InvalidRequestException.class,
+                () -> limited.injectCredentialsAndInvokeV2(describeRequest, client::describeApplication));
+        assertThat(bucket.getRate()).isEqualTo(before);
+    }
+
+    @Test
+    public void limit_Client_IsDelegated() {
+        when(proxyClient.client()).thenReturn(client);
+
+        assertThat(limited.client()).isSameAs(client);
+    }
+}
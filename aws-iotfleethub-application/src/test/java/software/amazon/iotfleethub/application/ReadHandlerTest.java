@@ -1,12 +1,16 @@
 package software.amazon.iotfleethub.application;
 
+import software.amazon.awssdk.core.exception.ApiCallTimeoutException;
+import software.amazon.awssdk.services.iotfleethub.IoTFleetHubClient;
 import software.amazon.awssdk.services.iotfleethub.model.DescribeApplicationRequest;
 import software.amazon.awssdk.services.iotfleethub.model.DescribeApplicationResponse;
+import software.amazon.awssdk.services.iotfleethub.model.InternalFailureException;
 import software.amazon.awssdk.services.iotfleethub.model.InvalidRequestException;
 import software.amazon.awssdk.services.iotfleethub.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.iotfleethub.model.ThrottlingException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.HandlerErrorCode;
-import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.LoggerProxy;
 import software.amazon.cloudformation.proxy.OperationStatus;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ProxyClient;
@@ -19,13 +23,18 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
+
 import static junit.framework.Assert.assertEquals;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.atLeast;
 import static org.mockito.Mockito.when;
 
 import static software.amazon.iotfleethub.application.TestConstants.APPLICATION_ARN;
@@ -44,27 +53,35 @@ import static software.amazon.iotfleethub.application.TestConstants.ROLE_ARN;
 import static software.amazon.iotfleethub.application.TestConstants.SSO_CLIENT_ID;
 
 @ExtendWith(MockitoExtension.class)
-public class ReadHandlerTest {
+public class ReadHandlerTest extends AbstractTestBase {
 
     @Mock
-    private AmazonWebServicesClientProxy proxy;
+    private IoTFleetHubClient client;
 
     @Mock
-    private Logger logger;
+    private LoggerProxy logger;
 
     private AutoCloseable closeable;
 
+    private AmazonWebServicesClientProxy proxy;
+
+    private ProxyClient<IoTFleetHubClient> proxyClient;
+
     private ReadHandler handler;
 
     @BeforeEach
     public void setup() {
         closeable = MockitoAnnotations.openMocks(this);
+        proxy = newProxy(logger);
+        proxyClient = MOCK_PROXY(proxy, client);
         handler = new ReadHandler();
     }
 
     @AfterEach
     public void tear_down() throws Exception {
-        verifyNoMoreInteractions(proxy);
+        // The call chain reads the service name to key its state in the CallbackContext
+        verify(client, atLeast(0)).serviceName();
+        verifyNoMoreInteractions(client);
         closeable.close();
     }
 
@@ -93,10 +110,11 @@ public class ReadHandlerTest {
                 .tags(MODEL_TAG_MAP)
                 .build();
 
-        when(proxy.injectCredentialsAndInvokeV2(any(), any()))
+        when(client.describeApplication(any(DescribeApplicationRequest.class)))
                 .thenReturn(describeResponse);
 
-        ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, null, logger);
+        ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
 
         // Verify response tags are in Set<Tag> format, not Map<String, String>
         ResourceModel expectedModel = ResourceModel.builder()
@@ -119,6 +137,7 @@ public class ReadHandlerTest {
                 .callbackDelaySeconds(0)
                 .build();
         assertThat(response).isEqualTo(expectedResponse);
+        verify(client).describeApplication(any(DescribeApplicationRequest.class));
     }
 
     @Test
@@ -147,14 +166,172 @@ public class ReadHandlerTest {
                 .desiredResourceState(model)
                 .build();
 
-        when(proxy.injectCredentialsAndInvokeV2(any(), any()))
+        when(client.describeApplication(any(DescribeApplicationRequest.class)))
                 .thenThrow(ResourceNotFoundException.builder().build());
 
-        ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, null, logger);
+        ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
 
         assertThat(response).isNotNull();
         assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
         assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.NotFound);
         assertThat(response.getMessage()).isNull();
+        verify(client).describeApplication(any(DescribeApplicationRequest.class));
+    }
+
+    @Test
+    public void handleRequest_NoTimeLeft_FailsWithoutCalling() {
+        ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(ResourceModel.builder().applicationId(APPLICATION_ID).build())
+                .build();
+        ProxyClient<IoTFleetHubClient> bounded = Deadline.after(Duration.ofMillis(500), System::nanoTime).bound(proxyClient);
+
+        ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, request, new CallbackContext(), bounded, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.ServiceInternalError);
+        verify(client, never()).describeApplication(any(DescribeApplicationRequest.class));
+    }
+
+    @Test
+    public void handleRequest_CallTimedOut_Failure() {
+        ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(ResourceModel.builder().applicationId(APPLICATION_ID).build())
+                .build();
+        when(client.describeApplication(any(DescribeApplicationRequest.class)))
+                .thenThrow(ApiCallTimeoutException.create(30_000));
+
+        ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.NetworkFailure);
+        verify(client).describeApplication(any(DescribeApplicationRequest.class));
+    }
+
+    // Retries throttled and internally failed calls within the invocation without waiting, up to two retries
+    private static ReadHandler fastInPlaceRetries() {
+        BackoffPolicy policy = BackoffPolicy.builder()
+                .minDelay(Duration.ofMillis(10))
+                .maxDelay(Duration.ofMillis(10))
+                .timeout(Duration.ofSeconds(1))
+                .maxAttempts(2)
+                .build();
+        return new ReadHandler() {
+            @Override
+            BackoffPolicy inInvocationRetries() {
+                return policy;
+            }
+        };
+    }
+
+    @Test
+    public void handleRequest_Throttled_RetriesWithinInvocation() {
+        ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(ResourceModel.builder().applicationId(APPLICATION_ID).build())
+                .build();
+
+        when(client.describeApplication(any(DescribeApplicationRequest.class)))
+                .thenThrow(ThrottlingException.builder().build())
+                .thenReturn(DescribeApplicationResponse.builder()
+                        .applicationId(APPLICATION_ID)
+                        .applicationArn(APPLICATION_ARN)
+                        .applicationCreationDate(APPLICATION_CREATION_DATE)
+                        .applicationLastUpdateDate(APPLICATION_LAST_UPDATE_DATE)
+                        .build());
+
+        ProgressEvent<ResourceModel, CallbackContext> response =
+                fastInPlaceRetries().handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
+
+        // Read may not return IN_PROGRESS, so the throttled describe is retried in place
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModel().getApplicationArn()).isEqualTo(APPLICATION_ARN);
+        verify(client, times(2)).describeApplication(any(DescribeApplicationRequest.class));
+    }
+
+    @Test
+    public void handleRequest_ThrottledThroughout_Failure() {
+        ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(ResourceModel.builder().applicationId(APPLICATION_ID).build())
+                .build();
+
+        when(client.describeApplication(any(DescribeApplicationRequest.class)))
+                .thenThrow(ThrottlingException.builder().message("Rate exceeded").build());
+
+        ProgressEvent<ResourceModel, CallbackContext> response =
+                fastInPlaceRetries().handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.Throttling);
+        assertThat(response.getMessage()).isEqualTo("Rate exceeded");
+        // The first call and the two retries the policy allows
+        verify(client, times(3)).describeApplication(any(DescribeApplicationRequest.class));
+    }
+
+    @Test
+    public void handleRequest_ThrottledAtInvocationDeadline_NotRetried() {
+        ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(ResourceModel.builder().applicationId(APPLICATION_ID).build())
+                .build();
+        ReadHandler handler = new ReadHandler() {
+            @Override
+            Deadline deadline() {
+                return Deadline.after(Duration.ofMillis(500), System::nanoTime);
+            }
+        };
+
+        when(client.describeApplication(any(DescribeApplicationRequest.class)))
+                .thenThrow(ThrottlingException.builder().message("Rate exceeded").build());
+
+        ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
+
+        // The invocation's deadline leaves no time for another call, so the throttled describe is not retried
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.Throttling);
+        verify(client).describeApplication(any(DescribeApplicationRequest.class));
+    }
+
+    @Test
+    public void handleRequest_InternalFailure_RetriesWithinInvocation() {
+        ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(ResourceModel.builder().applicationId(APPLICATION_ID).build())
+                .build();
+
+        when(client.describeApplication(any(DescribeApplicationRequest.class)))
+                .thenThrow(InternalFailureException.builder().statusCode(500).build())
+                .thenReturn(DescribeApplicationResponse.builder()
+                        .applicationId(APPLICATION_ID)
+                        .applicationArn(APPLICATION_ARN)
+                        .applicationCreationDate(APPLICATION_CREATION_DATE)
+                        .applicationLastUpdateDate(APPLICATION_LAST_UPDATE_DATE)
+                        .build());
+
+        ProgressEvent<ResourceModel, CallbackContext> response =
+                fastInPlaceRetries().handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModel().getApplicationArn()).isEqualTo(APPLICATION_ARN);
+        verify(client, times(2)).describeApplication(any(DescribeApplicationRequest.class));
+    }
+
+    @Test
+    public void handleRequest_InternalFailureThroughout_Failure() {
+        ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(ResourceModel.builder().applicationId(APPLICATION_ID).build())
+                .build();
+
+        when(client.describeApplication(any(DescribeApplicationRequest.class)))
+                .thenThrow(InternalFailureException.builder().message("Internal failure").statusCode(500).build());
+
+        ProgressEvent<ResourceModel, CallbackContext> response =
+                fastInPlaceRetries().handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
+
+        // Read may not return IN_PROGRESS, so it fails once the in-place retries run out
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.ServiceInternalError);
+        assertThat(response.getMessage()).isEqualTo("Internal failure");
+        verify(client, times(3)).describeApplication(any(DescribeApplicationRequest.class));
     }
 }
@@ -0,0 +1,211 @@
+package software.amazon.iotfleethub.application;
+
+import software.amazon.awssdk.core.exception.ApiCallTimeoutException;
+import software.amazon.awssdk.services.iotfleethub.IoTFleetHubClient;
+import software.amazon.awssdk.services.iotfleethub.model.DescribeApplicationRequest;
+import software.amazon.awssdk.services.iotfleethub.model.DescribeApplicationResponse;
+import software.amazon.awssdk.services.iotfleethub.model.InternalFailureException;
+import software.amazon.awssdk.services.iotfleethub.model.ListApplicationsRequest;
+import software.amazon.awssdk.services.iotfleethub.model.UpdateApplicationRequest;
+import software.amazon.awssdk.services.iotfleethub.model.UpdateApplicationResponse;
+import software.amazon.cloudformation.proxy.LoggerProxy;
+import software.amazon.cloudformation.proxy.ProxyClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import static software.amazon.iotfleethub.application.TestConstants.APPLICATION_ID;
+import static software.amazon.iotfleethub.application.TestConstants.APPLICATION_NAME;
+
+@ExtendWith(MockitoExtension.class)
+public class SingleFlightTest extends AbstractTestBase {
+
+    private static final String ACCOUNT_ID = "123456789012";
+
+    @Mock
+    private IoTFleetHubClient client;
+
+    @Mock
+    private LoggerProxy logger;
+
+    private AutoCloseable closeable;
+
+    private SingleFlight singleFlight;
+
+    private ProxyClient<IoTFleetHubClient> proxyClient;
+
+    private final CountDownLatch called = new CountDownLatch(1);
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    public void setup() {
+        closeable = MockitoAnnotations.openMocks(this);
+        singleFlight = new SingleFlight(true);
+        proxyClient = singleFlight.wrap(MOCK_PROXY(newProxy(logger), client), ACCOUNT_ID, Deadline.forInvocation(),
+                "Read", logger);
+    }
+
+    @AfterEach
+    public void tear_down() throws Exception {
+        closeable.close();
+    }
+
+    private DescribeApplicationResponse describe() {
+        return proxyClient.injectCredentialsAndInvokeV2(
+                DescribeApplicationRequest.builder().applicationId(APPLICATION_ID).build(),
+                proxyClient.client()::describeApplication);
+    }
+
+    // Blocks the first describe until released, so a second one can join it
+    private DescribeApplicationResponse blockedDescribe() throws InterruptedException {
+        called.countDown();
+        assertThat(release.await(10, TimeUnit.SECONDS)).isTrue();
+        return DescribeApplicationResponse.builder().applicationId(APPLICATION_ID).applicationName(APPLICATION_NAME).build();
+    }
+
+    private void awaitCoalesced(long count) throws InterruptedException {
+        long until = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (singleFlight.getCoalesced() < count && System.nanoTime() < until) {
+            Thread.sleep(1);
+        }
+    }
+
+    @Test
+    public void describe_Concurrent_SharesOneCall() throws Exception {
+        when(client.describeApplication(any(DescribeApplicationRequest.class)))
+                .thenAnswer(invocation -> blockedDescribe());
+
+        CompletableFuture<DescribeApplicationResponse> leader = CompletableFuture.supplyAsync(this::describe);
+        assertThat(called.await(10, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<DescribeApplicationResponse> follower = CompletableFuture.supplyAsync(this::describe);
+        awaitCoalesced(1);
+        release.countDown();
+
+        assertThat(follower.join()).isSameAs(leader.join());
+        assertThat(singleFlight.getCoalesced()).isEqualTo(1);
+        assertThat(singleFlight.inFlight()).isZero();
+        verify(client, times(1)).describeApplication(any(DescribeApplicationRequest.class));
+
+        // Once the call has completed, the next describe makes its own
+        describe();
+        verify(client, times(2)).describeApplication(any(DescribeApplicationRequest.class));
+    }
+
+    @Test
+    public void describe_LeaderFails_FollowerSharesException() throws Exception {
+        InternalFailureException failure = InternalFailureException.builder().message("Internal failure").build();
+        when(client.describeApplication(any(DescribeApplicationRequest.class))).thenAnswer(invocation -> {
+            blockedDescribe();
+            throw failure;
+        });
+
+        CompletableFuture<DescribeApplicationResponse> leader = CompletableFuture.supplyAsync(this::describe);
+        assertThat(called.await(10, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<DescribeApplicationResponse> follower = CompletableFuture.supplyAsync(this::describe);
+        awaitCoalesced(1);
+        release.countDown();
+
+        assertThatThrownBy(leader::join).isInstanceOf(CompletionException.class).hasCause(failure);
+        assertThatThrownBy(follower::join).isInstanceOf(CompletionException.class).hasCause(failure);
+        verify(client, times(1)).describeApplication(any(DescribeApplicationRequest.class));
+    }
+
+    @Test
+    public void describe_LeaderOutOfTime_FollowerMakesItsOwnCall() throws Exception {
+        when(client.describeApplication(any(DescribeApplicationRequest.class)))
+                .thenAnswer(invocation -> {
+                    blockedDescribe();
+                    throw new DeadlineExceededException("DescribeApplication", Duration.ZERO);
+                })
+                .thenReturn(DescribeApplicationResponse.builder().applicationId(APPLICATION_ID).build());
+
+        CompletableFuture<DescribeApplicationResponse> leader = CompletableFuture.supplyAsync(this::describe);
+        assertThat(called.await(10, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<DescribeApplicationResponse> follower = CompletableFuture.supplyAsync(this::describe);
+        awaitCoalesced(1);
+        release.countDown();
+
+        assertThatThrownBy(leader::join).hasCauseInstanceOf(DeadlineExceededException.class);
+        assertThat(follower.join().applicationId()).isEqualTo(APPLICATION_ID);
+        verify(client, times(2)).describeApplication(any(DescribeApplicationRequest.class));
+    }
+
+    @Test
+    public void describe_FollowerDeadline_StopsWaiting() throws Exception {
+        when(client.describeApplication(any(DescribeApplicationRequest.class)))
+                .thenAnswer(invocation -> blockedDescribe());
+        ProxyClient<IoTFleetHubClient> shortLived = singleFlight.wrap(MOCK_PROXY(newProxy(logger), client), ACCOUNT_ID,
+                Deadline.after(Duration.ofMillis(50), System::nanoTime), "Read", logger);
+
+        CompletableFuture<DescribeApplicationResponse> leader = CompletableFuture.supplyAsync(this::describe);
+        assertThat(called.await(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> shortLived.injectCredentialsAndInvokeV2(
+                DescribeApplicationRequest.builder().applicationId(APPLICATION_ID).build(),
+                shortLived.client()::describeApplication)).isInstanceOf(ApiCallTimeoutException.class);
+        release.countDown();
+        assertThat(leader.join().applicationName()).isEqualTo(APPLICATION_NAME);
+        verify(client, times(1)).describeApplication(any(DescribeApplicationRequest.class));
+    }
+
+    @Test
+    public void describe_AfterWrite_DoesNotJoinEarlierCall() throws Exception {
+        when(client.describeApplication(any(DescribeApplicationRequest.class)))
+                .thenAnswer(invocation -> blockedDescribe())
+                .thenReturn(DescribeApplicationResponse.builder().applicationId(APPLICATION_ID).build());
+        when(client.updateApplication(any(UpdateApplicationRequest.class)))
+                .thenReturn(UpdateApplicationResponse.builder().build());
+
+        CompletableFuture<DescribeApplicationResponse> before = CompletableFuture.supplyAsync(this::describe);
+        assertThat(called.await(10, TimeUnit.SECONDS)).isTrue();
+        proxyClient.injectCredentialsAndInvokeV2(UpdateApplicationRequest.builder().applicationId(APPLICATION_ID).build(),
+                proxyClient.client()::updateApplication);
+
+        DescribeApplicationResponse after = describe();
+        release.countDown();
+
+        assertThat(after.applicationName()).isNull();
+        assertThat(before.join().applicationName()).isEqualTo(APPLICATION_NAME);
+        assertThat(singleFlight.getCoalesced()).isZero();
+        verify(client, times(2)).describeApplication(any(DescribeApplicationRequest.class));
+    }
+
+    @Test
+    public void key_DistinguishesAccountsAndPages() {
+        ListApplicationsRequest firstPage = ListApplicationsRequest.builder().build();
+        ListApplicationsRequest secondPage = ListApplicationsRequest.builder().nextToken("token1").build();
+
+        assertThat(SingleFlight.key(ACCOUNT_ID, firstPage)).isNotEqualTo(SingleFlight.key(ACCOUNT_ID, secondPage));
+        assertThat(SingleFlight.key(ACCOUNT_ID, secondPage))
+                .isEqualTo(SingleFlight.key(ACCOUNT_ID, ListApplicationsRequest.builder().nextToken("token1").build()));
+        assertThat(SingleFlight.key("210987654321", secondPage)).isNotEqualTo(SingleFlight.key(ACCOUNT_ID, secondPage));
+        assertThat(SingleFlight.key(ACCOUNT_ID, UpdateApplicationRequest.builder().build())).isNull();
+    }
+
+    @Test
+    public void wrap_Disabled_ReturnsProxyClient() {
+        ProxyClient<IoTFleetHubClient> unwrapped = MOCK_PROXY(newProxy(logger), client);
+
+        assertThat(new SingleFlight(false).wrap(unwrapped, ACCOUNT_ID, Deadline.forInvocation(), "Read", logger))
+                .isSameAs(unwrapped);
+        assertThat(singleFlight.wrap(unwrapped, null, Deadline.forInvocation(), "Read", logger)).isSameAs(unwrapped);
+    }
+}
@@ -0,0 +1,94 @@
+package software.amazon.iotfleethub.application;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static software.amazon.iotfleethub.application.TestConstants.MODEL_TAG_MAP;
+import static software.amazon.iotfleethub.application.TestConstants.MODEL_TAGS;
+
+public class TagSetTest {
+
+    private static Map<String, String> tags(int count, String valuePrefix) {
+        Map<String, String> tags = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            tags.put("key" + i, valuePrefix + i);
+        }
+        return tags;
+    }
+
+    @Test
+    public void of_ResourceTagsOverrideModelTags() {
+        TagSet tagSet = TagSet.of(MODEL_TAGS, ImmutableMap.of("resourceTagKey", "override", "other", "value"));
+
+        assertThat(tagSet.size()).isEqualTo(2);
+        assertThat(tagSet.toMap()).isEqualTo(ImmutableMap.of("resourceTagKey", "override", "other", "value"));
+        assertThat(TagSet.of(null, null)).isSameAs(TagSet.EMPTY);
+    }
+
+    @Test
+    public void equals_IgnoresSourceAndOrder() {
+        TagSet fromModel = TagSet.of(MODEL_TAGS, null);
+        TagSet fromMap = TagSet.of(MODEL_TAG_MAP);
+
+        assertThat(fromModel).isEqualTo(fromMap);
+        assertThat(fromModel.hashCode()).isEqualTo(fromMap.hashCode());
+        assertThat(fromModel.toModelTags()).isEqualTo(MODEL_TAGS);
+        assertThat(fromModel).isNotEqualTo(TagSet.of(ImmutableMap.of("resourceTagKey", "other")));
+    }
+
+    @Test
+    public void diff_AddsChangedAndNewKeysAndRemovesMissingKeys() {
+        TagSet current = TagSet.of(ImmutableMap.of("a", "1", "b", "2", "c", "3"));
+        TagSet desired = TagSet.of(ImmutableMap.of("b", "2", "c", "changed", "d", "4"));
+
+        TagSet.Diff diff = current.diff(desired);
+
+        assertThat(diff.getTagsToAdd()).isEqualTo(ImmutableMap.of("c", "changed", "d", "4"));
+        assertThat(diff.getTagKeysToRemove()).isEqualTo(ImmutableSet.of("a"));
+        assertThat(diff.isUntagFirst()).isFalse();
+        assertThat(current.diff(current).isEmpty()).isTrue();
+    }
+
+    @Test
+    public void diff_NullValues() {
+        Map<String, String> current = new HashMap<>();
+        current.put("a", null);
+        current.put("b", null);
+        current.put("c", "3");
+        Map<String, String> desired = new HashMap<>();
+        desired.put("a", null);
+        desired.put("b", "2");
+        desired.put("c", null);
+
+        TagSet.Diff diff = TagSet.of(current).diff(TagSet.of(desired));
+
+        Map<String, String> changed = new HashMap<>();
+        changed.put("b", "2");
+        changed.put("c", null);
+        assertThat(diff.getTagsToAdd()).isEqualTo(changed);
+        assertThat(diff.getTagKeysToRemove()).isEmpty();
+    }
+
+    @Test
+    public void diff_AtTagLimit_UntagsFirst() {
+        Map<String, String> desired = tags(TagSet.MAX_TAGS - 1, "value");
+        desired.put("newKey", "value");
+
+        TagSet.Diff diff = TagSet.of(tags(TagSet.MAX_TAGS, "value")).diff(TagSet.of(desired));
+
+        assertThat(diff.getTagsToAdd()).containsOnlyKeys("newKey");
+        assertThat(diff.getTagKeysToRemove()).containsExactly("key" + (TagSet.MAX_TAGS - 1));
+        assertThat(diff.isUntagFirst()).isTrue();
+    }
+
+    @Test
+    public void exceedsLimit_MoreThanMaxTags() {
+        assertThat(TagSet.of(tags(TagSet.MAX_TAGS, "value")).exceedsLimit()).isFalse();
+        assertThat(TagSet.of(tags(TagSet.MAX_TAGS + 1, "value")).exceedsLimit()).isTrue();
+    }
+}
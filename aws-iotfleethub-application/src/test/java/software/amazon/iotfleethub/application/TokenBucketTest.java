@@ -0,0 +1,116 @@
+package software.amazon.iotfleethub.application;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TokenBucketTest {
+
+    private long now;
+
+    private List<Long> sleeps;
+
+    private TokenBucket bucket;
+
+    @BeforeEach
+    public void setup() {
+        now = 0;
+        sleeps = new ArrayList<>();
+        // Sleeping advances the fake clock, as a real sleep would
+        bucket = new TokenBucket("DescribeApplication", 1.0, 4.0, () -> now, nanos -> {
+            sleeps.add(nanos);
+            now += nanos;
+        });
+    }
+
+    @Test
+    public void acquire_WithinBurst_DoesNotWait() {
+        for (int i = 0; i < 4; i++) {
+            assertThat(bucket.acquire()).isEqualTo(Duration.ZERO);
+        }
+        assertThat(sleeps).isEmpty();
+        assertThat(bucket.getAverageQueueWait()).isEqualTo(Duration.ZERO);
+    }
+
+    @Test
+    public void acquire_BeyondBurst_WaitsForRefill() {
+        for (int i = 0; i < 4; i++) {
+            bucket.acquire();
+        }
+
+        // At 4 calls/s the fifth permit is available a quarter second later
+        assertThat(bucket.acquire()).isEqualTo(Duration.ofMillis(250));
+        assertThat(bucket.getLastQueueWait()).isEqualTo(Duration.ofMillis(250));
+        assertThat(bucket.getAverageQueueWait()).isEqualTo(Duration.ofMillis(50));
+        assertThat(sleeps).containsExactly(TimeUnit.MILLISECONDS.toNanos(250));
+    }
+
+    @Test
+    public void tryAcquire_WaitBeyondMax_TakesNoPermit() {
+        for (int i = 0; i < 4; i++) {
+            bucket.acquire();
+        }
+
+        assertThat(bucket.tryAcquire(Duration.ofMillis(100))).isEmpty();
+        assertThat(sleeps).isEmpty();
+
+        // The refused call left no debt behind, so the next one still waits a quarter second
+        assertThat(bucket.tryAcquire(Duration.ofMillis(250))).contains(Duration.ofMillis(250));
+    }
+
+    @Test
+    public void onThrottle_HalvesRateDownToMinimum() {
+        bucket.onThrottle();
+        assertThat(bucket.getRate()).isEqualTo(2.0);
+        bucket.onThrottle();
+        bucket.onThrottle();
+        assertThat(bucket.getRate()).isEqualTo(1.0);
+
+        // Throttling drops the burst allowance, so the next call waits a full second at 1 call/s
+        assertThat(bucket.acquire()).isEqualTo(Duration.ofSeconds(1));
+    }
+
+    @Test
+    public void onSuccess_RaisesRateUpToMaximum() {
+        bucket.onThrottle();
+        bucket.onThrottle();
+        assertThat(bucket.getRate()).isEqualTo(1.0);
+
+        bucket.onSuccess();
+        assertThat(bucket.getRate()).isEqualTo(1.0 + TokenBucket.INCREASE_STEP);
+
+        for (int i = 0; i < 10; i++) {
+            bucket.onSuccess();
+        }
+        assertThat(bucket.getRate()).isEqualTo(4.0);
+    }
+
+    @Test
+    public void onSuccess_RefillsAtTheOldRateFirst() {
+        bucket.onThrottle();
+        bucket.onThrottle();
+
+        // A second at 1 call/s earns one permit, whatever rate the success raises the bucket to
+        now += TimeUnit.SECONDS.toNanos(1);
+        bucket.onSuccess();
+        assertThat(bucket.acquire()).isEqualTo(Duration.ZERO);
+        assertThat(bucket.acquire()).isEqualTo(Duration.ofNanos(666_666_666));
+    }
+
+    @Test
+    public void acquire_Interrupted_KeepsInterruptFlag() {
+        TokenBucket interrupted = new TokenBucket("ListApplications", 1.0, 1.0, () -> 0L, nanos -> {
+            throw new InterruptedException();
+        });
+        interrupted.acquire();
+
+        assertThat(interrupted.acquire()).isEqualTo(Duration.ofSeconds(1));
+        assertThat(Thread.interrupted()).isTrue();
+    }
+}
@@ -59,4 +59,11 @@ public class TranslatorTest {
         HandlerErrorCode result = Translator.translateExceptionToErrorCode(ThrottlingException.builder().build(), logger);
         assertThat(result).isEqualByComparingTo(HandlerErrorCode.Throttling);
     }
+
+    @Test
+    public void translateExceptionToErrorCode_UnexpectedException_InternalFailure() {
+        HandlerErrorCode result = Translator.translateExceptionToErrorCode(new IllegalStateException("Unexpected"), logger);
+        assertThat(result).isEqualByComparingTo(HandlerErrorCode.InternalFailure);
+        assertThat(Translator.classifyException(new IllegalStateException())).isEqualByComparingTo(HandlerErrorCode.InternalFailure);
+    }
 }
@@ -1,19 +1,28 @@
 package software.amazon.iotfleethub.application;
 
+import software.amazon.awssdk.services.iotfleethub.IoTFleetHubAsyncClient;
+import software.amazon.awssdk.services.iotfleethub.IoTFleetHubClient;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 
 import software.amazon.awssdk.core.SdkClient;
 import software.amazon.awssdk.services.iotfleethub.model.IoTFleetHubRequest;
 import software.amazon.awssdk.services.iotfleethub.model.DescribeApplicationRequest;
 import software.amazon.awssdk.services.iotfleethub.model.DescribeApplicationResponse;
+import software.amazon.awssdk.services.iotfleethub.model.InternalFailureException;
+import software.amazon.awssdk.services.iotfleethub.model.InvalidRequestException;
 import software.amazon.awssdk.services.iotfleethub.model.ResourceNotFoundException;
 import software.amazon.awssdk.services.iotfleethub.model.TagResourceRequest;
+import software.amazon.awssdk.services.iotfleethub.model.TagResourceResponse;
+import software.amazon.awssdk.services.iotfleethub.model.ThrottlingException;
 import software.amazon.awssdk.services.iotfleethub.model.UntagResourceRequest;
+import software.amazon.awssdk.services.iotfleethub.model.UntagResourceResponse;
 import software.amazon.awssdk.services.iotfleethub.model.UpdateApplicationRequest;
 import software.amazon.awssdk.services.iotfleethub.model.UpdateApplicationResponse;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.HandlerErrorCode;
 import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.LoggerProxy;
 import software.amazon.cloudformation.proxy.OperationStatus;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ProxyClient;
@@ -27,9 +36,13 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import static junit.framework.Assert.assertEquals;
 import static junit.framework.Assert.assertTrue;
@@ -39,9 +52,11 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.atLeast;
 import static org.mockito.Mockito.when;
 
 import static software.amazon.iotfleethub.application.TestConstants.APPLICATION_ARN;
@@ -53,6 +68,7 @@ import static software.amazon.iotfleethub.application.TestConstants.APPLICATION_
 import static software.amazon.iotfleethub.application.TestConstants.APPLICATION_LAST_UPDATE_DATE;
 import static software.amazon.iotfleethub.application.TestConstants.APPLICATION_NAME;
 import static software.amazon.iotfleethub.application.TestConstants.APPLICATION_NAME_2;
+import static software.amazon.iotfleethub.application.TestConstants.APPLICATION_STATE;
 import static software.amazon.iotfleethub.application.TestConstants.APPLICATION_URL;
 import static software.amazon.iotfleethub.application.TestConstants.CLIENT_TOKEN;
 import static software.amazon.iotfleethub.application.TestConstants.ERROR_MESSAGE;
@@ -64,30 +80,51 @@ import static software.amazon.iotfleethub.application.TestConstants.ROLE_ARN;
 import static software.amazon.iotfleethub.application.TestConstants.SSO_CLIENT_ID;
 
 @ExtendWith(MockitoExtension.class)
-public class UpdateHandlerTest {
+public class UpdateHandlerTest extends AbstractTestBase {
 
     @Mock
-    private AmazonWebServicesClientProxy proxy;
+    private IoTFleetHubClient client;
+
+    @Mock
+    private IoTFleetHubAsyncClient asyncClient;
 
     @Mock
-    private Logger logger;
+    private LoggerProxy logger;
 
     private AutoCloseable closeable;
 
+    private AmazonWebServicesClientProxy proxy;
+
+    private ProxyClient<IoTFleetHubClient> proxyClient;
+
     private UpdateHandler handler;
 
     @BeforeEach
     public void setup() {
         closeable = MockitoAnnotations.openMocks(this);
+        proxy = newProxy(logger);
+        proxyClient = MOCK_PROXY(proxy, client);
         handler = new UpdateHandler();
     }
 
     @AfterEach
     public void tear_down() throws Exception {
-        verifyNoMoreInteractions(proxy);
+        // The call chain reads the service name to key its state in the CallbackContext
+        verify(client, atLeast(0)).serviceName();
+        verifyNoMoreInteractions(client);
+        verifyNoMoreInteractions(asyncClient);
         closeable.close();
     }
 
+    private UpdateHandler asyncHandler() {
+        return new UpdateHandler() {
+            @Override
+            Optional<IoTFleetHubAsyncClient> asyncClient(Logger logger) {
+                return Optional.of(asyncClient);
+            }
+        };
+    }
+
     @Test
     public void handleRequest_Simple_Success() {
         ResourceModel previousModel = ResourceModel.builder()
@@ -112,55 +149,429 @@ public class UpdateHandlerTest {
                 .build();
 
         // Mocking DescribeApp in UpdateHandler
-        DescribeApplicationRequest expectedDescribeRequest = DescribeApplicationRequest.builder()
-                .applicationId(APPLICATION_ID)
-                .build();
         DescribeApplicationResponse describeResponse = DescribeApplicationResponse.builder()
                 .applicationId(APPLICATION_ID)
                 .applicationArn(APPLICATION_ARN)
+                .applicationState(APPLICATION_STATE)
                 .tags(MODEL_TAG_MAP_2)
                 .build();
-        when(proxy.injectCredentialsAndInvokeV2(eq(expectedDescribeRequest), any()))
+        when(client.describeApplication(any(DescribeApplicationRequest.class)))
                 .thenReturn(describeResponse);
 
-        // Mocking UpdateApp in UpdateHandler
-        UpdateApplicationRequest expectedUpdateRequest = UpdateApplicationRequest.builder()
+        // Mocking UpdateApp, TagResource and UntagResource in UpdateHandler
+        when(client.updateApplication(any(UpdateApplicationRequest.class)))
+                .thenReturn(UpdateApplicationResponse.builder().build());
+        when(client.tagResource(any(TagResourceRequest.class)))
+                .thenReturn(TagResourceResponse.builder().build());
+        when(client.untagResource(any(UntagResourceRequest.class)))
+                .thenReturn(UntagResourceResponse.builder().build());
+
+        // Handle Update Request
+        ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
+
+        // Read-only attributes come from the describe made after the update, writable ones from the desired state
+        ResourceModel expectedModel = ResourceModel.builder()
                 .applicationId(APPLICATION_ID)
+                .applicationArn(APPLICATION_ARN)
+                .applicationState(APPLICATION_STATE)
                 .applicationName(APPLICATION_NAME_2)
                 .applicationDescription(APPLICATION_DESCRIPTION_2)
-                .clientToken(CLIENT_TOKEN)
+                .tags(MODEL_TAGS)
                 .build();
-        UpdateApplicationResponse updateResponse = UpdateApplicationResponse.builder().build();
-        doReturn(updateResponse)
-                .when(proxy)
-                .injectCredentialsAndInvokeV2(eq(expectedUpdateRequest), any());
-
-        // Handle Update Request
-        ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, null, logger);
-
         ProgressEvent<ResourceModel, CallbackContext> expectedResponse = ProgressEvent.<ResourceModel, CallbackContext>builder()
-                .resourceModel(desiredModel)
+                .resourceModel(expectedModel)
                 .status(OperationStatus.SUCCESS)
                 .callbackDelaySeconds(0)
                 .build();
         assertThat(response).isEqualTo(expectedResponse);
 
-        ArgumentCaptor<IoTFleetHubRequest> requestCaptor = ArgumentCaptor.forClass(IoTFleetHubRequest.class);
         // IoTFleetHubClient made 4 calls in this case:
-        // describeApplication, updateApplication, tagResource, untagResource
-        verify(proxy, times(4)).injectCredentialsAndInvokeV2(requestCaptor.capture(), any());
-        List<IoTFleetHubRequest> submittedRequests = requestCaptor.getAllValues();
+        // updateApplication, describeApplication, tagResource, untagResource
+        ArgumentCaptor<UpdateApplicationRequest> updateCaptor = ArgumentCaptor.forClass(UpdateApplicationRequest.class);
+        verify(client).updateApplication(updateCaptor.capture());
+        UpdateApplicationRequest expectedUpdateRequest = UpdateApplicationRequest.builder()
+                .applicationId(APPLICATION_ID)
+                .applicationName(APPLICATION_NAME_2)
+                .applicationDescription(APPLICATION_DESCRIPTION_2)
+                .clientToken(CLIENT_TOKEN)
+                .build();
+        assertThat(updateCaptor.getValue().applicationName()).isEqualTo(expectedUpdateRequest.applicationName());
+        assertThat(updateCaptor.getValue().applicationDescription()).isEqualTo(expectedUpdateRequest.applicationDescription());
+        assertThat(updateCaptor.getValue().clientToken()).isEqualTo(expectedUpdateRequest.clientToken());
+
+        verify(client).describeApplication(any(DescribeApplicationRequest.class));
 
-        TagResourceRequest submittedTagRequest = (TagResourceRequest) submittedRequests.get(2);
+        ArgumentCaptor<TagResourceRequest> tagCaptor = ArgumentCaptor.forClass(TagResourceRequest.class);
+        verify(client).tagResource(tagCaptor.capture());
+        TagResourceRequest submittedTagRequest = tagCaptor.getValue();
         assertEquals(submittedTagRequest.tags(), MODEL_TAG_MAP);
         assertThat(submittedTagRequest.resourceArn()).isEqualTo(APPLICATION_ARN);
 
-        UntagResourceRequest submittedUntagRequest = (UntagResourceRequest) submittedRequests.get(3);
+        ArgumentCaptor<UntagResourceRequest> untagCaptor = ArgumentCaptor.forClass(UntagResourceRequest.class);
+        verify(client).untagResource(untagCaptor.capture());
+        UntagResourceRequest submittedUntagRequest = untagCaptor.getValue();
         assertEquals(submittedUntagRequest.tagKeys().size(), 1);
         assertTrue(submittedUntagRequest.tagKeys().contains("resourceTagKey2"));
         assertThat(submittedUntagRequest.resourceArn()).isEqualTo(APPLICATION_ARN);
     }
 
+    @Test
+    public void handleRequest_TagThrottled_RetriesWithBackoff() {
+        ResourceModel desiredModel = ResourceModel.builder()
+                .applicationId(APPLICATION_ID)
+                .applicationName(APPLICATION_NAME)
+                .tags(MODEL_TAGS)
+                .build();
+
+        ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(desiredModel)
+                .clientRequestToken(CLIENT_TOKEN)
+                .build();
+
+        DescribeApplicationResponse describeResponse = DescribeApplicationResponse.builder()
+                .applicationId(APPLICATION_ID)
+                .applicationArn(APPLICATION_ARN)
+                .tags(ImmutableMap.of())
+                .build();
+        when(client.updateApplication(any(UpdateApplicationRequest.class)))
+                .thenReturn(UpdateApplicationResponse.builder().build());
+        when(client.describeApplication(any(DescribeApplicationRequest.class)))
+                .thenReturn(describeResponse);
+        when(client.tagResource(any(TagResourceRequest.class)))
+                .thenThrow(ThrottlingException.builder().build())
+                .thenReturn(TagResourceResponse.builder().build());
+
+        ProgressEvent<ResourceModel, CallbackContext> first =
+                handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
+
+        assertThat(first.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(first.getCallbackDelaySeconds())
+                .isBetween(1, (int) BackoffPolicy.THROTTLING.getMinDelay().getSeconds());
+        assertThat(first.getCallbackContext().isApplicationUpdated()).isTrue();
+        assertThat(first.getCallbackContext().getApplicationArn()).isEqualTo(APPLICATION_ARN);
+        assertThat(first.getCallbackContext().isTagsAdded()).isFalse();
+
+        // The callback resumes at TagResource without repeating the calls that already succeeded
+        ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, request, first.getCallbackContext(), proxyClient, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        verify(client, times(1)).updateApplication(any(UpdateApplicationRequest.class));
+        verify(client, times(1)).describeApplication(any(DescribeApplicationRequest.class));
+        verify(client, times(2)).tagResource(any(TagResourceRequest.class));
+    }
+
+    @Test
+    public void handleRequest_ResumeFromCheckpoints_OnlyRemainingStageRuns() {
+        ResourceModel desiredModel = ResourceModel.builder()
+                .applicationId(APPLICATION_ID)
+                .applicationName(APPLICATION_NAME)
+                .build();
+
+        ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(desiredModel)
+                .clientRequestToken(CLIENT_TOKEN)
+                .build();
+
+        // A previous invocation updated the Application, resolved its Arn and added tags, but did not finish untagging
+        CallbackContext context = new CallbackContext();
+        context.setApplicationUpdated(true);
+        context.setApplicationArn(APPLICATION_ARN);
+        context.setTagsToAdd(MODEL_TAG_MAP);
+        context.setTagKeysToRemove(ImmutableSet.of("resourceTagKey2"));
+        context.setTagsAdded(true);
+
+        when(client.untagResource(any(UntagResourceRequest.class)))
+                .thenReturn(UntagResourceResponse.builder().build());
+
+        ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, request, context, proxyClient, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        ArgumentCaptor<UntagResourceRequest> untagCaptor = ArgumentCaptor.forClass(UntagResourceRequest.class);
+        verify(client).untagResource(untagCaptor.capture());
+        assertThat(untagCaptor.getValue().resourceArn()).isEqualTo(APPLICATION_ARN);
+        assertThat(untagCaptor.getValue().tagKeys()).containsExactly("resourceTagKey2");
+        assertThat(context.isTagsRemoved()).isTrue();
+    }
+
+    @Test
+    public void handleRequest_UntagFailed_KeepsCompletedCheckpoints() {
+        ResourceModel desiredModel = ResourceModel.builder()
+                .applicationId(APPLICATION_ID)
+                .applicationName(APPLICATION_NAME)
+                .build();
+
+        ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(desiredModel)
+                .clientRequestToken(CLIENT_TOKEN)
+                .build();
+
+        DescribeApplicationResponse describeResponse = DescribeApplicationResponse.builder()
+                .applicationId(APPLICATION_ID)
+                .applicationArn(APPLICATION_ARN)
+                .tags(MODEL_TAG_MAP)
+                .build();
+        when(client.updateApplication(any(UpdateApplicationRequest.class)))
+                .thenReturn(UpdateApplicationResponse.builder().build());
+        when(client.describeApplication(any(DescribeApplicationRequest.class)))
+                .thenReturn(describeResponse);
+        when(client.untagResource(any(UntagResourceRequest.class)))
+                .thenThrow(ResourceNotFoundException.builder().build());
+
+        ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getCallbackContext().isApplicationUpdated()).isTrue();
+        assertThat(response.getCallbackContext().getApplicationArn()).isEqualTo(APPLICATION_ARN);
+        assertThat(response.getCallbackContext().getTagKeysToRemove()).containsExactly("resourceTagKey");
+        assertThat(response.getCallbackContext().isTagsRemoved()).isFalse();
+        verify(client).updateApplication(any(UpdateApplicationRequest.class));
+        verify(client).describeApplication(any(DescribeApplicationRequest.class));
+        verify(client).untagResource(any(UntagResourceRequest.class));
+    }
+
+    @Test
+    public void handleRequest_OnlyTagsChanged_SkipsUpdateAndDescribe() {
+        ResourceModel previousModel = ResourceModel.builder()
+                .applicationId(APPLICATION_ID)
+                .applicationArn(APPLICATION_ARN)
+                .applicationName(APPLICATION_NAME)
+                .applicationUrl(APPLICATION_URL)
+                .applicationState(APPLICATION_STATE)
+                .applicationLastUpdateDate((int) APPLICATION_LAST_UPDATE_DATE)
+                .tags(MODEL_TAGS_2)
+                .build();
+
+        ResourceModel desiredModel = ResourceModel.builder()
+                .applicationId(APPLICATION_ID)
+                .applicationArn(APPLICATION_ARN)
+                .applicationName(APPLICATION_NAME)
+                .applicationUrl(APPLICATION_URL)
+                .applicationState(APPLICATION_STATE)
+                .tags(MODEL_TAGS)
+                .build();
+
+        ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .previousResourceState(previousModel)
+                .desiredResourceState(desiredModel)
+                .clientRequestToken(CLIENT_TOKEN)
+                .build();
+
+        when(client.tagResource(any(TagResourceRequest.class)))
+                .thenReturn(TagResourceResponse.builder().build());
+        when(client.untagResource(any(UntagResourceRequest.class)))
+                .thenReturn(UntagResourceResponse.builder().build());
+
+        ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        // Nothing was described after the update, so the attributes an update changes are left unset
+        assertThat(response.getResourceModel().getApplicationUrl()).isEqualTo(APPLICATION_URL);
+        assertThat(response.getResourceModel().getApplicationState()).isNull();
+        assertThat(response.getResourceModel().getApplicationLastUpdateDate()).isNull();
+        ArgumentCaptor<TagResourceRequest> tagCaptor = ArgumentCaptor.forClass(TagResourceRequest.class);
+        verify(client).tagResource(tagCaptor.capture());
+        assertThat(tagCaptor.getValue().resourceArn()).isEqualTo(APPLICATION_ARN);
+        assertThat(tagCaptor.getValue().tags()).isEqualTo(MODEL_TAG_MAP);
+        ArgumentCaptor<UntagResourceRequest> untagCaptor = ArgumentCaptor.forClass(UntagResourceRequest.class);
+        verify(client).untagResource(untagCaptor.capture());
+        assertThat(untagCaptor.getValue().tagKeys()).containsExactly("resourceTagKey2");
+    }
+
+    @Test
+    public void handleRequest_Async_DescribeOverlapsUpdateAndTagsRunConcurrently() {
+        ResourceModel desiredModel = ResourceModel.builder()
+                .applicationId(APPLICATION_ID)
+                .applicationName(APPLICATION_NAME)
+                .tags(MODEL_TAGS)
+                .build();
+
+        ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(desiredModel)
+                .clientRequestToken(CLIENT_TOKEN)
+                .build();
+
+        DescribeApplicationResponse describeResponse = DescribeApplicationResponse.builder()
+                .applicationId(APPLICATION_ID)
+                .applicationArn(APPLICATION_ARN)
+                .applicationUrl(APPLICATION_URL)
+                .applicationState(APPLICATION_STATE)
+                .applicationLastUpdateDate(APPLICATION_LAST_UPDATE_DATE)
+                .tags(MODEL_TAG_MAP_2)
+                .build();
+        when(client.updateApplication(any(UpdateApplicationRequest.class)))
+                .thenReturn(UpdateApplicationResponse.builder().build());
+        when(asyncClient.describeApplication(any(DescribeApplicationRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(describeResponse));
+        when(asyncClient.tagResource(any(TagResourceRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(TagResourceResponse.builder().build()));
+        when(asyncClient.untagResource(any(UntagResourceRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(UntagResourceResponse.builder().build()));
+
+        ProgressEvent<ResourceModel, CallbackContext> response =
+                asyncHandler().handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getCallbackContext()).isNull();
+        // The describe may have answered before the update, so it does not supply the attributes an update changes
+        assertThat(response.getResourceModel().getApplicationUrl()).isEqualTo(APPLICATION_URL);
+        assertThat(response.getResourceModel().getApplicationState()).isNull();
+        assertThat(response.getResourceModel().getApplicationLastUpdateDate()).isNull();
+        verify(client).updateApplication(any(UpdateApplicationRequest.class));
+        verify(asyncClient).describeApplication(any(DescribeApplicationRequest.class));
+        ArgumentCaptor<TagResourceRequest> tagCaptor = ArgumentCaptor.forClass(TagResourceRequest.class);
+        verify(asyncClient).tagResource(tagCaptor.capture());
+        assertThat(tagCaptor.getValue().resourceArn()).isEqualTo(APPLICATION_ARN);
+        assertThat(tagCaptor.getValue().tags()).isEqualTo(MODEL_TAG_MAP);
+        ArgumentCaptor<UntagResourceRequest> untagCaptor = ArgumentCaptor.forClass(UntagResourceRequest.class);
+        verify(asyncClient).untagResource(untagCaptor.capture());
+        assertThat(untagCaptor.getValue().tagKeys()).containsExactly("resourceTagKey2");
+    }
+
+    @Test
+    public void handleRequest_AsyncUpdateNotSent_DescribeNotStarted() {
+        ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(ResourceModel.builder().applicationId(APPLICATION_ID).applicationName(APPLICATION_NAME).build())
+                .clientRequestToken(CLIENT_TOKEN)
+                .build();
+        ProxyClient<IoTFleetHubClient> bounded = Deadline.after(Duration.ofMillis(500), System::nanoTime).bound(proxyClient);
+
+        ProgressEvent<ResourceModel, CallbackContext> response =
+                asyncHandler().handleRequest(proxy, request, new CallbackContext(), bounded, logger);
+
+        // Refused for lack of invocation time, so the describe meant to overlap it is never made
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        verify(client, never()).updateApplication(any(UpdateApplicationRequest.class));
+        verify(asyncClient, never()).describeApplication(any(DescribeApplicationRequest.class));
+    }
+
+    @Test
+    public void handleRequest_AsyncUpdateFailed_DescribeDiscarded() {
+        ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(ResourceModel.builder().applicationId(APPLICATION_ID).applicationName(APPLICATION_NAME).build())
+                .clientRequestToken(CLIENT_TOKEN)
+                .build();
+        CompletableFuture<DescribeApplicationResponse> describe = new CompletableFuture<>();
+        when(client.updateApplication(any(UpdateApplicationRequest.class)))
+                .thenThrow(InvalidRequestException.builder().message(ERROR_MESSAGE).build());
+        when(asyncClient.describeApplication(any(DescribeApplicationRequest.class))).thenReturn(describe);
+
+        ProgressEvent<ResourceModel, CallbackContext> response =
+                asyncHandler().handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.InvalidRequest);
+        // Started once UpdateApplication was sent, then given up on rather than waited for
+        verify(asyncClient).describeApplication(any(DescribeApplicationRequest.class));
+        assertThat(describe.isDone()).isFalse();
+    }
+
+    @Test
+    public void handleRequest_AsyncTagFailed_RetriedOnCallback() {
+        ResourceModel previousModel = ResourceModel.builder()
+                .applicationId(APPLICATION_ID)
+                .applicationArn(APPLICATION_ARN)
+                .applicationName(APPLICATION_NAME)
+                .tags(MODEL_TAGS_2)
+                .build();
+
+        ResourceModel desiredModel = ResourceModel.builder()
+                .applicationId(APPLICATION_ID)
+                .applicationArn(APPLICATION_ARN)
+                .applicationName(APPLICATION_NAME)
+                .tags(MODEL_TAGS)
+                .build();
+
+        ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .previousResourceState(previousModel)
+                .desiredResourceState(desiredModel)
+                .clientRequestToken(CLIENT_TOKEN)
+                .build();
+
+        CompletableFuture<TagResourceResponse> failedTag = new CompletableFuture<>();
+        failedTag.completeExceptionally(InternalFailureException.builder().message("Internal failure").build());
+        when(asyncClient.tagResource(any(TagResourceRequest.class)))
+                .thenReturn(failedTag)
+                .thenReturn(CompletableFuture.completedFuture(TagResourceResponse.builder().build()));
+        when(asyncClient.untagResource(any(UntagResourceRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(UntagResourceResponse.builder().build()));
+
+        // The failed TagResource is handed to the call chain like a blocking failure, and retried after its backoff
+        ProgressEvent<ResourceModel, CallbackContext> first =
+                asyncHandler().handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
+        assertThat(first.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(first.getCallbackContext().isTagsAdded()).isFalse();
+
+        ProgressEvent<ResourceModel, CallbackContext> response =
+                asyncHandler().handleRequest(proxy, request, first.getCallbackContext(), proxyClient, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        verify(asyncClient, times(2)).tagResource(any(TagResourceRequest.class));
+        verify(asyncClient, times(2)).untagResource(any(UntagResourceRequest.class));
+    }
+
+    @Test
+    public void handleRequest_AsyncUntagFirst_RunsInOrder() {
+        ResourceModel desiredModel = ResourceModel.builder()
+                .applicationId(APPLICATION_ID)
+                .applicationName(APPLICATION_NAME)
+                .build();
+
+        ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(desiredModel)
+                .clientRequestToken(CLIENT_TOKEN)
+                .build();
+
+        // Untagging has to finish before tagging, so neither call is started ahead of its stage
+        CallbackContext context = new CallbackContext();
+        context.setUpdatePlanned(true);
+        context.setApplicationUpdated(true);
+        context.setApplicationArn(APPLICATION_ARN);
+        context.setTagsToAdd(MODEL_TAG_MAP);
+        context.setTagKeysToRemove(ImmutableSet.of("resourceTagKey2"));
+        context.setUntagFirst(true);
+
+        when(client.untagResource(any(UntagResourceRequest.class)))
+                .thenReturn(UntagResourceResponse.builder().build());
+        when(client.tagResource(any(TagResourceRequest.class)))
+                .thenReturn(TagResourceResponse.builder().build());
+
+        ProgressEvent<ResourceModel, CallbackContext> response =
+                asyncHandler().handleRequest(proxy, request, context, proxyClient, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        verify(client).untagResource(any(UntagResourceRequest.class));
+        verify(client).tagResource(any(TagResourceRequest.class));
+    }
+
+    @Test
+    public void handleRequest_NothingChanged_MakesNoCalls() {
+        ResourceModel model = ResourceModel.builder()
+                .applicationId(APPLICATION_ID)
+                .applicationName(APPLICATION_NAME)
+                .applicationDescription(APPLICATION_DESCRIPTION)
+                .tags(MODEL_TAGS)
+                .build();
+
+        ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .previousResourceState(model)
+                .desiredResourceState(model)
+                .previousResourceTags(MODEL_TAG_MAP_2)
+                .desiredResourceTags(MODEL_TAG_MAP_2)
+                .clientRequestToken(CLIENT_TOKEN)
+                .build();
+
+        ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModel()).isEqualTo(model);
+    }
+
     @Test
     public void updateTags_SameKeyDifferentValue_Success() {
         Map<String, String> desiredTags = ImmutableMap.of("resourceTagKey", "differentTagValue");
@@ -171,14 +582,16 @@ public class UpdateHandlerTest {
                 .desiredResourceTags(desiredTags)
                 .build();
 
-        handler.updateTags(proxy, request, APPLICATION_ARN, MODEL_TAG_MAP, logger);
+        when(client.tagResource(any(TagResourceRequest.class)))
+                .thenReturn(TagResourceResponse.builder().build());
+
+        handler.updateTags(proxy, proxyClient, request, APPLICATION_ARN, MODEL_TAG_MAP, new CallbackContext(), logger);
 
-        ArgumentCaptor<IoTFleetHubRequest> requestCaptor = ArgumentCaptor.forClass(IoTFleetHubRequest.class);
         // There should only be 1 call (we should only be updating one Tag, and no Tag removals)
-        verify(proxy, times(1)).injectCredentialsAndInvokeV2(requestCaptor.capture(), any());
-        List<IoTFleetHubRequest> submittedRequests = requestCaptor.getAllValues();
+        ArgumentCaptor<TagResourceRequest> requestCaptor = ArgumentCaptor.forClass(TagResourceRequest.class);
+        verify(client, times(1)).tagResource(requestCaptor.capture());
 
-        TagResourceRequest submittedTagRequest = (TagResourceRequest) submittedRequests.get(0);
+        TagResourceRequest submittedTagRequest = requestCaptor.getValue();
         assertEquals(submittedTagRequest.tags(), desiredTags);
     }
 
@@ -189,14 +602,16 @@ public class UpdateHandlerTest {
                 .desiredResourceState(ResourceModel.builder().build())
                 .build();
 
-        handler.updateTags(proxy, request, APPLICATION_ARN, MODEL_TAG_MAP, logger);
+        when(client.untagResource(any(UntagResourceRequest.class)))
+                .thenReturn(UntagResourceResponse.builder().build());
+
+        handler.updateTags(proxy, proxyClient, request, APPLICATION_ARN, MODEL_TAG_MAP, new CallbackContext(), logger);
 
-        ArgumentCaptor<IoTFleetHubRequest> requestCaptor = ArgumentCaptor.forClass(IoTFleetHubRequest.class);
         // There should only be 1 call (we should only be removing one Tag)
-        verify(proxy, times(1)).injectCredentialsAndInvokeV2(requestCaptor.capture(), any());
-        List<IoTFleetHubRequest> submittedRequests = requestCaptor.getAllValues();
+        ArgumentCaptor<UntagResourceRequest> requestCaptor = ArgumentCaptor.forClass(UntagResourceRequest.class);
+        verify(client, times(1)).untagResource(requestCaptor.capture());
 
-        UntagResourceRequest submittedUntagRequest = (UntagResourceRequest) submittedRequests.get(0);
+        UntagResourceRequest submittedUntagRequest = requestCaptor.getValue();
         assertEquals(submittedUntagRequest.tagKeys().size(), 1);
         assertTrue(submittedUntagRequest.tagKeys().contains("resourceTagKey"));
     }
@@ -230,6 +645,32 @@ public class UpdateHandlerTest {
         assertThat(response.getMessage()).isEqualTo("Can only update ApplicationName, ApplicationDescription, or Tags.");
     }
 
+    @Test
+    public void handleRequest_TooManyTags_Failure() {
+        Map<String, String> desiredTags = new HashMap<>();
+        for (int i = 0; i <= TagSet.MAX_TAGS; i++) {
+            desiredTags.put("key" + i, "value" + i);
+        }
+
+        ResourceModel desiredModel = ResourceModel.builder()
+                .applicationId(APPLICATION_ID)
+                .applicationName(APPLICATION_NAME)
+                .build();
+
+        ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(desiredModel)
+                .desiredResourceTags(desiredTags)
+                .clientRequestToken(CLIENT_TOKEN)
+                .build();
+
+        ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.InvalidRequest);
+        assertThat(response.getMessage()).isEqualTo("An Application can have at most 50 tags.");
+    }
+
     @Test
     public void handleRequest_NoAppId_Failure() {
         ResourceModel desiredModel = ResourceModel.builder()
@@ -263,15 +704,55 @@ public class UpdateHandlerTest {
                 .clientRequestToken(CLIENT_TOKEN)
                 .build();
 
-        when(proxy.injectCredentialsAndInvokeV2(any(), any()))
+        when(client.updateApplication(any(UpdateApplicationRequest.class)))
                 .thenThrow(ResourceNotFoundException.builder().build());
 
-        ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, null, logger);
+        ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
 
         assertThat(response).isNotNull();
         assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
         assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.NotFound);
         assertThat(response.getMessage()).isNull();
+        verify(client).updateApplication(any(UpdateApplicationRequest.class));
+        verify(client, never()).describeApplication(any(DescribeApplicationRequest.class));
+    }
+
+    @Test
+    public void handleRequest_AppNotFound_WithPreviousState_Failure() {
+        ResourceModel previousModel = ResourceModel.builder()
+                .applicationId(APPLICATION_ID)
+                .applicationArn(APPLICATION_ARN)
+                .applicationName(APPLICATION_NAME)
+                .applicationDescription(APPLICATION_DESCRIPTION)
+                .tags(MODEL_TAGS_2)
+                .build();
+        ResourceModel desiredModel = ResourceModel.builder()
+                .applicationId(APPLICATION_ID)
+                .applicationArn(APPLICATION_ARN)
+                .applicationName(APPLICATION_NAME_2)
+                .applicationDescription(APPLICATION_DESCRIPTION_2)
+                .tags(MODEL_TAGS)
+                .build();
+
+        // The plan takes the applicationArn from the previous state, so no describe would notice the Application is gone
+        ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .previousResourceState(previousModel)
+                .desiredResourceState(desiredModel)
+                .clientRequestToken(CLIENT_TOKEN)
+                .build();
+
+        when(client.updateApplication(any(UpdateApplicationRequest.class)))
+                .thenThrow(ResourceNotFoundException.builder().message("Application not found").build());
+
+        ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.NotFound);
+        assertThat(response.getMessage()).isEqualTo("Application not found");
+        verify(client, never()).tagResource(any(TagResourceRequest.class));
+        verify(client, never()).untagResource(any(UntagResourceRequest.class));
     }
 
     @Test
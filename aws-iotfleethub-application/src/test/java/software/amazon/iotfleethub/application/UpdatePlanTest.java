@@ -0,0 +1,94 @@
+package software.amazon.iotfleethub.application;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static software.amazon.iotfleethub.application.TestConstants.APPLICATION_ARN;
+import static software.amazon.iotfleethub.application.TestConstants.APPLICATION_DESCRIPTION;
+import static software.amazon.iotfleethub.application.TestConstants.APPLICATION_ID;
+import static software.amazon.iotfleethub.application.TestConstants.APPLICATION_NAME;
+import static software.amazon.iotfleethub.application.TestConstants.APPLICATION_NAME_2;
+import static software.amazon.iotfleethub.application.TestConstants.MODEL_TAG_MAP;
+import static software.amazon.iotfleethub.application.TestConstants.MODEL_TAG_MAP_2;
+import static software.amazon.iotfleethub.application.TestConstants.MODEL_TAGS;
+import static software.amazon.iotfleethub.application.TestConstants.MODEL_TAGS_2;
+
+public class UpdatePlanTest {
+
+    private static ResourceModel.ResourceModelBuilder model() {
+        return ResourceModel.builder()
+                .applicationId(APPLICATION_ID)
+                .applicationName(APPLICATION_NAME)
+                .applicationDescription(APPLICATION_DESCRIPTION);
+    }
+
+    @Test
+    public void of_NoPreviousState_PlansAllCalls() {
+        UpdatePlan plan = UpdatePlan.of(ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(model().build())
+                .build());
+
+        assertThat(plan.isUpdateApplication()).isTrue();
+        assertThat(plan.isDescribeApplication()).isTrue();
+        assertThat(plan.getTagsToAdd()).isNull();
+        assertThat(plan.getAvoidedCalls()).isZero();
+    }
+
+    @Test
+    public void of_NothingChanged_PlansNoCalls() {
+        UpdatePlan plan = UpdatePlan.of(ResourceHandlerRequest.<ResourceModel>builder()
+                .previousResourceState(model().tags(MODEL_TAGS).build())
+                .desiredResourceState(model().tags(MODEL_TAGS).build())
+                .build());
+
+        assertThat(plan.getPlannedCalls()).isZero();
+        assertThat(plan.getAvoidedCalls()).isEqualTo(UpdatePlan.MAX_CALLS);
+    }
+
+    @Test
+    public void of_OnlyTagsChanged_SkipsUpdateAndDescribe() {
+        UpdatePlan plan = UpdatePlan.of(ResourceHandlerRequest.<ResourceModel>builder()
+                .previousResourceState(model().applicationArn(APPLICATION_ARN).tags(MODEL_TAGS_2).build())
+                .desiredResourceState(model().tags(MODEL_TAGS).build())
+                .build());
+
+        assertThat(plan.isUpdateApplication()).isFalse();
+        assertThat(plan.isDescribeApplication()).isFalse();
+        assertThat(plan.getApplicationArn()).isEqualTo(APPLICATION_ARN);
+        assertThat(plan.getTagsToAdd()).isEqualTo(MODEL_TAG_MAP);
+        assertThat(plan.getTagKeysToRemove()).containsExactly("resourceTagKey2");
+        assertThat(plan.getAvoidedCalls()).isEqualTo(2);
+    }
+
+    @Test
+    public void of_TagsChangedWithoutArn_PlansDescribe() {
+        UpdatePlan plan = UpdatePlan.of(ResourceHandlerRequest.<ResourceModel>builder()
+                .previousResourceState(model().build())
+                .previousResourceTags(MODEL_TAG_MAP_2)
+                .desiredResourceState(model().applicationName(APPLICATION_NAME_2).build())
+                .build());
+
+        assertThat(plan.isUpdateApplication()).isTrue();
+        assertThat(plan.isDescribeApplication()).isTrue();
+        assertThat(plan.getTagsToAdd()).isNull();
+    }
+
+    @Test
+    public void applyTo_CheckpointsSkippedStages() {
+        UpdatePlan plan = UpdatePlan.of(ResourceHandlerRequest.<ResourceModel>builder()
+                .previousResourceState(model().applicationArn(APPLICATION_ARN).build())
+                .desiredResourceState(model().build())
+                .desiredResourceTags(MODEL_TAG_MAP)
+                .build());
+        CallbackContext context = new CallbackContext();
+
+        plan.applyTo(context);
+
+        assertThat(context.isUpdatePlanned()).isTrue();
+        assertThat(context.isApplicationUpdated()).isTrue();
+        assertThat(context.getApplicationArn()).isEqualTo(APPLICATION_ARN);
+        assertThat(context.getTagsToAdd()).isEqualTo(MODEL_TAG_MAP);
+        assertThat(context.getTagKeysToRemove()).isEmpty();
+    }
+}